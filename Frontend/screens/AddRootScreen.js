@@ -19,6 +19,8 @@ import * as Haptics from 'expo-haptics';
 import { racineService } from '../services/racineService';
 
 const { width } = Dimensions.get('window');
+const PAGE_SIZE = 100;
+const SEARCH_LIMIT = 100;
 
 export default function AddRootScreen() {
   // State للإضافة
@@ -28,6 +30,9 @@ export default function AddRootScreen() {
   
   // State للبحث والترتيب
   const [searchQuery, setSearchQuery] = useState('');
+  const [searchResults, setSearchResults] = useState(null);  // null: لا يوجد بحث
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [sortOrder, setSortOrder] = useState('asc');
   const [filterType, setFilterType] = useState('all');
   
@@ -54,25 +59,60 @@ export default function AddRootScreen() {
   const rotateAnim = useRef(new Animated.Value(0)).current;
   const searchBarAnim = useRef(new Animated.Value(0)).current;
 
-  // 📥 تحميل الجذور
-  const loadRoots = async () => {
+  // 📥 تحميل الجذور صفحة بصفحة (الصفحة الأولى، أو التالية مع cursor)
+  const loadRoots = async (cursor = null) => {
     try {
-      const response = await racineService.getAllRacines();
-      const rootsData = response.data || response || [];
+      const response = await racineService.getRacinesPage({
+        cursor,
+        limit: PAGE_SIZE,
+        fields: 'id,racine,deriveCount,createdAt'
+      });
+      const page = response?.data || {};
       
-      const formattedRoots = rootsData.map((root, index) => ({
-        id: root.id || index.toString(),
+      const formattedRoots = (page.items || []).map((root, index) => ({
+        id: root.id || root.racine || index.toString(),
         text: root.racine,
         date: new Date(root.createdAt || Date.now()).toLocaleDateString('ar-SA'),
-        derives: root.derives?.length || 0
+        derives: root.deriveCount ?? root.derives?.length ?? 0
       }));
       
-      setRoots(formattedRoots);
+      setRoots(prev => cursor ? [...prev, ...formattedRoots] : formattedRoots);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
     } catch (error) {
       console.error('Error loading roots:', error);
     }
   };
 
+  const loadMoreRoots = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    await loadRoots(nextCursor);
+    setLoadingMore(false);
+  };
+
+  // 🔍 البحث بالبادئة من المحرك (بدون تحميل كل الجذور)
+  useEffect(() => {
+    const prefix = searchQuery.trim();
+    if (!prefix) {
+      setSearchResults(null);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await racineService.searchRacines(prefix, SEARCH_LIMIT);
+        if (!cancelled) setSearchResults(response?.data || []);
+      } catch (error) {
+        console.error('Error searching roots:', error);
+        if (!cancelled) setSearchResults([]);
+      }
+    }, 250);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchQuery, roots]);
+
   useEffect(() => {
     loadRoots();
     
@@ -118,13 +158,13 @@ export default function AddRootScreen() {
   };
 
   // دالة التصفية والترتيب
+  // نتائج البحث: جذور فقط، والتفاصيل من الصفحات المحملة إن وجدت (وإلا عدد المشتقات غير معروف)
   const getFilteredAndSortedRoots = useMemo(() => {
     let filtered = [...roots];
     
-    if (searchQuery.trim()) {
-      filtered = filtered.filter(item => 
-        item.text.includes(searchQuery)
-      );
+    if (searchResults) {
+      const loaded = new Map(roots.map(item => [item.text, item]));
+      filtered = searchResults.map(r => loaded.get(r) || { id: r, text: r, date: '', derives: null });
     }
     
     if (filterType === 'used') {
@@ -134,7 +174,7 @@ export default function AddRootScreen() {
     }
     
     return sortArabicAlphabetically(filtered, sortOrder);
-  }, [roots, searchQuery, sortOrder, filterType]);
+  }, [roots, searchResults, sortOrder, filterType]);
 
   // ✅ التحقق من صحة الجذر
   const validateRoot = (text) => {
@@ -391,8 +431,12 @@ export default function AddRootScreen() {
         
         <View style={styles.rootFooter}>
           <View style={styles.dateContainer}>
-            <Ionicons name="calendar" size={12} color="#94a3b8" />
-            <Text style={styles.rootDate}>{item.date}</Text>
+            {item.date ? (
+              <>
+                <Ionicons name="calendar" size={12} color="#94a3b8" />
+                <Text style={styles.rootDate}>{item.date}</Text>
+              </>
+            ) : null}
           </View>
           
           <View style={styles.derivesBadge}>
@@ -403,7 +447,7 @@ export default function AddRootScreen() {
               style={styles.derivesGradient}
             >
               <Ionicons name="git-branch" size={10} color="#fff" />
-              <Text style={styles.rootDerives}>{item.derives}</Text>
+              <Text style={styles.rootDerives}>{item.derives ?? '—'}</Text>
             </LinearGradient>
           </View>
         </View>
@@ -413,7 +457,7 @@ export default function AddRootScreen() {
           <View 
             style={[
               styles.progressFill, 
-              { width: `${Math.min(item.derives * 10, 100)}%` }
+              { width: `${Math.min((item.derives || 0) * 10, 100)}%` }
             ]} 
           />
         </View>
@@ -633,6 +677,23 @@ export default function AddRootScreen() {
               scrollEnabled={false}
             />
           )}
+          
+          {!searchResults && nextCursor && (
+            <TouchableOpacity 
+              style={styles.loadMoreButton}
+              onPress={loadMoreRoots}
+              disabled={loadingMore}
+            >
+              {loadingMore ? (
+                <ActivityIndicator size="small" color="#4f46e5" />
+              ) : (
+                <>
+                  <Text style={styles.loadMoreText}>تحميل المزيد</Text>
+                  <Ionicons name="chevron-down" size={18} color="#4f46e5" />
+                </>
+              )}
+            </TouchableOpacity>
+          )}
         </View>
       </ScrollView>
 
@@ -1122,6 +1183,22 @@ const styles = StyleSheet.create({
     textAlign: 'center',
   },
   
+  loadMoreButton: {
+    flexDirection: 'row-reverse',
+    justifyContent: 'center',
+    alignItems: 'center',
+    gap: 8,
+    paddingVertical: 14,
+    marginTop: 10,
+    borderRadius: 16,
+    backgroundColor: '#eef2ff',
+  },
+  loadMoreText: {
+    fontSize: 15,
+    fontWeight: '700',
+    color: '#4f46e5',
+  },
+  
   modalOverlay: {
     flex: 1,
     backgroundColor: 'rgba(0, 0, 0, 0.5)',
@@ -1,7 +1,7 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { 
   View, Text, StyleSheet, TouchableOpacity, ScrollView, 
-  Animated, Modal, FlatList, ActivityIndicator, Alert, Platform, Dimensions, StatusBar
+  Animated, Modal, FlatList, ActivityIndicator, Alert, Platform, Dimensions, StatusBar, TextInput
 } from 'react-native';
 import { Ionicons } from '@expo/vector-icons';
 import { LinearGradient } from 'expo-linear-gradient';
@@ -12,6 +12,7 @@ import { racineService } from '../services/racineService';
 import { schemeService } from '../services/schemeService';
 
 const { width } = Dimensions.get('window');
+const ROOT_SEARCH_LIMIT = 50;
 
 export default function GenerateScreen() {
   const [result, setResult] = useState('...');
@@ -22,6 +23,8 @@ export default function GenerateScreen() {
   const [isGenerating, setIsGenerating] = useState(false);
   const [isPlaying, setIsPlaying] = useState(false);
   const [roots, setRoots] = useState([]);
+  const [rootQuery, setRootQuery] = useState('');
+  const [isSearchingRoots, setIsSearchingRoots] = useState(false);
   const [schemes, setSchemes] = useState([]);
   const [recentGenerations, setRecentGenerations] = useState([]);
   
@@ -39,6 +42,30 @@ export default function GenerateScreen() {
     startRotateAnimation();
   }, []);
 
+  // البحث عن الجذور بالبادئة من المحرك عند فتح القائمة أو تغيير النص (بدون تحميل كل الجذور)
+  useEffect(() => {
+    if (!showRootsModal) return;
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      setIsSearchingRoots(true);
+      try {
+        const response = await racineService.searchRacines(rootQuery.trim(), ROOT_SEARCH_LIMIT);
+        if (cancelled) return;
+        const found = Array.isArray(response) ? response : response?.data || [];
+        // الجذور مرتبة أبجديا من المحرك
+        setRoots(found.map(r => ({ id: r, root: r })));
+      } catch (e) {
+        if (!cancelled) setRoots([]);
+      } finally {
+        if (!cancelled) setIsSearchingRoots(false);
+      }
+    }, 250);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [rootQuery, showRootsModal]);
+
   const startRotateAnimation = () => {
     Animated.loop(
       Animated.timing(rotateAnim, {
@@ -125,19 +152,8 @@ export default function GenerateScreen() {
 
   const loadData = async () => {
     try {
-      const [rRes, sRes] = await Promise.all([
-        racineService.getAllRacines(),
-        schemeService.getAllSchemes()
-      ]);
-      
-      // تنسيق الجذور مع ترتيب أبجدي
-      const formattedRoots = (Array.isArray(rRes) ? rRes : rRes?.data || [])
-        .map((r, i) => ({ 
-          id: i.toString(), 
-          root: r.racine || r,
-          original: r
-        }))
-        .sort((a, b) => a.root.localeCompare(b.root, 'ar'));
+      // الجذور تُجلب بالبحث عند فتح القائمة، الأوزان قليلة فتُحمّل كلها
+      const sRes = await schemeService.getAllSchemes();
       
       // تنسيق الأوزان
       const formattedSchemes = (Array.isArray(sRes) ? sRes : sRes?.data || [])
@@ -147,7 +163,6 @@ export default function GenerateScreen() {
           description: s.description || 'وزن صرفي'
         }));
       
-      setRoots(formattedRoots);
       setSchemes(formattedSchemes);
       
     } catch (e) { 
@@ -385,6 +400,22 @@ export default function GenerateScreen() {
               </Text>
             </LinearGradient>
             
+            {showRootsModal && (
+              <View style={styles.modalSearch}>
+                <Ionicons name="search" size={18} color="#667eea" />
+                <TextInput
+                  style={styles.modalSearchInput}
+                  value={rootQuery}
+                  onChangeText={setRootQuery}
+                  placeholder="ابحث عن جذر..."
+                  placeholderTextColor="#94a3b8"
+                  autoCorrect={false}
+                  textAlign="right"
+                />
+                {isSearchingRoots && <ActivityIndicator size="small" color="#667eea" />}
+              </View>
+            )}
+            
             <FlatList
               data={showRootsModal ? roots : schemes}
               keyExtractor={item => item.id}
@@ -803,6 +834,25 @@ const styles = StyleSheet.create({
     textAlign: 'center',
     fontWeight: '600',
   },
+  modalSearch: {
+    flexDirection: 'row-reverse',
+    alignItems: 'center',
+    gap: 10,
+    marginHorizontal: 20,
+    marginTop: 15,
+    paddingHorizontal: 15,
+    paddingVertical: 10,
+    backgroundColor: '#f8fafc',
+    borderRadius: 18,
+    borderWidth: 1,
+    borderColor: '#e2e8f0',
+  },
+  modalSearchInput: {
+    flex: 1,
+    fontSize: 16,
+    color: '#1e293b',
+    fontWeight: '600',
+  },
   modalList: {
     padding: 20,
     gap: 10,
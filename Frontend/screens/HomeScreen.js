@@ -22,8 +22,11 @@ import { Ionicons } from '@expo/vector-icons';
 import * as Speech from 'expo-speech';
 import * as Haptics from 'expo-haptics';
 import { racineService } from '../services/racineService';
+import { morphologyService } from '../services/morphologyService';
 
 const { width } = Dimensions.get('window');
+const PAGE_SIZE = 100;
+const SEARCH_LIMIT = 20;
 
 const colors = {
   primary: '#ffffff',
@@ -47,6 +50,8 @@ export default function HomeScreen() {
   const [searchQuery, setSearchQuery] = useState('');
   const [roots, setRoots] = useState([]);
   const [filteredRoots, setFilteredRoots] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [stats, setStats] = useState({
     totalRoots: 0,
     totalDerives: 0,
@@ -85,7 +90,7 @@ export default function HomeScreen() {
   const searchBarAnim = useRef(new Animated.Value(0)).current;
 
   useEffect(() => {
-    loadAllRootsWithDerives();
+    loadRootsWithDerives();
     
     Animated.parallel([
       Animated.timing(fadeAnim, {
@@ -156,37 +161,44 @@ export default function HomeScreen() {
     });
   };
 
-  // 📥 تحميل الجذور
-  const loadAllRootsWithDerives = async () => {
+  const formatRoot = (root, index) => {
+    const derives = (root.derives || []).map((derive, idx) => ({
+      id: `${root.racine}-derive-${idx}`,
+      word: derive.mot,
+      scheme: derive.scheme,
+      date: new Date(derive.createdAt || Date.now()).toLocaleDateString('ar-SA'),
+      category: getCategoryFromScheme(derive.scheme)
+    }));
+
+    return {
+      id: root.id || root.racine || index.toString(),
+      racine: root.racine,
+      derives: derives,
+      totalDerives: derives.length,
+      createdAt: new Date(root.createdAt || Date.now()).toLocaleDateString('ar-SA'),
+      hasDerives: derives.length > 0
+    };
+  };
+
+  // 📥 تحميل الجذور صفحة بصفحة (الصفحة الأولى، أو التالية مع cursor)
+  // الإحصائيات محسوبة على الصفحات المحملة، وعدد الجذور الكلي من الخادم
+  const loadRootsWithDerives = async (cursor = null) => {
     try {
-      setLoading(true);
+      if (!cursor) setLoading(true);
       
-      const response = await racineService.getAllRacines();
-      const rootsData = response.data || response || [];
-      
-      const formattedRoots = rootsData.map((root, index) => {
-        const derives = (root.derives || []).map((derive, idx) => ({
-          id: `${root.racine}-derive-${idx}`,
-          word: derive.mot,
-          scheme: derive.scheme,
-          date: new Date(derive.createdAt || Date.now()).toLocaleDateString('ar-SA'),
-          category: getCategoryFromScheme(derive.scheme)
-        }));
-
-        return {
-          id: root.id || index.toString(),
-          racine: root.racine,
-          derives: derives,
-          totalDerives: derives.length,
-          createdAt: new Date(root.createdAt || Date.now()).toLocaleDateString('ar-SA'),
-          hasDerives: derives.length > 0
-        };
-      });
+      const [response, countResponse] = await Promise.all([
+        racineService.getRacinesPage({ cursor, limit: PAGE_SIZE, fields: 'id,racine,derives,createdAt' }),
+        racineService.getRacineCount().catch(() => null)
+      ]);
+      const page = response?.data || {};
+      const pageRoots = (page.items || []).map(formatRoot);
+      const formattedRoots = cursor ? [...roots, ...pageRoots] : pageRoots;
 
       const sortedRoots = sortArabicAlphabetically(formattedRoots);
       
       setRoots(sortedRoots);
       setFilteredRoots(sortedRoots);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
       
       const totalDerives = formattedRoots.reduce((sum, root) => sum + root.totalDerives, 0);
       
@@ -207,7 +219,7 @@ export default function HomeScreen() {
       });
 
       const newStats = {
-        totalRoots: formattedRoots.length,
+        totalRoots: countResponse?.data ?? formattedRoots.length,
         totalDerives: totalDerives,
         categories: allCategories.size,
         lastUpdate: new Date().toLocaleTimeString('ar-SA'),
@@ -257,25 +269,61 @@ export default function HomeScreen() {
     return topCat;
   };
 
+  const loadMoreRoots = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    await loadRootsWithDerives(nextCursor);
+    setLoadingMore(false);
+  };
+
+  // 🔍 البحث بالبادئة من المحرك: الجذور والكلمات المولدة (بدون تحميل كل القاموس)
+  // الجذور غير المحملة بعد تُجلب واحدا واحدا مع مشتقاتها
   useEffect(() => {
-    if (searchQuery.trim() === '') {
+    const prefix = searchQuery.trim();
+    if (prefix === '') {
       setFilteredRoots(roots);
-    } else {
-      const filtered = roots.filter(root => 
-        root.racine.includes(searchQuery) ||
-        root.derives.some(derive => 
-          derive.word.includes(searchQuery) ||
-          derive.scheme.includes(searchQuery)
-        )
-      );
-      setFilteredRoots(filtered);
+      return;
     }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const [racinesRes, wordsRes] = await Promise.all([
+          racineService.searchRacines(prefix, SEARCH_LIMIT),
+          morphologyService.searchWords(prefix, SEARCH_LIMIT)
+        ]);
+        const matches = new Set(racinesRes?.data || []);
+        (wordsRes?.data || []).forEach(w => w.racine && matches.add(w.racine));
+        // الأوزان ليست في الفهرس: نبحث عنها في الصفحات المحملة
+        roots.forEach(root => {
+          if (root.derives.some(derive => derive.scheme?.includes(prefix))) matches.add(root.racine);
+        });
+
+        const loaded = new Map(roots.map(root => [root.racine, root]));
+        const found = await Promise.all([...matches].map(async (racine, index) => {
+          if (loaded.has(racine)) return loaded.get(racine);
+          try {
+            const response = await racineService.getRacine(racine);
+            return response?.data ? formatRoot(response.data, index) : null;
+          } catch (error) {
+            return null;  // جذر محذوف بعد الفهرسة
+          }
+        }));
+        if (!cancelled) setFilteredRoots(sortArabicAlphabetically(found.filter(Boolean)));
+      } catch (error) {
+        console.error('🔴 خطأ في البحث:', error);
+        if (!cancelled) setFilteredRoots([]);
+      }
+    }, 250);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
   }, [searchQuery, roots]);
 
   const onRefresh = async () => {
     setRefreshing(true);
     Haptics.impactAsync(Haptics.ImpactFeedbackStyle.Light);
-    await loadAllRootsWithDerives();
+    await loadRootsWithDerives();
     setRefreshing(false);
     Haptics.notificationAsync(Haptics.NotificationFeedbackType.Success);
   };
@@ -352,7 +400,7 @@ export default function HomeScreen() {
       Haptics.notificationAsync(Haptics.NotificationFeedbackType.Success);
       
       setUpdateModalVisible(false);
-      await loadAllRootsWithDerives();
+      await loadRootsWithDerives();
       
     } catch (error) {
       console.error('🔴 خطأ في التحديث:', error);
@@ -389,7 +437,7 @@ export default function HomeScreen() {
       
       if (response && response.success) {
         await Haptics.notificationAsync(Haptics.NotificationFeedbackType.Success);
-        await loadAllRootsWithDerives();
+        await loadRootsWithDerives();
         
         showSweetAlert(`✅ تم حذف الجذر "${root}" بنجاح`, 'success');
       } else {
@@ -844,6 +892,23 @@ export default function HomeScreen() {
                   contentContainerStyle={styles.rootsList}
                 />
               )}
+              
+              {searchQuery.trim() === '' && nextCursor && (
+                <TouchableOpacity
+                  style={styles.loadMoreButton}
+                  onPress={loadMoreRoots}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? (
+                    <ActivityIndicator size="small" color={colors.secondary} />
+                  ) : (
+                    <>
+                      <Text style={styles.loadMoreText}>تحميل المزيد</Text>
+                      <Ionicons name="chevron-down" size={18} color={colors.secondary} />
+                    </>
+                  )}
+                </TouchableOpacity>
+              )}
             </View>
             
             {/* آخر تحديث */}
@@ -1415,6 +1480,21 @@ const styles = StyleSheet.create({
     color: '#94a3b8',
     textAlign: 'center',
   },
+  loadMoreButton: {
+    flexDirection: 'row-reverse',
+    justifyContent: 'center',
+    alignItems: 'center',
+    gap: 8,
+    paddingVertical: 14,
+    marginTop: 10,
+    borderRadius: 16,
+    backgroundColor: 'rgba(79, 70, 229, 0.1)',
+  },
+  loadMoreText: {
+    fontSize: 15,
+    fontWeight: '700',
+    color: colors.secondary,
+  },
   
   // معلومات التحديث
   updateInfo: {
@@ -42,7 +42,7 @@ api.interceptors.request.use(
 api.interceptors.response.use(
   (response) => {
     console.log('📥 Response Success:', response.status);
-    return response.data;
+    return response.config.rawResponse ? response : response.data;
   },
   (error) => {
     console.error('❌ Response Error:', error.message);
@@ -54,4 +54,24 @@ api.interceptors.response.use(
   }
 );
 
+// ✅ GET شرطي: نحتفظ بآخر ETag وآخر رد لكل رابط، والخادم يرد 304 بدون جسم إذا لم يتغير شيء
+const conditionalCache = new Map();
+
+export const getIfModified = async (url) => {
+  const cached = conditionalCache.get(url);
+  const response = await api.get(url, {
+    rawResponse: true,
+    headers: cached ? { 'If-None-Match': cached.etag } : {},
+    validateStatus: (status) => (status >= 200 && status < 300) || status === 304,
+  });
+  if (response.status === 304 && cached) {
+    return cached.data;
+  }
+  const etag = response.headers?.etag;
+  if (etag) {
+    conditionalCache.set(url, { etag, data: response.data });
+  }
+  return response.data;
+};
+
 export default api;
\ No newline at end of file
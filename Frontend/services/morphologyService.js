@@ -10,6 +10,10 @@ export const morphologyService = {
   analyzeWord: (mot) => 
     api.post('/morphology/analyze', { mot }),
   
+  // البحث عن الكلمات المولدة بالبادئة (إكمال تلقائي)
+  searchWords: (prefix, limit = 10) => 
+    api.get('/words/search', { params: { prefix, limit } }),
+  
   // توليد كلمة من جذر + وزن
   generateWord: async (racine, scheme) => {
     try {
@@ -1,14 +1,43 @@
 // services/racineService.js
-import api from './api';
+import api, { getIfModified } from './api';
 
 export const racineService = {
-  // GET /api/racines
-  getAllRacines: async () => {
+  // GET /api/racines?cursor=&limit=&fields= - صفحة واحدة مرتبة حسب الجذر
+  // fields: id, racine, deriveCount, derives, createdAt, updatedAt (المشتقات غير مضمنة افتراضيا)
+  // شرطي: 304 إذا لم تتغير الجذور منذ آخر طلب
+  getRacinesPage: async ({ cursor, limit = 500, fields } = {}) => {
     try {
-      const response = await api.get('/racines');
+      const params = new URLSearchParams({ limit: String(limit) });
+      if (cursor) params.append('cursor', cursor);
+      if (fields) params.append('fields', fields);
+      const response = await getIfModified(`/racines?${params.toString()}`);
       return response;
     } catch (error) {
-      console.error('❌ getAllRacines error:', error);
+      console.error('❌ getRacinesPage error:', error);
+      throw error;
+    }
+  },
+
+  // كل الجذور صفحة بصفحة (نفس شكل الرد السابق: { data: [...] })
+  getAllRacines: async (fields) => {
+    const items = [];
+    let cursor = null;
+    do {
+      const response = await racineService.getRacinesPage({ cursor, fields });
+      const page = response?.data || {};
+      items.push(...(page.items || []));
+      cursor = page.hasMore ? page.nextCursor : null;
+    } while (cursor);
+    return { data: items };
+  },
+
+  // GET /api/racines/search?prefix= - البحث بالبادئة من المحرك مباشرة
+  searchRacines: async (prefix, limit = 10) => {
+    try {
+      const response = await api.get('/racines/search', { params: { prefix, limit } });
+      return response;
+    } catch (error) {
+      console.error('❌ searchRacines error:', error);
       throw error;
     }
   },
@@ -90,6 +119,20 @@ deleteRacine: async (racine) => {
     }
   },
 
+  // GET /api/racines/{racine}/paradigm - كل الأوزان في طلب واحد
+  getParadigm: async (racine, persist = false) => {
+    try {
+      const response = await api.get(
+        `/racines/${encodeURIComponent(racine)}/paradigm`,
+        { params: { persist } }
+      );
+      return response;
+    } catch (error) {
+      console.error('❌ getParadigm error:', error);
+      throw error;
+    }
+  },
+
   // GET /api/racines/stats/count
   getRacineCount: async () => {
     try {
@@ -1,12 +1,12 @@
 // services/schemeService.js - نسخة محسنة ✅
-import api from './api';
+import api, { getIfModified } from './api';
 
 export const schemeService = {
   // جلب كل الأوزان
   getAllSchemes: async () => {
     try {
       console.log('📤 Fetching all schemes...');
-      const response = await api.get('/schemes');
+      const response = await getIfModified('/schemes');  // 304 إذا لم تتغير الأوزان
       console.log('📥 getAllSchemes response:', response);
       
       // التأكد من أن response عبارة عن مصفوفة
@@ -2,18 +2,21 @@ package com.morphologie.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableMongoRepositories(basePackages = "com.morphologie.api.repository")
+@EnableScheduling
 public class MorphologieApiApplication {
     
     public static void main(String[] args) {
-        SpringApplication.run(MorphologieApiApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(MorphologieApiApplication.class, args);
         System.out.println("=".repeat(60));
         System.out.println("  ✅ Morphological Search Engine API Started Successfully!");
         System.out.println("  📍 Access API at: http://localhost:8080/api");
-        System.out.println("  📦 MongoDB Connected Successfully!");
+        System.out.println("  📦 Storage: " + (context.getEnvironment().acceptsProfiles(Profiles.of("embedded"))
+                ? "embedded log store" : "MongoDB"));
         System.out.println("=".repeat(60));
     }
 }
\ No newline at end of file
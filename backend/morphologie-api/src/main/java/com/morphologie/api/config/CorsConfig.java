@@ -19,6 +19,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 ) // ✅ تأكد من وجود قوس الإغلاق هنا
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag", "Last-Modified")  // Read by the app for conditional GETs
                 .allowCredentials(false)
                 .maxAge(3600);
     }
@@ -1,6 +1,11 @@
 package com.morphologie.api.config;
 
+import com.morphologie.api.service.StoreDerivesLoader;
+import com.morphologie.api.store.RacineStore;
+import com.morphologie.engine.CacheDerives;
 import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.RootIndex;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,8 +16,20 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class EngineConfig {
 
+    /**
+     * With morphologie.derives.lazy (default), derivations are loaded from the racine store the first
+     * time a racine is asked for them and at most cache-size racines keep them in memory
+     * morphologie.root-index picks the racine index: avl (sorted tree), hash (O(1) lookups)
+     * or frozen (Eytzinger array + delta tree, for read-mostly lexicons)
+     */
     @Bean
-    public Morphologie morphologieEngine() {
-        return new Morphologie();
+    public Morphologie morphologieEngine(RacineStore racineStore,
+                                         @Value("${morphologie.derives.lazy:true}") boolean lazy,
+                                         @Value("${morphologie.derives.cache-size:10000}") int cacheSize,
+                                         @Value("${morphologie.root-index:avl}") String rootIndex) {
+        CacheDerives cache = lazy
+                ? new CacheDerives(new StoreDerivesLoader(racineStore), cacheSize)
+                : null;
+        return new Morphologie(true, cache, RootIndex.Type.depuis(rootIndex));
     }
 }
@@ -0,0 +1,103 @@
+package com.morphologie.api.controller;
+
+import com.morphologie.api.dto.response.AnalysisCacheResponse;
+import com.morphologie.api.dto.response.ApiResponse;
+import com.morphologie.api.dto.response.DerivesCacheResponse;
+import com.morphologie.api.dto.response.HydrationProgressResponse;
+import com.morphologie.api.dto.response.MemoryReportResponse;
+import com.morphologie.api.dto.response.WriteBehindResponse;
+import com.morphologie.api.service.AnalysisCache;
+import com.morphologie.api.service.DerivationWriter;
+import com.morphologie.api.service.EngineHydrationService;
+import com.morphologie.engine.CacheDerives;
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.RapportMemoire;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// ============= Engine Controller =============
+/**
+ * Operational view of the in-memory engine
+ */
+@RestController
+@RequestMapping("/api/engine")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class EngineController {
+    
+    private final EngineHydrationService hydrationService;
+    private final Morphologie engine;
+    private final AnalysisCache analysisCache;
+    private final DerivationWriter derivationWriter;
+    
+    public EngineController(EngineHydrationService hydrationService, Morphologie engine,
+                            AnalysisCache analysisCache, DerivationWriter derivationWriter) {
+        this.hydrationService = hydrationService;
+        this.engine = engine;
+        this.analysisCache = analysisCache;
+        this.derivationWriter = derivationWriter;
+    }
+    
+    /**
+     * GET /api/engine/hydration - Progress of the startup load from MongoDB
+     */
+    @GetMapping("/hydration")
+    public ResponseEntity<ApiResponse<HydrationProgressResponse>> getHydrationProgress() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Engine hydration progress", hydrationService.getProgress())
+        );
+    }
+    
+    /**
+     * GET /api/engine/derives-cache - Racines whose derivations are held in memory
+     */
+    @GetMapping("/derives-cache")
+    public ResponseEntity<ApiResponse<DerivesCacheResponse>> getDerivesCache() {
+        CacheDerives cache = engine.getCacheDerives();
+        DerivesCacheResponse response = cache == null
+                ? new DerivesCacheResponse(false, 0, 0, 0, 0, 0)
+                : new DerivesCacheResponse(cache.estActif(), cache.getCapacite(), cache.getTaille(),
+                        cache.getAcces(), cache.getChargements(), cache.getEvictions());
+        return ResponseEntity.ok(
+                ApiResponse.success("Derives cache statistics", response)
+        );
+    }
+    
+    /**
+     * GET /api/engine/analysis-cache - Hit ratio, evictions and load time of the
+     * analyze/validate result cache
+     */
+    @GetMapping("/analysis-cache")
+    public ResponseEntity<ApiResponse<AnalysisCacheResponse>> getAnalysisCache() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Analysis cache statistics", analysisCache.getStats())
+        );
+    }
+    
+    /**
+     * GET /api/engine/write-behind - Queue depth, flush latency and spill file of the
+     * derivation write-behind queue
+     */
+    @GetMapping("/write-behind")
+    public ResponseEntity<ApiResponse<WriteBehindResponse>> getWriteBehind() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Write-behind statistics", derivationWriter.getWriteBehindStats())
+        );
+    }
+    
+    /**
+     * GET /api/engine/memory - Memory used by the derivations held in memory,
+     * compared with the same derivations stored as lists of Strings
+     */
+    @GetMapping("/memory")
+    public ResponseEntity<ApiResponse<MemoryReportResponse>> getMemoryReport() {
+        RapportMemoire rapport = engine.rapportMemoire();
+        MemoryReportResponse response = new MemoryReportResponse(
+                rapport.getRacines(), rapport.getRacinesAvecDerives(), rapport.getDerives(),
+                rapport.getMotsDistincts(), rapport.getMotsReferences(), rapport.getCompactions(),
+                rapport.getOctetsDictionnaire(), rapport.getOctetsPaires(),
+                rapport.getOctetsAncienneDisposition(), rapport.getHeapUtilise());
+        return ResponseEntity.ok(
+                ApiResponse.success("Engine memory report", response)
+        );
+    }
+}
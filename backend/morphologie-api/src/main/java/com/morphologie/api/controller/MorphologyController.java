@@ -74,6 +74,49 @@ public class MorphologyController {
         );
     }
     
+    /**
+     * POST /api/morphology/generate/batch - Generate many words in one call
+     * 
+     * Request body:
+     * {
+     *   "items": [
+     *     { "racine": "كتب", "scheme": "فاعل" },
+     *     { "racine": "درس", "scheme": "مفعول" }
+     *   ]
+     * }
+     */
+    @PostMapping("/generate/batch")
+    public ResponseEntity<ApiResponse<BatchResponse<GeneratedWordResponse>>> generateBatch(
+            @Valid @RequestBody BatchGenerateRequest request) {
+        
+        BatchResponse<GeneratedWordResponse> response = morphologyService.generateBatch(request.getItems());
+        
+        return ResponseEntity.ok(
+                ApiResponse.success("Batch generation completed", response)
+        );
+    }
+    
+    /**
+     * POST /api/morphology/validate/batch - Validate many (racine, mot) pairs in one call
+     * 
+     * Request body:
+     * {
+     *   "items": [
+     *     { "racine": "كتب", "mot": "كاتب" }
+     *   ]
+     * }
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<ApiResponse<BatchResponse<ValidationResponse>>> validateBatch(
+            @Valid @RequestBody BatchValidateRequest request) {
+        
+        BatchResponse<ValidationResponse> response = morphologyService.validateBatch(request.getItems());
+        
+        return ResponseEntity.ok(
+                ApiResponse.success("Batch validation completed", response)
+        );
+    }
+    
     /**
      * POST /api/morphology/analyze - Reverse analysis: word → racine + scheme
      * 
@@ -3,10 +3,17 @@ package com.morphologie.api.controller;
 import com.morphologie.api.dto.request.*;
 import com.morphologie.api.dto.response.*;
 import com.morphologie.api.model.Racine;
+import com.morphologie.api.service.LexiconVersionService;
+import com.morphologie.api.service.RacineImportService;
 import com.morphologie.api.service.RacineService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import jakarta.validation.Valid;
@@ -18,9 +25,11 @@ import java.util.List;
 public class RacineController {
     
     private final RacineService racineService;
+    private final RacineImportService racineImportService;
     
-    public RacineController(RacineService racineService) {
+    public RacineController(RacineService racineService, RacineImportService racineImportService) {
         this.racineService = racineService;
+        this.racineImportService = racineImportService;
     }
     
     @PostMapping
@@ -33,11 +42,62 @@ public class RacineController {
                 .body(ApiResponse.success("Racine added successfully", racine));
     }
     
+    /**
+     * POST /api/racines/import - Stream a lexicon file
+     * Content-Type: text/plain (one racine per line) or application/x-ndjson ({"racine": "كتب"} per line)
+     * 
+     * curl -X POST --data-binary @racines.txt -H "Content-Type: text/plain; charset=UTF-8" .../api/racines/import
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.TEXT_PLAIN_VALUE, "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ImportResponse>> importRacines(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"));
+        ImportResponse response = racineImportService.importRacines(body, ndjson);
+        return ResponseEntity.ok(
+                ApiResponse.success("Racines imported", response)
+        );
+    }
+    
+    /**
+     * GET /api/racines?limit=100&cursor=...&fields=racine,deriveCount - One page of racines,
+     * in racine order; pass nextCursor back as cursor for the following page
+     * fields: id, racine, deriveCount, derives, createdAt, updatedAt (default: all but derives)
+     * Conditional: ETag / Last-Modified follow the racine collection version, so a client
+     * sending If-None-Match gets 304 without any MongoDB query while nothing changed
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Racine>>> getAllRacines() {
-        List<Racine> racines = racineService.getAllRacines();
+    public ResponseEntity<byte[]> getRacines(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        
+        String page = racineService.listingKey(cursor, limit, fields);
+        LexiconVersionService.Tag version = racineService.getListingVersion();
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;  // 304, ETag and Last-Modified already set
+        }
+        byte[] body = racineService.getListingBody(version, page,
+                () -> ApiResponse.success("Retrieved racines",
+                        racineService.getRacinePage(cursor, limit, fields)));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    /**
+     * GET /api/racines/search?prefix=كت&limit=10 - Autocomplete over racines
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<String>>> searchRacines(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<String> racines = racineService.searchRacines(prefix, limit);
         return ResponseEntity.ok(
-                ApiResponse.success("Retrieved all racines", racines)
+                ApiResponse.success("Racines matching prefix", racines)
         );
     }
     
@@ -59,6 +119,21 @@ public class RacineController {
         );
     }
     
+    /**
+     * GET /api/racines/{racine}/paradigm?persist=false
+     * Every registered scheme applied to the racine in one call
+     */
+    @GetMapping("/{racine}/paradigm")
+    public ResponseEntity<ApiResponse<ParadigmResponse>> getParadigm(
+            @PathVariable String racine,
+            @RequestParam(defaultValue = "false") boolean persist) {
+        
+        ParadigmResponse response = racineService.getParadigm(racine, persist);
+        return ResponseEntity.ok(
+                ApiResponse.success("Paradigm generated", response)
+        );
+    }
+    
     @PutMapping("/{racine}")
     public ResponseEntity<ApiResponse<Racine>> updateRacine(
             @PathVariable String racine,
@@ -3,10 +3,13 @@ package com.morphologie.api.controller;
 import com.morphologie.api.dto.request.*;
 import com.morphologie.api.dto.response.*;
 import com.morphologie.api.model.SchemeModel;
+import com.morphologie.api.service.LexiconVersionService;
 import com.morphologie.api.service.SchemeService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 
@@ -52,13 +55,20 @@ public class SchemeController {
     
     /**
      * GET /api/schemes - Get all schemes
+     * Conditional: 304 Not Modified (no MongoDB query) when If-None-Match matches
+     * the current version of the scheme collection
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<SchemeModel>>> getAllSchemes() {
-        List<SchemeModel> schemes = schemeService.getAllSchemes();
-        return ResponseEntity.ok(
-                ApiResponse.success("Retrieved all schemes", schemes)
-        );
+    public ResponseEntity<byte[]> getAllSchemes(WebRequest request) {
+        LexiconVersionService.Tag version = schemeService.getListingVersion();
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;  // 304, ETag and Last-Modified already set
+        }
+        byte[] body = schemeService.getListingBody(version,
+                () -> ApiResponse.success("Retrieved all schemes", schemeService.getAllSchemes()));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
     
     /**
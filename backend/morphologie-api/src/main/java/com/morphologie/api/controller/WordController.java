@@ -0,0 +1,39 @@
+package com.morphologie.api.controller;
+
+import com.morphologie.api.dto.response.AnalysisResponse;
+import com.morphologie.api.dto.response.ApiResponse;
+import com.morphologie.api.service.MorphologyService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+// ============= Word Controller =============
+/**
+ * Search over the words the engine can generate
+ */
+@RestController
+@RequestMapping("/api/words")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class WordController {
+    
+    private final MorphologyService morphologyService;
+    
+    public WordController(MorphologyService morphologyService) {
+        this.morphologyService = morphologyService;
+    }
+    
+    /**
+     * GET /api/words/search?prefix=كات&limit=10 - Autocomplete over generated words
+     * Up to limit words, each listed with every racine + scheme that produces it
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<AnalysisResponse>>> searchWords(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<AnalysisResponse> words = morphologyService.searchWords(prefix, limit);
+        return ResponseEntity.ok(
+                ApiResponse.success("Words matching prefix", words)
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.morphologie.api.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+// ============= Batch Generate Request =============
+public class BatchGenerateRequest {
+    
+    @NotEmpty(message = "Items cannot be empty")
+    @Size(max = 10000, message = "At most 10000 items per batch")
+    private List<@Valid GenerateWordRequest> items;
+    
+    public BatchGenerateRequest() {}
+    
+    public BatchGenerateRequest(List<GenerateWordRequest> items) {
+        this.items = items;
+    }
+    
+    public List<GenerateWordRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<GenerateWordRequest> items) {
+        this.items = items;
+    }
+}
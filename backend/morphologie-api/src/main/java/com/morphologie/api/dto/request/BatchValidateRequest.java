@@ -0,0 +1,28 @@
+package com.morphologie.api.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+// ============= Batch Validate Request =============
+public class BatchValidateRequest {
+    
+    @NotEmpty(message = "Items cannot be empty")
+    @Size(max = 10000, message = "At most 10000 items per batch")
+    private List<@Valid ValidateWordRequest> items;
+    
+    public BatchValidateRequest() {}
+    
+    public BatchValidateRequest(List<ValidateWordRequest> items) {
+        this.items = items;
+    }
+    
+    public List<ValidateWordRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ValidateWordRequest> items) {
+        this.items = items;
+    }
+}
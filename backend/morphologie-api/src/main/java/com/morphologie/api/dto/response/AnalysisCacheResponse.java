@@ -0,0 +1,154 @@
+package com.morphologie.api.dto.response;
+
+// ============= Analysis Cache Response =============
+public class AnalysisCacheResponse {
+
+    private boolean enabled;
+    private int maxEntries;
+    private long maxWeight;         // Estimated bytes
+    private long ttlMs;
+    private int size;
+    private long weight;            // Estimated bytes held now
+    private long generation;        // Engine generation entries must match to be used
+    private long hits;
+    private long misses;            // Absent, stale or expired entries
+    private long evictions;         // Entries dropped to stay within the bounds
+    private long expirations;
+    private double hitRatio;
+    private long totalLoadTimeMs;
+    private double averageLoadTimeMs;
+
+    public AnalysisCacheResponse() {}
+
+    public AnalysisCacheResponse(boolean enabled, int maxEntries, long maxWeight, long ttlMs,
+                                 int size, long weight, long generation,
+                                 long hits, long misses, long evictions, long expirations,
+                                 long loadNanos) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlMs = ttlMs;
+        this.size = size;
+        this.weight = weight;
+        this.generation = generation;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        this.totalLoadTimeMs = loadNanos / 1_000_000L;
+        this.averageLoadTimeMs = misses == 0 ? 0.0 : loadNanos / 1_000_000.0 / misses;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public void setExpirations(long expirations) {
+        this.expirations = expirations;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public long getTotalLoadTimeMs() {
+        return totalLoadTimeMs;
+    }
+
+    public void setTotalLoadTimeMs(long totalLoadTimeMs) {
+        this.totalLoadTimeMs = totalLoadTimeMs;
+    }
+
+    public double getAverageLoadTimeMs() {
+        return averageLoadTimeMs;
+    }
+
+    public void setAverageLoadTimeMs(double averageLoadTimeMs) {
+        this.averageLoadTimeMs = averageLoadTimeMs;
+    }
+}
@@ -0,0 +1,111 @@
+package com.morphologie.api.dto.response;
+
+import java.util.List;
+
+// ============= Batch Response =============
+public class BatchResponse<T> {
+    
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult<T>> results;
+    
+    public BatchResponse() {}
+    
+    public BatchResponse(List<ItemResult<T>> results) {
+        this.results = results;
+        this.total = results.size();
+        this.succeeded = (int) results.stream().filter(ItemResult::isSuccess).count();
+        this.failed = total - succeeded;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<ItemResult<T>> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<ItemResult<T>> results) {
+        this.results = results;
+    }
+    
+    // Inner class for one item's result (index = position in the request)
+    public static class ItemResult<T> {
+        private int index;
+        private boolean success;
+        private T data;
+        private String error;
+        
+        public ItemResult() {}
+        
+        public static <T> ItemResult<T> success(int index, T data) {
+            ItemResult<T> result = new ItemResult<>();
+            result.setIndex(index);
+            result.setSuccess(true);
+            result.setData(data);
+            return result;
+        }
+        
+        public static <T> ItemResult<T> error(int index, String error) {
+            ItemResult<T> result = new ItemResult<>();
+            result.setIndex(index);
+            result.setSuccess(false);
+            result.setError(error);
+            return result;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public void setIndex(int index) {
+            this.index = index;
+        }
+        
+        public boolean isSuccess() {
+            return success;
+        }
+        
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+        
+        public T getData() {
+            return data;
+        }
+        
+        public void setData(T data) {
+            this.data = data;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.morphologie.api.dto.response;
+
+// ============= Derives Cache Response =============
+public class DerivesCacheResponse {
+
+    private boolean enabled;        // False when every derivation stays in memory
+    private int capacity;           // Max racines with derivations in memory
+    private int loaded;             // Racines with derivations in memory now
+    private long accesses;
+    private long loads;             // Accesses that had to query MongoDB
+    private long evictions;
+    private double hitRatio;
+
+    public DerivesCacheResponse() {}
+
+    public DerivesCacheResponse(boolean enabled, int capacity, int loaded,
+                                long accesses, long loads, long evictions) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.loaded = loaded;
+        this.accesses = accesses;
+        this.loads = loads;
+        this.evictions = evictions;
+        this.hitRatio = accesses == 0 ? 0.0 : (double) (accesses - loads) / accesses;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded(int loaded) {
+        this.loaded = loaded;
+    }
+
+    public long getAccesses() {
+        return accesses;
+    }
+
+    public void setAccesses(long accesses) {
+        this.accesses = accesses;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+}
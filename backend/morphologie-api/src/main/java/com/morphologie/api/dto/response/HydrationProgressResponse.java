@@ -0,0 +1,83 @@
+package com.morphologie.api.dto.response;
+
+// ============= Hydration Progress Response =============
+public class HydrationProgressResponse {
+
+    private String phase;           // IDLE (restored from snapshot), RACINES, DERIVES, DONE or FAILED
+    private long racinesTotal;
+    private long racinesLoaded;
+    private long derivesTotal;      // Racines that carry derivations
+    private long derivesLoaded;
+    private double percent;         // Over both phases
+    private long elapsedMs;
+
+    public HydrationProgressResponse() {}
+
+    public HydrationProgressResponse(String phase, long racinesTotal, long racinesLoaded,
+                                     long derivesTotal, long derivesLoaded, long elapsedMs) {
+        this.phase = phase;
+        this.racinesTotal = racinesTotal;
+        this.racinesLoaded = racinesLoaded;
+        this.derivesTotal = derivesTotal;
+        this.derivesLoaded = derivesLoaded;
+        long total = racinesTotal + derivesTotal;
+        this.percent = total == 0 ? 100.0 : Math.min(100.0, 100.0 * (racinesLoaded + derivesLoaded) / total);
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public long getRacinesTotal() {
+        return racinesTotal;
+    }
+
+    public void setRacinesTotal(long racinesTotal) {
+        this.racinesTotal = racinesTotal;
+    }
+
+    public long getRacinesLoaded() {
+        return racinesLoaded;
+    }
+
+    public void setRacinesLoaded(long racinesLoaded) {
+        this.racinesLoaded = racinesLoaded;
+    }
+
+    public long getDerivesTotal() {
+        return derivesTotal;
+    }
+
+    public void setDerivesTotal(long derivesTotal) {
+        this.derivesTotal = derivesTotal;
+    }
+
+    public long getDerivesLoaded() {
+        return derivesLoaded;
+    }
+
+    public void setDerivesLoaded(long derivesLoaded) {
+        this.derivesLoaded = derivesLoaded;
+    }
+
+    public double getPercent() {
+        return percent;
+    }
+
+    public void setPercent(double percent) {
+        this.percent = percent;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
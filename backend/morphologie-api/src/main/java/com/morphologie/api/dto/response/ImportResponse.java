@@ -0,0 +1,71 @@
+package com.morphologie.api.dto.response;
+
+// ============= Import Response =============
+public class ImportResponse {
+
+    private long linesRead;
+    private long imported;          // New racines written to MongoDB and the engine
+    private long duplicates;        // Already known (engine, MongoDB or earlier in the file)
+    private long rejected;          // Malformed or not exactly 3 letters (blank lines are skipped)
+    private long durationMs;
+    private long linesPerSecond;
+
+    public ImportResponse() {}
+
+    public ImportResponse(long linesRead, long imported, long duplicates, long rejected, long durationMs) {
+        this.linesRead = linesRead;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.durationMs = durationMs;
+        this.linesPerSecond = linesRead * 1000 / Math.max(1, durationMs);
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getLinesPerSecond() {
+        return linesPerSecond;
+    }
+
+    public void setLinesPerSecond(long linesPerSecond) {
+        this.linesPerSecond = linesPerSecond;
+    }
+}
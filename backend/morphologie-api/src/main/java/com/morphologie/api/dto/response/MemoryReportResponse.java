@@ -0,0 +1,133 @@
+package com.morphologie.api.dto.response;
+
+// ============= Memory Report Response =============
+public class MemoryReportResponse {
+
+    private int racines;
+    private int racinesWithDerives;  // Racines whose derivations are in memory
+    private long derives;            // (word, scheme) pairs in memory
+    private int distinctWords;       // Words in the engine dictionary
+    private int referencedWords;     // Of which used by derivations in memory (the rest goes at the next compaction)
+    private long dictionaryCompactions;
+    private long dictionaryBytes;
+    private long pairBytes;
+    private long compactBytes;       // dictionaryBytes + pairBytes
+    private long legacyBytes;        // Estimate for the same derivations as String lists
+    private double savingRatio;      // 1 - compactBytes / legacyBytes
+    private long heapUsedBytes;      // Whole JVM heap in use
+
+    public MemoryReportResponse() {}
+
+    public MemoryReportResponse(int racines, int racinesWithDerives, long derives, int distinctWords,
+                                int referencedWords, long dictionaryCompactions,
+                                long dictionaryBytes, long pairBytes, long legacyBytes, long heapUsedBytes) {
+        this.racines = racines;
+        this.racinesWithDerives = racinesWithDerives;
+        this.derives = derives;
+        this.distinctWords = distinctWords;
+        this.referencedWords = referencedWords;
+        this.dictionaryCompactions = dictionaryCompactions;
+        this.dictionaryBytes = dictionaryBytes;
+        this.pairBytes = pairBytes;
+        this.compactBytes = dictionaryBytes + pairBytes;
+        this.legacyBytes = legacyBytes;
+        this.savingRatio = legacyBytes == 0 ? 0.0 : 1.0 - (double) compactBytes / legacyBytes;
+        this.heapUsedBytes = heapUsedBytes;
+    }
+
+    public int getRacines() {
+        return racines;
+    }
+
+    public void setRacines(int racines) {
+        this.racines = racines;
+    }
+
+    public int getRacinesWithDerives() {
+        return racinesWithDerives;
+    }
+
+    public void setRacinesWithDerives(int racinesWithDerives) {
+        this.racinesWithDerives = racinesWithDerives;
+    }
+
+    public long getDerives() {
+        return derives;
+    }
+
+    public void setDerives(long derives) {
+        this.derives = derives;
+    }
+
+    public int getDistinctWords() {
+        return distinctWords;
+    }
+
+    public void setDistinctWords(int distinctWords) {
+        this.distinctWords = distinctWords;
+    }
+
+    public int getReferencedWords() {
+        return referencedWords;
+    }
+
+    public void setReferencedWords(int referencedWords) {
+        this.referencedWords = referencedWords;
+    }
+
+    public long getDictionaryCompactions() {
+        return dictionaryCompactions;
+    }
+
+    public void setDictionaryCompactions(long dictionaryCompactions) {
+        this.dictionaryCompactions = dictionaryCompactions;
+    }
+
+    public long getDictionaryBytes() {
+        return dictionaryBytes;
+    }
+
+    public void setDictionaryBytes(long dictionaryBytes) {
+        this.dictionaryBytes = dictionaryBytes;
+    }
+
+    public long getPairBytes() {
+        return pairBytes;
+    }
+
+    public void setPairBytes(long pairBytes) {
+        this.pairBytes = pairBytes;
+    }
+
+    public long getCompactBytes() {
+        return compactBytes;
+    }
+
+    public void setCompactBytes(long compactBytes) {
+        this.compactBytes = compactBytes;
+    }
+
+    public long getLegacyBytes() {
+        return legacyBytes;
+    }
+
+    public void setLegacyBytes(long legacyBytes) {
+        this.legacyBytes = legacyBytes;
+    }
+
+    public double getSavingRatio() {
+        return savingRatio;
+    }
+
+    public void setSavingRatio(double savingRatio) {
+        this.savingRatio = savingRatio;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    public void setHeapUsedBytes(long heapUsedBytes) {
+        this.heapUsedBytes = heapUsedBytes;
+    }
+}
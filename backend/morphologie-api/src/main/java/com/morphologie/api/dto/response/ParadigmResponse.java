@@ -0,0 +1,92 @@
+package com.morphologie.api.dto.response;
+
+import java.util.List;
+
+// ============= Paradigm Response =============
+public class ParadigmResponse {
+
+    private String racine;
+    private List<Form> forms;       // One entry per scheme that applies to the root
+    private int totalForms;
+    private int persisted;          // New derivations written (persist=true only)
+    private int queued;             // Derivations queued by write-behind, written on its next flush
+
+    public ParadigmResponse() {}
+
+    public ParadigmResponse(String racine, List<Form> forms, int persisted, int queued) {
+        this.racine = racine;
+        this.forms = forms;
+        this.totalForms = forms.size();
+        this.persisted = persisted;
+        this.queued = queued;
+    }
+
+    public String getRacine() {
+        return racine;
+    }
+
+    public void setRacine(String racine) {
+        this.racine = racine;
+    }
+
+    public List<Form> getForms() {
+        return forms;
+    }
+
+    public void setForms(List<Form> forms) {
+        this.forms = forms;
+    }
+
+    public int getTotalForms() {
+        return totalForms;
+    }
+
+    public void setTotalForms(int totalForms) {
+        this.totalForms = totalForms;
+    }
+
+    public int getPersisted() {
+        return persisted;
+    }
+
+    public void setPersisted(int persisted) {
+        this.persisted = persisted;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    // Inner class for a (scheme, word) pair
+    public static class Form {
+        private String scheme;
+        private String mot;
+
+        public Form() {}
+
+        public Form(String scheme, String mot) {
+            this.scheme = scheme;
+            this.mot = mot;
+        }
+
+        public String getScheme() {
+            return scheme;
+        }
+
+        public void setScheme(String scheme) {
+            this.scheme = scheme;
+        }
+
+        public String getMot() {
+            return mot;
+        }
+
+        public void setMot(String mot) {
+            this.mot = mot;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.morphologie.api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.morphologie.api.model.Derivation;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ============= Racine Page Response =============
+public class RacinePageResponse {
+    
+    private List<Item> items;
+    private String nextCursor;      // Pass as cursor to get the next page, null on the last one
+    private boolean hasMore;
+    private int limit;
+    private List<String> fields;
+    
+    public RacinePageResponse() {}
+    
+    public RacinePageResponse(List<Item> items, String nextCursor, int limit, List<String> fields) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.limit = limit;
+        this.fields = fields;
+    }
+    
+    public List<Item> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+    
+    public List<String> getFields() {
+        return fields;
+    }
+    
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+    
+    // Inner class for one racine: fields that were not requested are left out of the JSON
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private String id;
+        private String racine;
+        private Integer deriveCount;
+        private List<Derivation> derives;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        
+        public Item() {}
+        
+        public String getId() {
+            return id;
+        }
+        
+        public void setId(String id) {
+            this.id = id;
+        }
+        
+        public String getRacine() {
+            return racine;
+        }
+        
+        public void setRacine(String racine) {
+            this.racine = racine;
+        }
+        
+        public Integer getDeriveCount() {
+            return deriveCount;
+        }
+        
+        public void setDeriveCount(Integer deriveCount) {
+            this.deriveCount = deriveCount;
+        }
+        
+        public List<Derivation> getDerives() {
+            return derives;
+        }
+        
+        public void setDerives(List<Derivation> derives) {
+            this.derives = derives;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+        
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.morphologie.api.dto.response;
+
+// ============= Write-Behind Response =============
+public class WriteBehindResponse {
+
+    private boolean enabled;
+    private int capacity;           // Pending derivations before callers wait
+    private int queueDepth;         // Derivations waiting to be written
+    private int queuedRacines;
+    private boolean mongoReachable;
+    private long enqueued;
+    private long coalesced;         // Words queued again before their flush
+    private long written;           // Derivations sent to MongoDB by flushes
+    private long flushes;
+    private double averageFlushMs;
+    private double lastFlushMs;
+    private double maxFlushMs;
+    private long backpressureWaits; // Callers that waited for room
+    private long synchronousWrites; // Callers that gave up waiting and wrote themselves
+    private long spilled;           // Derivations appended to the spill file
+    private long replayed;          // Spilled derivations later written to MongoDB
+    private long spillFileBytes;
+    private long spillFailures;     // Spill writes that failed (their batch was kept in the queue)
+    private long lost;              // Derivations dropped on close, neither written nor spilled
+
+    public WriteBehindResponse() {}
+
+    public WriteBehindResponse(boolean enabled, int capacity, int queueDepth, int queuedRacines,
+                               boolean mongoReachable, long enqueued, long coalesced, long written,
+                               long flushes, long flushNanos, long lastFlushNanos, long maxFlushNanos,
+                               long backpressureWaits, long synchronousWrites,
+                               long spilled, long replayed, long spillFileBytes,
+                               long spillFailures, long lost) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.queueDepth = queueDepth;
+        this.queuedRacines = queuedRacines;
+        this.mongoReachable = mongoReachable;
+        this.enqueued = enqueued;
+        this.coalesced = coalesced;
+        this.written = written;
+        this.flushes = flushes;
+        this.averageFlushMs = flushes == 0 ? 0.0 : flushNanos / 1_000_000.0 / flushes;
+        this.lastFlushMs = lastFlushNanos / 1_000_000.0;
+        this.maxFlushMs = maxFlushNanos / 1_000_000.0;
+        this.backpressureWaits = backpressureWaits;
+        this.synchronousWrites = synchronousWrites;
+        this.spilled = spilled;
+        this.replayed = replayed;
+        this.spillFileBytes = spillFileBytes;
+        this.spillFailures = spillFailures;
+        this.lost = lost;
+    }
+
+    public static WriteBehindResponse disabled() {
+        WriteBehindResponse r = new WriteBehindResponse();
+        r.mongoReachable = true;
+        return r;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public int getQueuedRacines() {
+        return queuedRacines;
+    }
+
+    public void setQueuedRacines(int queuedRacines) {
+        this.queuedRacines = queuedRacines;
+    }
+
+    public boolean isMongoReachable() {
+        return mongoReachable;
+    }
+
+    public void setMongoReachable(boolean mongoReachable) {
+        this.mongoReachable = mongoReachable;
+    }
+
+    public long getEnqueued() {
+        return enqueued;
+    }
+
+    public void setEnqueued(long enqueued) {
+        this.enqueued = enqueued;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public void setCoalesced(long coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public void setWritten(long written) {
+        this.written = written;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public void setFlushes(long flushes) {
+        this.flushes = flushes;
+    }
+
+    public double getAverageFlushMs() {
+        return averageFlushMs;
+    }
+
+    public void setAverageFlushMs(double averageFlushMs) {
+        this.averageFlushMs = averageFlushMs;
+    }
+
+    public double getLastFlushMs() {
+        return lastFlushMs;
+    }
+
+    public void setLastFlushMs(double lastFlushMs) {
+        this.lastFlushMs = lastFlushMs;
+    }
+
+    public double getMaxFlushMs() {
+        return maxFlushMs;
+    }
+
+    public void setMaxFlushMs(double maxFlushMs) {
+        this.maxFlushMs = maxFlushMs;
+    }
+
+    public long getBackpressureWaits() {
+        return backpressureWaits;
+    }
+
+    public void setBackpressureWaits(long backpressureWaits) {
+        this.backpressureWaits = backpressureWaits;
+    }
+
+    public long getSynchronousWrites() {
+        return synchronousWrites;
+    }
+
+    public void setSynchronousWrites(long synchronousWrites) {
+        this.synchronousWrites = synchronousWrites;
+    }
+
+    public long getSpilled() {
+        return spilled;
+    }
+
+    public void setSpilled(long spilled) {
+        this.spilled = spilled;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+
+    public void setReplayed(long replayed) {
+        this.replayed = replayed;
+    }
+
+    public long getSpillFileBytes() {
+        return spillFileBytes;
+    }
+
+    public void setSpillFileBytes(long spillFileBytes) {
+        this.spillFileBytes = spillFileBytes;
+    }
+
+    public long getSpillFailures() {
+        return spillFailures;
+    }
+
+    public void setSpillFailures(long spillFailures) {
+        this.spillFailures = spillFailures;
+    }
+
+    public long getLost() {
+        return lost;
+    }
+
+    public void setLost(long lost) {
+        this.lost = lost;
+    }
+}
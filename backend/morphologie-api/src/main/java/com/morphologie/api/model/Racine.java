@@ -33,23 +33,6 @@ public class Racine {
         this.racine = racine;
     }
     
-    // Add derived word
-    public void addDerive(String mot, String scheme) {
-        if (derives == null) {
-            derives = new ArrayList<>();
-        }
-        
-        // Check if already exists
-        for (Derivation d : derives) {
-            if (d.getMot().equals(mot)) {
-                return; // Already exists
-            }
-        }
-        
-        derives.add(new Derivation(mot, scheme));
-        this.updatedAt = LocalDateTime.now();
-    }
-    
     // Getters and Setters
     public String getId() {
         return id;
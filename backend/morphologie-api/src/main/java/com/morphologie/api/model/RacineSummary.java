@@ -0,0 +1,56 @@
+package com.morphologie.api.model;
+
+import java.time.LocalDateTime;
+
+// Racine without its derives array, as returned by the paginated listing query
+// (deriveCount is computed by MongoDB, the array itself never leaves the database)
+public class RacineSummary {
+    
+    private String id;
+    private String racine;
+    private int deriveCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public RacineSummary() {}
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getRacine() {
+        return racine;
+    }
+    
+    public void setRacine(String racine) {
+        this.racine = racine;
+    }
+    
+    public int getDeriveCount() {
+        return deriveCount;
+    }
+    
+    public void setDeriveCount(int deriveCount) {
+        this.deriveCount = deriveCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
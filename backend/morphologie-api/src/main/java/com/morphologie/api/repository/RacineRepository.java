@@ -1,7 +1,15 @@
 package com.morphologie.api.repository;
 
 import com.morphologie.api.model.Racine;
+import com.morphologie.api.model.RacineSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RacineRepository extends MongoRepository<Racine, String> {
@@ -14,4 +22,30 @@ public interface RacineRepository extends MongoRepository<Racine, String> {
     
     // ✅ هذه الدالة تحذف بالجذر
     void deleteByRacine(String racine);
+    
+    // Which of several racines exist, reading only the racine field (batch endpoints)
+    @Query(value = "{ 'racine': { $in: ?0 } }", fields = "{ 'racine': 1 }")
+    List<Racine> findNamesByRacineIn(Collection<String> racines);
+    
+    // Only the derivations of one racine (lazy loading of engine derives)
+    @Query(value = "{ 'racine': ?0 }", fields = "{ 'racine': 1, 'derives.mot': 1, 'derives.scheme': 1 }")
+    Optional<Racine> findDerivesByRacine(String racine);
+    
+    // Racines created or changed after a point in time (delta sync from the engine snapshot)
+    List<Racine> findByUpdatedAtAfter(LocalDateTime updatedAt);
+    
+    // Keyset pagination (listing): racines after a given one, in order, on the unique index
+    // Pass PageRequest.of(0, size): the slice reads size + 1 documents to know if more follow
+    
+    // Without derives: only their count is computed by MongoDB
+    @Aggregation(pipeline = {
+            "{ $match: { 'racine': { $gt: ?0 } } }",
+            "{ $sort: { 'racine': 1 } }",
+            "{ $project: { 'racine': 1, 'createdAt': 1, 'updatedAt': 1, 'deriveCount': { $size: { $ifNull: ['$derives', []] } } } }"
+    })
+    Slice<RacineSummary> findSummariesAfter(String after, Pageable pageable);
+    
+    // With derives
+    @Query(value = "{ 'racine': { $gt: ?0 } }", sort = "{ 'racine': 1 }")
+    Slice<Racine> findSliceAfter(String after, Pageable pageable);
 }
\ No newline at end of file
@@ -24,7 +24,4 @@ public interface SchemeRepository extends MongoRepository<SchemeModel, String> {
     
     // Find dynamic schemes
     List<SchemeModel> findByIsDynamic(boolean isDynamic);
-    
-    // Find top schemes by usage count
-    List<SchemeModel> findTop10ByOrderByUsageCountDesc();
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.morphologie.api.service;
+
+import com.morphologie.api.dto.response.AnalysisCacheResponse;
+import com.morphologie.engine.Morphologie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// ============= Analysis Cache =============
+/**
+ * Bounded cache of analysis and validation results, in front of MorphologyService
+ * Entries are evicted least recently used first, once there are more than max-entries
+ * or their estimated size (key plus cached result) exceeds max-weight, and expire ttl-ms
+ * after being computed
+ * Keys are spread over independent LRU segments, each with its own share of the bounds
+ * and its own lock, so concurrent hits on different keys do not wait for each other
+ * Each entry records the engine generation it was computed under: any racine or scheme
+ * change moves the generation on, so older entries are treated as misses and recomputed
+ */
+@Service
+public class AnalysisCache {
+
+    // Estimated bytes of an entry besides its strings (map node, key, response, timestamps)
+    private static final int ENTRY_OVERHEAD = 200;
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Morphologie engine;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    public AnalysisCache(Morphologie engine,
+                         @Value("${morphologie.analysis-cache.enabled:true}") boolean enabled,
+                         @Value("${morphologie.analysis-cache.max-entries:50000}") int maxEntries,
+                         @Value("${morphologie.analysis-cache.max-weight:16000000}") long maxWeight,
+                         @Value("${morphologie.analysis-cache.ttl-ms:600000}") long ttlMs) {
+        this.engine = engine;
+        this.enabled = enabled && maxEntries > 0 && maxWeight > 0;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMs * 1_000_000L;
+
+        // A power of two, and never more segments than entries
+        int n = 1;
+        while (n < MAX_SEGMENTS && n * 2 <= maxEntries) n *= 2;
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment(Math.max(1, maxEntries / n), Math.max(1, maxWeight / n));
+        }
+    }
+
+    /**
+     * Result of a word analysis, computed by loader on a miss
+     * weigher estimates the bytes held by a result (see weightOf)
+     */
+    public <V> V analysis(String mot, Supplier<V> loader, ToLongFunction<? super V> weigher) {
+        return get(new Key("", mot), loader, weigher);
+    }
+
+    /**
+     * Result of validating mot against racine, computed by loader on a miss
+     * A loader that throws (unknown racine) leaves nothing in the cache
+     */
+    public <V> V validation(String racine, String mot, Supplier<V> loader, ToLongFunction<? super V> weigher) {
+        return get(new Key(racine, mot), loader, weigher);
+    }
+
+    /**
+     * Estimated bytes of the strings held by a cached result (null strings count nothing)
+     */
+    public static long weightOf(String... strings) {
+        long w = 0;
+        for (String s : strings) {
+            if (s != null) w += 40 + 2L * s.length();  // String header and chars
+        }
+        return w;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V get(Key key, Supplier<V> loader, ToLongFunction<? super V> weigher) {
+        if (!enabled || key.mot == null) {
+            return loader.get();
+        }
+        Segment segment = segments[(key.hash ^ (key.hash >>> 16)) & (segments.length - 1)];
+
+        // Generation read before computing: a concurrent change can only make the entry look stale
+        long generation = engine.getGeneration();
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Cached e = segment.entries.get(key);
+            if (e != null) {
+                if (e.generation == generation && now - e.createdAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return (V) e.value;
+                }
+                if (e.generation == generation) expirations.incrementAndGet();
+                segment.remove(key, e);
+            }
+        }
+        misses.incrementAndGet();
+
+        // Computed outside the lock: two threads missing the same key both compute it
+        V value = loader.get();
+        long loaded = System.nanoTime();
+        loadNanos.addAndGet(loaded - now);
+
+        Cached e = new Cached(value, generation, loaded, key.weight() + weigher.applyAsLong(value));
+        int evicted;
+        synchronized (segment) {
+            evicted = segment.put(key, e);
+        }
+        if (evicted > 0) evictions.addAndGet(evicted);
+        return value;
+    }
+
+    /**
+     * Hit ratio, evictions and load time since startup
+     */
+    public AnalysisCacheResponse getStats() {
+        int size = 0;
+        long currentWeight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+                currentWeight += segment.weight;
+            }
+        }
+        return new AnalysisCacheResponse(enabled, maxEntries, maxWeight, ttlNanos / 1_000_000L,
+                size, currentWeight, engine.getGeneration(),
+                hits.get(), misses.get(), evictions.get(), expirations.get(), loadNanos.get());
+    }
+
+    // One LRU with its share of the bounds; every method is called with the segment locked
+    private static final class Segment {
+        final LinkedHashMap<Key, Cached> entries = new LinkedHashMap<>(16, 0.75f, true);  // Access order
+        final int maxEntries;
+        final long maxWeight;
+        long weight;
+
+        Segment(int maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        void remove(Key key, Cached e) {
+            entries.remove(key);
+            weight -= e.weight;
+        }
+
+        // Stores the entry unless a newer result is already there; returns the evictions
+        int put(Key key, Cached e) {
+            Cached previous = entries.get(key);
+            if (previous != null && previous.generation > e.generation) {
+                return 0;  // Another thread already stored a newer result
+            }
+            entries.put(key, e);
+            if (previous != null) weight -= previous.weight;
+            weight += e.weight;
+            int evicted = 0;
+            Iterator<Map.Entry<Key, Cached>> it = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+                weight -= it.next().getValue().weight;
+                it.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+    }
+
+    // Empty racine for an analysis, the racine being validated otherwise
+    private static final class Key {
+        final String racine;
+        final String mot;
+        final int hash;
+
+        Key(String racine, String mot) {
+            this.racine = racine != null ? racine : "";
+            this.mot = mot;
+            this.hash = mot == null ? 0 : 31 * this.racine.hashCode() + mot.hashCode();
+        }
+
+        // Entry overhead and the key strings
+        long weight() {
+            return ENTRY_OVERHEAD + weightOf(racine, mot);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key k)) return false;
+            return hash == k.hash && racine.equals(k.racine) && mot.equals(k.mot);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Cached {
+        final Object value;
+        final long generation;
+        final long createdAt;
+        final long weight;
+
+        Cached(Object value, long generation, long createdAt, long weight) {
+            this.value = value;
+            this.generation = generation;
+            this.createdAt = createdAt;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.morphologie.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.dto.response.WriteBehindResponse;
+import com.morphologie.api.model.Derivation;
+import com.morphologie.api.store.RacineStore;
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.Node;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ============= Derivation Writer =============
+/**
+ * Adds derivations to racine documents through the racine store, which only writes words
+ * the racine does not hold yet (MongoDB: one conditional $push each, without reading the
+ * document), so an existing word costs no write and two concurrent requests can never
+ * overwrite each other's derivations
+ * With morphologie.write-behind.enabled, derivations are queued instead and written in
+ * bulk batches by a background thread (see WriteBehindQueue): the engine already holds
+ * them, so requests no longer wait for the store; listings see them after the flush
+ */
+@Service
+public class DerivationWriter {
+
+    private final RacineStore racineStore;
+    private final LexiconVersionService versions;
+    private final Morphologie engine;
+    private final WriteBehindQueue queue;  // null when writes are synchronous
+
+    public DerivationWriter(RacineStore racineStore,
+                            LexiconVersionService versions,
+                            Morphologie engine,
+                            ObjectMapper objectMapper,
+                            @Value("${morphologie.write-behind.enabled:false}") boolean writeBehind,
+                            @Value("${morphologie.write-behind.capacity:50000}") int capacity,
+                            @Value("${morphologie.write-behind.batch-size:1000}") int batchSize,
+                            @Value("${morphologie.write-behind.flush-ms:500}") long flushMs,
+                            @Value("${morphologie.write-behind.offer-timeout-ms:2000}") long offerTimeoutMs,
+                            @Value("${morphologie.write-behind.retry-ms:10000}") long retryMs,
+                            @Value("${morphologie.write-behind.spill-path:data/derivations.spill}") String spillPath) {
+        this.racineStore = racineStore;
+        this.versions = versions;
+        this.engine = engine;
+        this.queue = writeBehind
+                ? new WriteBehindQueue(this::write, this::addToEngine, objectMapper,
+                        capacity, batchSize, flushMs, offerTimeoutMs, retryMs, Path.of(spillPath))
+                : null;
+    }
+
+    /**
+     * What add did with a derivation
+     * QUEUED: handed to the write-behind queue; whether the word was new is only known when
+     * the batch is flushed (an existing word is skipped by the store then)
+     */
+    public enum Outcome {
+        ADDED,          // Written to the store
+        NOT_ADDED,      // Already stored, or the racine does not exist
+        QUEUED
+    }
+
+    /**
+     * Derivations written by addAll, and derivations only queued for a later flush
+     */
+    public static final class Counts {
+        private final int added;
+        private final int queued;
+
+        Counts(int added, int queued) {
+            this.added = added;
+            this.queued = queued;
+        }
+
+        public int getAdded() {
+            return added;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+    }
+
+    /**
+     * Add one derivation: ADDED, NOT_ADDED when the word was already stored (or the racine
+     * does not exist), QUEUED in write-behind mode
+     */
+    public Outcome add(String racine, String mot, String scheme) {
+        Derivation d = new Derivation(mot, scheme);
+        if (offer(racine, List.of(d))) return Outcome.QUEUED;
+        
+        boolean added = racineStore.addDerivation(racine, d);
+        if (added) {
+            versions.bump(LexiconVersionService.Lexicon.RACINES);
+        }
+        return added ? Outcome.ADDED : Outcome.NOT_ADDED;
+    }
+
+    /**
+     * Add many derivations (MongoDB: one atomic update per racine, appending the new words)
+     * Returns the number of derivations actually written, and in write-behind mode the
+     * number queued (new or not: the flush skips the words already stored)
+     */
+    public Counts addAll(Map<String, List<Derivation>> derivesByRacine) {
+        if (queue == null) return new Counts(write(derivesByRacine), 0);
+        
+        int queued = 0;
+        Map<String, List<Derivation>> rejected = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Derivation>> e : derivesByRacine.entrySet()) {
+            if (offer(e.getKey(), e.getValue())) {
+                queued += e.getValue().size();
+            } else {
+                rejected.put(e.getKey(), e.getValue());
+            }
+        }
+        return new Counts(write(rejected), queued);
+    }
+
+    /**
+     * Queue depth, flush latency and spill activity of the write-behind queue
+     */
+    public WriteBehindResponse getWriteBehindStats() {
+        return queue != null ? queue.stats() : WriteBehindResponse.disabled();
+    }
+
+    // Queue the derivations; false when write-behind is off or the queue stayed full
+    // (the caller then writes them itself, at MongoDB speed)
+    private boolean offer(String racine, List<Derivation> derives) {
+        if (queue == null) return false;
+        try {
+            return queue.offer(racine, derives);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Synchronous bulk write, also used by the write-behind flushes
+    private int write(Map<String, List<Derivation>> derivesByRacine) {
+        if (derivesByRacine.isEmpty()) return 0;
+        int added = racineStore.addDerivations(derivesByRacine);
+        if (added > 0) {
+            versions.bump(LexiconVersionService.Lexicon.RACINES);
+        }
+        return added;
+    }
+
+    // Derivations replayed from the spill file after a restart
+    private void addToEngine(Map<String, List<Derivation>> derivesByRacine) {
+        derivesByRacine.forEach((racine, derives) -> {
+            Node node = engine.arbre.rechercher(racine);
+            if (node != null) {
+                derives.forEach(d -> node.ajouterDerive(d.getMot(), d.getScheme()));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() throws InterruptedException {
+        if (queue != null) {
+            queue.close(30_000);
+        }
+    }
+}
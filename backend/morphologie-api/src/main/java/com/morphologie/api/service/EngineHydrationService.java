@@ -0,0 +1,231 @@
+package com.morphologie.api.service;
+
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.Node;
+import com.morphologie.api.dto.response.HydrationProgressResponse;
+import com.morphologie.api.store.RacineStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============= Engine Hydration Service =============
+/**
+ * Full load of the engine from the racine store, streamed (MongoDB: cursors over raw BSON)
+ * 1. racines: only the racine names, page by page, inserted in bulk (boot waits for this phase)
+ * 2. derives: only racine + derives.mot/scheme of racines that have some, in parallel
+ *    batches on a background thread (skipped when the engine loads derives on demand)
+ * At most batch-size × (threads + 2) racines' derives are in memory at once
+ */
+@Service
+public class EngineHydrationService {
+
+    public enum Phase { IDLE, RACINES, DERIVES, DONE, FAILED }
+
+    private final RacineStore racineStore;
+    private final Morphologie engine;
+    private final int batchSize;
+    private final int threads;
+
+    // Progress, readable while hydration runs
+    private volatile Phase phase = Phase.IDLE;
+    private volatile long racinesTotal;
+    private volatile long derivesTotal;
+    private final AtomicLong racinesLoaded = new AtomicLong();
+    private final AtomicLong derivesLoaded = new AtomicLong();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public EngineHydrationService(RacineStore racineStore,
+                                  Morphologie engine,
+                                  @Value("${morphologie.hydration.batch-size:2000}") int batchSize,
+                                  @Value("${morphologie.hydration.threads:0}") int threads) {
+        this.racineStore = racineStore;
+        this.engine = engine;
+        this.batchSize = batchSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Load every racine name synchronously, then start loading derives in the background
+     * onDerivesLoaded runs once all derives are in the engine (not run if hydration fails)
+     */
+    public void hydrate(Runnable onDerivesLoaded) {
+        startedAt = System.currentTimeMillis();
+        finishedAt = 0;
+        racinesLoaded.set(0);
+        derivesLoaded.set(0);
+
+        try {
+            loadRacines();
+        } catch (RuntimeException e) {
+            phase = Phase.FAILED;
+            throw e;
+        }
+        System.out.println("✅ Hydrated " + racinesLoaded.get() + " racines in "
+                + (System.currentTimeMillis() - startedAt) + " ms");
+
+        if (engine.derivesALaDemande()) {
+            // Derives are loaded on demand by the engine: nothing more to read
+            phase = Phase.DONE;
+            finishedAt = System.currentTimeMillis();
+            onDerivesLoaded.run();
+            return;
+        }
+        
+        Thread worker = new Thread(() -> {
+            try {
+                loadDerives();
+                phase = Phase.DONE;
+                finishedAt = System.currentTimeMillis();
+                System.out.println("✅ Hydrated derives of " + derivesLoaded.get() + " racines in "
+                        + (finishedAt - startedAt) + " ms");
+                onDerivesLoaded.run();
+            } catch (Exception e) {
+                phase = Phase.FAILED;
+                finishedAt = System.currentTimeMillis();
+                System.err.println("⚠️ Derive hydration failed: " + e.getMessage());
+            }
+        }, "engine-hydration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Phase 1: racine names only, in racine order so each page is already sorted
+    private void loadRacines() {
+        phase = Phase.RACINES;
+        racinesTotal = racineStore.estimatedCount();
+
+        List<String> page = new ArrayList<>(batchSize);
+        racineStore.forEachName(racine -> {
+            page.add(racine);
+            if (page.size() == batchSize) {
+                insertPage(page);
+            }
+        });
+        insertPage(page);
+    }
+
+    private void insertPage(List<String> page) {
+        if (page.isEmpty()) return;
+        engine.ajouterRacines(page);
+        racinesLoaded.addAndGet(page.size());
+        page.clear();
+    }
+
+    // Phase 2: racines with at least one derive, processed by a bounded pool
+    private void loadDerives() throws InterruptedException {
+        phase = Phase.DERIVES;
+        derivesTotal = racineStore.countWithDerives();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads + 1);  // Caps the number of batches held in memory
+        DeriveBatches batches = new DeriveBatches(pool, inFlight);
+        try {
+            racineStore.forEachDerives(batches);
+            batches.submit();
+        } finally {
+            pool.shutdown();
+            if (!pool.awaitTermination(1, TimeUnit.HOURS)) {
+                pool.shutdownNow();
+                throw new IllegalStateException("Derive hydration timed out");
+            }
+        }
+        batches.checkAll();
+    }
+
+    // Groups the derives read from the store into batch-size work items for the pool
+    private final class DeriveBatches implements RacineStore.DerivesConsumer {
+        private final ExecutorService pool;
+        private final Semaphore inFlight;
+        private final List<Future<?>> submitted = new ArrayList<>();
+        private List<RacineDerives> current = new ArrayList<>(batchSize);
+
+        DeriveBatches(ExecutorService pool, Semaphore inFlight) {
+            this.pool = pool;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public void accept(String racine, List<String> mots, List<String> schemes) {
+            current.add(new RacineDerives(racine, mots, schemes));
+            if (current.size() == batchSize) {
+                submit();
+            }
+        }
+
+        void submit() {
+            if (current.isEmpty()) return;
+            List<RacineDerives> work = current;
+            current = new ArrayList<>(batchSize);
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Derive hydration interrupted", e);
+            }
+            submitted.add(pool.submit(() -> {
+                try {
+                    addDerives(work);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        // A batch that threw leaves the engine incomplete: the hydration fails
+        void checkAll() throws InterruptedException {
+            for (Future<?> f : submitted) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Derive batch failed: " + e.getCause(), e.getCause());
+                }
+            }
+        }
+    }
+
+    private void addDerives(List<RacineDerives> batch) {
+        for (RacineDerives r : batch) {
+            Node node = engine.arbre.rechercher(r.racine);
+            if (node != null) {
+                node.ajouterDerives(r.mots, r.schemes);
+            }
+            derivesLoaded.incrementAndGet();
+        }
+    }
+
+    private static final class RacineDerives {
+        final String racine;
+        final List<String> mots;
+        final List<String> schemes;
+
+        RacineDerives(String racine, List<String> mots, List<String> schemes) {
+            this.racine = racine;
+            this.mots = mots;
+            this.schemes = schemes;
+        }
+    }
+
+    /**
+     * Current progress of the hydration (also usable after it finished)
+     */
+    public HydrationProgressResponse getProgress() {
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        return new HydrationProgressResponse(
+                phase.name(),
+                racinesTotal,
+                racinesLoaded.get(),
+                derivesTotal,
+                derivesLoaded.get(),
+                startedAt == 0 ? 0 : end - startedAt
+        );
+    }
+}
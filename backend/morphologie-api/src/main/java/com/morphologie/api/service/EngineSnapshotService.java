@@ -0,0 +1,91 @@
+package com.morphologie.api.service;
+
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.SnapshotMoteur;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// ============= Engine Snapshot Service =============
+/**
+ * Binary snapshot of the engine on local disk
+ * Restored at boot instead of reading every racine from MongoDB, then written
+ * periodically and on shutdown so the next start only has a small delta to sync
+ */
+@Service
+public class EngineSnapshotService {
+
+    private final Morphologie engine;
+    private final boolean enabled;
+    private final Path path;
+    private volatile boolean ready;  // False until the engine has been fully loaded once
+
+    public EngineSnapshotService(Morphologie engine,
+                                 @Value("${morphologie.snapshot.enabled:true}") boolean enabled,
+                                 @Value("${morphologie.snapshot.path:data/engine.snapshot}") String path) {
+        this.engine = engine;
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Load the snapshot into the (empty) engine
+     * Returns the snapshot timestamp in epoch millis, or -1 when there is no usable snapshot
+     */
+    public long restore() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return -1;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long timestamp = SnapshotMoteur.charger(path, engine);
+            System.out.println("✅ Engine snapshot loaded from " + path + " in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return timestamp;
+        } catch (IOException e) {
+            System.err.println("⚠️ Ignoring engine snapshot " + path + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Write a new snapshot of the current engine state
+     */
+    public void save() {
+        if (!enabled || !ready) {
+            return;
+        }
+        // Taken before reading the engine: later changes are replayed by the next delta sync
+        long timestamp = System.currentTimeMillis();
+        try {
+            SnapshotMoteur.ecrire(engine, path, timestamp);
+            System.out.println("✅ Engine snapshot written to " + path + " ("
+                    + (System.currentTimeMillis() - timestamp) + " ms)");
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write engine snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Called once the engine holds the full lexicon (snapshot + delta, or full MongoDB load)
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    @Scheduled(initialDelayString = "${morphologie.snapshot.interval-ms:600000}",
+               fixedDelayString = "${morphologie.snapshot.interval-ms:600000}")
+    public void periodicSave() {
+        save();
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        save();
+    }
+}
@@ -0,0 +1,134 @@
+package com.morphologie.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// ============= Lexicon Version Service =============
+/**
+ * Version counters of the racine and scheme collections, for conditional GETs
+ * Every service that writes one of the collections bumps its counter once the write is
+ * done, so a listing read after observing version v contains at least every change up to v
+ * The counter gives a strong ETag (prefixed with the boot time, as counters restart at 0)
+ * and the time of the last change gives Last-Modified
+ * Serialized listings (one per page / projection) are kept for the current version and
+ * reused until the next bump
+ */
+@Service
+public class LexiconVersionService {
+
+    public enum Lexicon { RACINES, SCHEMES }
+    
+    private static final int MAX_BODIES = 256;  // Distinct pages kept per version
+
+    private final ObjectMapper objectMapper;
+    private final long bootTime = System.currentTimeMillis();
+    private final Map<Lexicon, State> states = new EnumMap<>(Lexicon.class);
+
+    public LexiconVersionService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Lexicon lexicon : Lexicon.values()) {
+            states.put(lexicon, new State(bootTime));
+        }
+    }
+
+    /**
+     * Record a change to a collection; call it after the write reached MongoDB
+     */
+    public void bump(Lexicon lexicon) {
+        State state = states.get(lexicon);
+        synchronized (state) {
+            state.lastModified = System.currentTimeMillis();
+            state.version++;
+        }
+    }
+
+    /**
+     * Current version of a collection, to check If-None-Match / If-Modified-Since against
+     */
+    public Tag current(Lexicon lexicon) {
+        State state = states.get(lexicon);
+        synchronized (state) {
+            return new Tag(lexicon, state.version, state.lastModified, bootTime);
+        }
+    }
+
+    /**
+     * Serialized body of the listing identified by key (query parameters) for the given
+     * version: reused when already built for it, otherwise built from loader (which must
+     * read the collection after tag was taken)
+     */
+    public byte[] body(Tag tag, String key, Supplier<Object> loader) {
+        State state = states.get(tag.lexicon);
+        Bodies current = state.bodies;
+        if (current != null && current.version == tag.version) {
+            byte[] cached = current.bytes.get(key);
+            if (cached != null) return cached;
+        }
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + tag.lexicon + " listing", e);
+        }
+        // Keep the newest version only: a slow reader must not replace fresher bodies
+        synchronized (state) {
+            if (state.bodies == null || state.bodies.version < tag.version) {
+                state.bodies = new Bodies(tag.version);
+            }
+            if (state.bodies.version == tag.version && state.bodies.bytes.size() < MAX_BODIES) {
+                state.bodies.bytes.put(key, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    public static final class Tag {
+        private final Lexicon lexicon;
+        private final long version;
+        private final long lastModified;
+        private final String etag;
+
+        Tag(Lexicon lexicon, long version, long lastModified, long bootTime) {
+            this.lexicon = lexicon;
+            this.version = version;
+            this.lastModified = lastModified;
+            this.etag = "\"" + lexicon.name().toLowerCase() + "-" + Long.toString(bootTime, 36) + "-" + version + "\"";
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private static final class State {
+        long version;              // Guarded by the state
+        long lastModified;
+        volatile Bodies bodies;
+
+        State(long lastModified) {
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class Bodies {
+        final long version;
+        final Map<String, byte[]> bytes = new ConcurrentHashMap<>();
+
+        Bodies(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -1,149 +1,209 @@
 package com.morphologie.api.service;
 
+import com.morphologie.engine.Analyse;
 import com.morphologie.engine.Morphologie;
 import com.morphologie.engine.Node;
 import com.morphologie.engine.Scheme;
+import com.morphologie.api.model.Derivation;
 import com.morphologie.api.model.Racine;
 import com.morphologie.api.model.SchemeModel;
-import com.morphologie.api.repository.RacineRepository;
-import com.morphologie.api.repository.SchemeRepository;
 import com.morphologie.api.exception.*;
+import com.morphologie.api.dto.request.GenerateWordRequest;
+import com.morphologie.api.dto.request.ValidateWordRequest;
+import com.morphologie.api.dto.response.BatchResponse;
 import com.morphologie.api.dto.response.GeneratedWordResponse;
 import com.morphologie.api.dto.response.AnalysisResponse;
 import com.morphologie.api.dto.response.ValidationResponse;
+import com.morphologie.api.store.RacineStore;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class MorphologyService {
     
-    private final Morphologie engine;  // Your existing morphology engine
-    private final RacineRepository racineRepository;
-    private final SchemeRepository schemeRepository;
+    private final Morphologie engine;  // Shared engine bean (same instance as RacineService/SchemeService)
+    private final RacineStore racineStore;
+    private final SchemeRegistry schemeRegistry;  // Stored schemes, in memory
+    private final EngineSnapshotService snapshotService;
+    private final EngineHydrationService hydrationService;
+    private final AnalysisCache analysisCache;
+    private final DerivationWriter derivationWriter;
+    private final SchemeUsageCounter usageCounter;
     
-    public MorphologyService(RacineRepository racineRepository, 
-                            SchemeRepository schemeRepository) {
-        this.engine = new Morphologie();
-        this.racineRepository = racineRepository;
-        this.schemeRepository = schemeRepository;
+    public MorphologyService(RacineStore racineStore, 
+                            SchemeRegistry schemeRegistry,
+                            Morphologie engine,
+                            EngineSnapshotService snapshotService,
+                            EngineHydrationService hydrationService,
+                            AnalysisCache analysisCache,
+                            DerivationWriter derivationWriter,
+                            SchemeUsageCounter usageCounter) {
+        this.engine = engine;
+        this.racineStore = racineStore;
+        this.schemeRegistry = schemeRegistry;
+        this.snapshotService = snapshotService;
+        this.hydrationService = hydrationService;
+        this.analysisCache = analysisCache;
+        this.derivationWriter = derivationWriter;
+        this.usageCounter = usageCounter;
     }
     
     /**
-     * Initialize engine from database on startup
-     * Load all racines into AVL tree and sync schemes
+     * Initialize engine on startup
+     * From the local snapshot plus a delta sync when one is available,
+     * otherwise custom schemes first, then a streamed load of racines and derives from the racine store
      */
     @PostConstruct
     public void initializeEngine() {
         System.out.println("=== Initializing Morphology Engine ===");
+        long start = System.currentTimeMillis();
         
-        // Load all racines from MongoDB into AVL tree
-        List<Racine> racines = racineRepository.findAll();
+        long since = snapshotService.restore();
+        if (since >= 0) {
+            syncSchemes();
+            int changed = syncRacinesSince(since);
+            System.out.println("✅ Delta sync: " + changed + " racines changed since snapshot");
+            snapshotService.markReady();
+        } else {
+            // Schemes before racines, so each racine is indexed once
+            // Racines are streamed now, derives in the background; snapshot once everything is in
+            syncSchemes();
+            hydrationService.hydrate(() -> {
+                snapshotService.markReady();
+                snapshotService.save();
+            });
+        }
+        
+        System.out.println("✅ Engine initialized with " + engine.arbre.taille() + " racines and "
+                + engine.getAllSchemes().size() + " schemes in " + (System.currentTimeMillis() - start) + " ms");
+    }
+    
+    // Load the scheme registry, then align the engine's dynamic schemes with its custom schemes
+    private void syncSchemes() {
+        Set<String> custom = schemeRegistry.reload().getSchemes().stream()
+                .filter(SchemeModel::isDynamic)
+                .map(SchemeModel::getNom)
+                .collect(Collectors.toSet());
+        for (String nom : engine.getAllSchemes()) {
+            Scheme s = engine.getScheme(nom);
+            if (s != null && s.estDynamique() && !custom.contains(nom)) {
+                engine.supprimerScheme(nom);
+            }
+        }
+        for (String nom : custom) {
+            if (engine.getScheme(nom) == null) {
+                engine.ajouterScheme(nom);
+            }
+        }
+    }
+    
+    // Bulk insertion (the tree is merged in linear time), then derives node by node (delta sync)
+    private void loadRacines(List<Racine> racines) {
+        engine.ajouterRacines(racines.stream().map(Racine::getRacine).collect(Collectors.toList()));
         for (Racine r : racines) {
-            engine.arbre.addRacine(r.getRacine());
-            
-            // Also add derives to the node
             Node node = engine.arbre.rechercher(r.getRacine());
-            if (node != null && r.getDerives() != null) {
-                r.getDerives().forEach(d -> 
-                    node.ajouterDerive(d.getMot(), d.getScheme())
-                );
+            if (node == null || r.getDerives() == null || r.getDerives().isEmpty()) continue;
+            List<String> mots = new ArrayList<>(r.getDerives().size());
+            List<String> schemes = new ArrayList<>(r.getDerives().size());
+            for (Derivation d : r.getDerives()) {
+                mots.add(d.getMot());
+                schemes.add(d.getScheme());
             }
+            node.ajouterDerives(mots, schemes);
         }
+    }
+    
+    // Replay racines created or updated after the snapshot; returns how many were read
+    private int syncRacinesSince(long since) {
+        LocalDateTime after = LocalDateTime.ofInstant(Instant.ofEpochMilli(since), ZoneId.systemDefault());
+        List<Racine> changed = racineStore.findUpdatedAfter(after);
+        loadRacines(changed);
         
-        // Sync custom schemes from MongoDB
-        List<SchemeModel> customSchemes = schemeRepository.findByIsDynamic(true);
-        for (SchemeModel s : customSchemes) {
-            engine.ajouterScheme(s.getNom());
+        // Deleted racines leave no trace in the delta, and counts can match after a delete
+        // plus an add: always reconcile the names with a scan of the stored names (names
+        // only, no document is decoded)
+        removeStaleRacines();
+        return changed.size();
+    }
+    
+    private void removeStaleRacines() {
+        Set<String> stored = new HashSet<>();
+        racineStore.forEachName(stored::add);
+        int removed = 0;
+        for (String racine : engine.getAllRacines()) {
+            if (!stored.contains(racine) && engine.supprimerRacine(racine)) removed++;
         }
-        
-        System.out.println("✅ Engine initialized with " + racines.size() + " racines");
-        System.out.println("✅ Loaded " + customSchemes.size() + " custom schemes");
+        System.out.println("✅ Removed " + removed + " racines deleted since snapshot");
     }
     
     /**
      * Generate a word from racine + scheme
+     * The derivation is stored with one conditional in-place update (no document read),
+     * and the scheme usage is counted in memory (written in batches)
      */
-    @Transactional
     public GeneratedWordResponse generateWord(String racine, String schemeName) {
-        // Validate racine exists in DB
-        Racine racineEntity = racineRepository.findByRacine(racine)
-                .orElseThrow(() -> new RacineNotFoundException(racine));
-        
-        // Validate scheme exists
-        SchemeModel schemeEntity = schemeRepository.findByNom(schemeName)
-                .orElseThrow(() -> new SchemeNotFoundException(schemeName));
+        requireRacine(racine);
         
-        // Generate word using engine
-        Node node = engine.arbre.rechercher(racine);
-        if (node == null) {
-            // Sync issue - add to engine
-            engine.arbre.addRacine(racine);
-            node = engine.arbre.rechercher(racine);
+        // Get scheme from engine and generate
+        Scheme scheme = engine.getScheme(schemeName);
+        if (scheme == null) {
+            throw new SchemeNotFoundException(schemeName);
+        }
+        String generatedWord = scheme.generate(racine);
+        if (generatedWord == null) {
+            throw new WordGenerationException("Failed to generate word");
         }
         
-        // Get scheme from engine and generate
-        String generatedWord = null;
-        try {
-            // Use engine's generate method
-            Scheme scheme = engine.getScheme(schemeName);
-            if (scheme == null) {
-                throw new SchemeNotFoundException(schemeName);
-            }
-            
-            generatedWord = scheme.generate(racine);
-            if (generatedWord == null) {
-                throw new WordGenerationException("Failed to generate word");
-            }
-            
-            // Add to node's derives
-            node.ajouterDerive(generatedWord, schemeName);
-            
-            // Save to MongoDB
-            racineEntity.addDerive(generatedWord, schemeName);
-            racineRepository.save(racineEntity);
-            
-            // Increment scheme usage count
-            schemeEntity.incrementUsage();
-            schemeRepository.save(schemeEntity);
-            
-        } catch (Exception e) {
-            throw new WordGenerationException("Error generating word: " + e.getMessage());
+        if (!schemeRegistry.current().contains(schemeName)) {
+            throw new SchemeNotFoundException(schemeName);
         }
+        usageCounter.record(schemeName, 1);
+        
+        // Save to the store (skipped when the word is already there), then to the engine node
+        derivationWriter.add(racine, generatedWord, schemeName);
+        addToEngine(racine, generatedWord, schemeName);
         
         return new GeneratedWordResponse(generatedWord, racine, schemeName);
     }
     
     /**
      * Validate if a word belongs to a racine
+     * Each engine scheme matches the word against its compiled template (no word generation)
+     * Only the engine result is cached (until the next racine or scheme change); a valid word
+     * is stored on every call, cached or not, since the stored derivation may have changed
+     * since the first validation (racine renamed or deleted, write not yet flushed)
      */
     public ValidationResponse validateWord(String racine, String mot) {
-        // Check if racine exists
-        Racine racineEntity = racineRepository.findByRacine(racine)
-                .orElseThrow(() -> new RacineNotFoundException(racine));
-        
-        // Try all schemes to see if word matches
-        List<SchemeModel> allSchemes = schemeRepository.findAll();
-        
-        for (SchemeModel schemeModel : allSchemes) {
-            Scheme engineScheme = engine.getScheme(schemeModel.getNom());
-            if (engineScheme != null) {
-                String generated = engineScheme.generate(racine);
-                if (mot.equals(generated)) {
-                    // Valid! Add to derives if not already there
-                    racineEntity.addDerive(mot, schemeModel.getNom());
-                    racineRepository.save(racineEntity);
-                    
-                    // Also add to engine node
-                    Node node = engine.arbre.rechercher(racine);
-                    if (node != null) {
-                        node.ajouterDerive(mot, schemeModel.getNom());
-                    }
-                    
-                    return new ValidationResponse(true, racine, mot, schemeModel.getNom());
-                }
-            }
+        ValidationResponse result = analysisCache.validation(racine, mot, () -> computeValidation(racine, mot),
+                r -> AnalysisCache.weightOf(r.getRacine(), r.getMot(), r.getScheme()));
+        if (result.isValid()) {
+            // Store it, spelled as the scheme generates it (the input may differ in
+            // diacritics, hamza or final letters); no write when it is already stored
+            String form = canonicalForm(racine, mot, result.getScheme());
+            derivationWriter.add(racine, form, result.getScheme());
+            addToEngine(racine, form, result.getScheme());
+        }
+        return result;
+    }
+    
+    // Pure engine check, safe to cache: no store or engine write
+    private ValidationResponse computeValidation(String racine, String mot) {
+        requireRacine(racine);
+        
+        String schemeName = engine.valider(racine, mot);
+        if (schemeName != null) {
+            return new ValidationResponse(true, racine, mot, schemeName);
         }
         
         // Not valid
@@ -152,30 +212,23 @@ public class MorphologyService {
     
     /**
      * Reverse analysis: find racine and scheme for any given word
-     * The word doesn't need to be pre-saved; it will be analyzed against all available racines and schemes
+     * The word doesn't need to be pre-saved; it is looked up in the engine's inverted index
+     * (every racine × scheme form), so no store read is needed
+     * Results are cached until the next racine or scheme change
      */
     public AnalysisResponse analyzeWord(String mot) {
         if (mot == null || mot.trim().isEmpty()) {
             return new AnalysisResponse(mot, null, null, false);
         }
-        
-        // Get all available racines and schemes
-        List<Racine> allRacines = racineRepository.findAll();
-        List<SchemeModel> allSchemes = schemeRepository.findAll();
-        
-        // Try to match the word against all possible combinations
-        for (Racine racine : allRacines) {
-            for (SchemeModel schemeModel : allSchemes) {
-                Scheme engineScheme = engine.getScheme(schemeModel.getNom());
-                if (engineScheme != null) {
-                    String generated = engineScheme.generate(racine.getRacine());
-                    if (mot.equals(generated)) {
-                        // Found a match
-                        return new AnalysisResponse(mot, racine.getRacine(), 
-                                                   schemeModel.getNom(), true);
-                    }
-                }
-            }
+        return analysisCache.analysis(mot, () -> computeAnalysis(mot),
+                r -> AnalysisCache.weightOf(r.getMot(), r.getRacine(), r.getScheme()));
+    }
+    
+    private AnalysisResponse computeAnalysis(String mot) {
+        List<Analyse> analyses = engine.analyser(mot);
+        if (!analyses.isEmpty()) {
+            Analyse a = analyses.get(0);
+            return new AnalysisResponse(mot, a.getRacine(), a.getScheme(), true);
         }
         
         // Word could not be decomposed with any available racine and scheme
@@ -183,16 +236,133 @@ public class MorphologyService {
     }
     
     /**
-     * Get all racines from database
+     * Autocomplete over every generated word (racines × schemes), with the
+     * racine/scheme pairs that produce each one; answered from the engine only
      */
-    public List<Racine> getAllRacines() {
-        return racineRepository.findAll();
+    public List<AnalysisResponse> searchWords(String prefix, int limit) {
+        List<AnalysisResponse> results = new ArrayList<>();
+        for (String mot : engine.motsParPrefixe(prefix.trim(), RacineService.clampLimit(limit))) {
+            for (Analyse a : engine.analyser(mot)) {
+                results.add(new AnalysisResponse(mot, a.getRacine(), a.getScheme(), true));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Generate many words in one call
+     * Racines are resolved with one query and schemes from the registry, words are generated in memory,
+     * then new derivations are persisted with one bulk write and usage counts in memory
+     */
+    public BatchResponse<GeneratedWordResponse> generateBatch(List<GenerateWordRequest> items) {
+        Set<String> racines = findRacines(
+                items.stream().map(GenerateWordRequest::getRacine).collect(Collectors.toSet()));
+        SchemeRegistry.Snapshot stored = schemeRegistry.current();
+        
+        Map<String, List<Derivation>> pending = new LinkedHashMap<>();
+        Map<String, Integer> usage = new HashMap<>();
+        List<BatchResponse.ItemResult<GeneratedWordResponse>> results = new ArrayList<>(items.size());
+        
+        for (int i = 0; i < items.size(); i++) {
+            String racine = items.get(i).getRacine();
+            String schemeName = items.get(i).getScheme();
+            
+            if (!racines.contains(racine)) {
+                results.add(BatchResponse.ItemResult.error(i, new RacineNotFoundException(racine).getMessage()));
+                continue;
+            }
+            Scheme scheme = engine.getScheme(schemeName);
+            if (scheme == null || !stored.contains(schemeName)) {
+                results.add(BatchResponse.ItemResult.error(i, new SchemeNotFoundException(schemeName).getMessage()));
+                continue;
+            }
+            String generatedWord = scheme.generate(racine);
+            if (generatedWord == null) {
+                results.add(BatchResponse.ItemResult.error(i, "Failed to generate word"));
+                continue;
+            }
+            
+            addToEngine(racine, generatedWord, schemeName);
+            pending.computeIfAbsent(racine, k -> new ArrayList<>()).add(new Derivation(generatedWord, schemeName));
+            usage.merge(schemeName, 1, Integer::sum);
+            results.add(BatchResponse.ItemResult.success(i,
+                    new GeneratedWordResponse(generatedWord, racine, schemeName)));
+        }
+        
+        derivationWriter.addAll(pending);
+        usage.forEach(usageCounter::record);
+        
+        return new BatchResponse<>(results);
+    }
+    
+    /**
+     * Validate many (racine, mot) pairs in one call
+     * Racines are resolved with one query, matching is done in the engine,
+     * and valid words are persisted with one bulk write
+     */
+    public BatchResponse<ValidationResponse> validateBatch(List<ValidateWordRequest> items) {
+        Set<String> racines = findRacines(
+                items.stream().map(ValidateWordRequest::getRacine).collect(Collectors.toSet()));
+        
+        Map<String, List<Derivation>> pending = new LinkedHashMap<>();
+        List<BatchResponse.ItemResult<ValidationResponse>> results = new ArrayList<>(items.size());
+        
+        for (int i = 0; i < items.size(); i++) {
+            String racine = items.get(i).getRacine();
+            String mot = items.get(i).getMot();
+            
+            if (!racines.contains(racine)) {
+                results.add(BatchResponse.ItemResult.error(i, new RacineNotFoundException(racine).getMessage()));
+                continue;
+            }
+            String schemeName = engine.valider(racine, mot);
+            if (schemeName != null) {
+                String form = canonicalForm(racine, mot, schemeName);
+                addToEngine(racine, form, schemeName);
+                pending.computeIfAbsent(racine, k -> new ArrayList<>()).add(new Derivation(form, schemeName));
+            }
+            results.add(BatchResponse.ItemResult.success(i,
+                    new ValidationResponse(schemeName != null, racine, mot, schemeName)));
+        }
+        
+        derivationWriter.addAll(pending);
+        return new BatchResponse<>(results);
+    }
+    
+    // Word as generated by the scheme, for a word validated through its normalized spelling
+    private String canonicalForm(String racine, String mot, String schemeName) {
+        String form = engine.forme(racine, schemeName);
+        return form != null ? form : mot;
+    }
+    
+    // Which of the requested racines exist, in one query reading only their names
+    private Set<String> findRacines(Set<String> racines) {
+        return racineStore.findExisting(racines);
+    }
+    
+    // Known to the engine, or at least stored (engine out of sync)
+    private void requireRacine(String racine) {
+        if (engine.arbre.rechercher(racine) == null && !racineStore.existsByRacine(racine)) {
+            throw new RacineNotFoundException(racine);
+        }
+    }
+    
+    // Add a derivation to the engine node (creating the node if the engine is out of sync)
+    private void addToEngine(String racine, String mot, String schemeName) {
+        Node node = engine.arbre.rechercher(racine);
+        if (node == null) {
+            engine.ajouterRacine(racine);
+            node = engine.arbre.rechercher(racine);
+        }
+        if (node != null) {
+            node.ajouterDerive(mot, schemeName);
+        }
     }
     
     /**
-     * Get all schemes from database
+     * Get all stored schemes (from the scheme registry)
      */
     public List<SchemeModel> getAllSchemes() {
-        return schemeRepository.findAll();
+        return schemeRegistry.current().getSchemes();
     }
 }
\ No newline at end of file
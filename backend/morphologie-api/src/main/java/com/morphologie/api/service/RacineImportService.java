@@ -0,0 +1,122 @@
+package com.morphologie.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.engine.Morphologie;
+import com.morphologie.api.dto.response.ImportResponse;
+import com.morphologie.api.store.RacineStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// ============= Racine Import Service =============
+/**
+ * Streams a lexicon file into the racine store and the engine
+ * The body is read line by line and flushed every batch-size racines, so memory
+ * stays bounded by one batch whatever the size of the file
+ */
+@Service
+public class RacineImportService {
+    
+    private final RacineStore racineStore;
+    private final Morphologie engine;
+    private final ObjectMapper objectMapper;
+    private final LexiconVersionService versions;
+    private final int batchSize;
+    
+    public RacineImportService(RacineStore racineStore,
+                               Morphologie engine,
+                               ObjectMapper objectMapper,
+                               LexiconVersionService versions,
+                               @Value("${morphologie.import.batch-size:5000}") int batchSize) {
+        this.racineStore = racineStore;
+        this.engine = engine;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Import racines from a plain-text (one per line) or NDJSON body
+     * NDJSON lines may be {"racine": "كتب"} objects or bare JSON strings
+     */
+    public ImportResponse importRacines(InputStream body, boolean ndjson) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportStats stats = new ImportStats();
+        Set<String> batch = new LinkedHashSet<>();  // Keeps file order, drops repeats within the batch
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            stats.linesRead++;
+            if (stats.linesRead == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);  // UTF-8 byte order mark
+            }
+            if (line.isBlank()) {
+                continue;  // Blank lines are neither racines nor errors
+            }
+            String racine = ndjson ? parseJson(line) : line.trim();
+            
+            if (racine == null || racine.length() != 3) {
+                stats.rejected++;
+            } else if (engine.arbre.rechercher(racine) != null || !batch.add(racine)) {
+                stats.duplicates++;
+            } else if (batch.size() >= batchSize) {
+                flush(batch, stats);
+            }
+        }
+        flush(batch, stats);
+        
+        long duration = System.currentTimeMillis() - start;
+        System.out.println("✅ Imported " + stats.imported + " racines from " + stats.linesRead
+                + " lines in " + duration + " ms");
+        return new ImportResponse(stats.linesRead, stats.imported, stats.duplicates, stats.rejected, duration);
+    }
+    
+    // Extract the racine from an NDJSON line, null if malformed
+    private String parseJson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.isTextual()) return node.asText().trim();
+            JsonNode racine = node.get("racine");
+            return racine != null && racine.isTextual() ? racine.asText().trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    // One bulk insert (MongoDB: unordered), then one bulk insertion into the engine of the
+    // whole batch: racines the store already had were missing from the engine (the batch only
+    // holds racines the engine lacked), so they are added too and counted as duplicates
+    private void flush(Set<String> batch, ImportStats stats) {
+        if (batch.isEmpty()) return;
+        
+        List<String> racines = new ArrayList<>(batch);
+        List<String> accepted;
+        try {
+            accepted = racineStore.insertAll(racines);
+        } finally {
+            versions.bump(LexiconVersionService.Lexicon.RACINES);
+        }
+        engine.ajouterRacines(racines);
+        
+        stats.imported += accepted.size();
+        stats.duplicates += racines.size() - accepted.size();
+        batch.clear();
+    }
+    
+    private static final class ImportStats {
+        long linesRead;
+        long imported;
+        long duplicates;
+        long rejected;
+    }
+}
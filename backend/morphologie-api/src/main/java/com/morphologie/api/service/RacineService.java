@@ -1,24 +1,49 @@
 package com.morphologie.api.service;
 
 import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.Node;
+import com.morphologie.engine.RegistreSchemes;
+import com.morphologie.api.model.Derivation;
 import com.morphologie.api.model.Racine;
-import com.morphologie.api.repository.RacineRepository;
+import com.morphologie.api.model.RacineSummary;
 import com.morphologie.api.exception.*;
+import com.morphologie.api.dto.response.ParadigmResponse;
+import com.morphologie.api.dto.response.RacinePageResponse;
 import com.morphologie.api.dto.response.RacineWithDerivesResponse;
+import com.morphologie.api.store.RacineStore;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class RacineService {
     
-    private final RacineRepository racineRepository;
+    static final int MAX_SEARCH_RESULTS = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    
+    // Fields of the paginated listing; derives must be asked for explicitly
+    static final List<String> LISTING_FIELDS = List.of("id", "racine", "deriveCount", "derives", "createdAt", "updatedAt");
+    static final List<String> DEFAULT_LISTING_FIELDS = List.of("id", "racine", "deriveCount", "createdAt", "updatedAt");
+    
+    private final RacineStore racineStore;
     private final Morphologie engine;
+    private final LexiconVersionService versions;
+    private final DerivationWriter derivationWriter;
     
-    public RacineService(RacineRepository racineRepository, Morphologie engine) {
-        this.racineRepository = racineRepository;
+    public RacineService(RacineStore racineStore, Morphologie engine,
+                         LexiconVersionService versions, DerivationWriter derivationWriter) {
+        this.racineStore = racineStore;
         this.engine = engine;
+        this.versions = versions;
+        this.derivationWriter = derivationWriter;
     }
     
     @Transactional
@@ -29,21 +54,142 @@ public class RacineService {
         if (racineText.length() != 3) {
             throw new InvalidRacineException("Racine must be exactly 3 letters");
         }
-        if (racineRepository.existsByRacine(racineText)) {
+        if (racineStore.existsByRacine(racineText)) {
             throw new RacineAlreadyExistsException(racineText);
         }
         
-        engine.arbre.addRacine(racineText);
-        Racine racine = new Racine(racineText);
-        return racineRepository.save(racine);
+        engine.ajouterRacine(racineText);
+        Racine racine = racineStore.save(new Racine(racineText));
+        versions.bump(LexiconVersionService.Lexicon.RACINES);
+        return racine;
+    }
+    
+    /**
+     * One page of the racine listing, in racine order
+     * cursor: nextCursor of the previous page (null for the first one); each page is one
+     * range query on the racine index, so page n costs the same as page 1
+     * fields: comma-separated subset of LISTING_FIELDS; derives are only read from the store
+     * when asked for, otherwise the store returns their count
+     */
+    public RacinePageResponse getRacinePage(String cursor, int limit, String fields) {
+        List<String> selected = parseListingFields(fields);
+        String after = decodeCursor(cursor);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        List<RacinePageResponse.Item> items = new ArrayList<>(size);
+        boolean hasMore;
+        if (selected.contains("derives")) {
+            Slice<Racine> slice = racineStore.findSliceAfter(after, size);
+            for (Racine r : slice) {
+                List<Derivation> derives = r.getDerives() != null ? r.getDerives() : List.of();
+                items.add(listingItem(selected, r.getId(), r.getRacine(), derives.size(), derives,
+                        r.getCreatedAt(), r.getUpdatedAt()));
+            }
+            hasMore = slice.hasNext();
+        } else {
+            Slice<RacineSummary> slice = racineStore.findSummariesAfter(after, size);
+            for (RacineSummary r : slice) {
+                items.add(listingItem(selected, r.getId(), r.getRacine(), r.getDeriveCount(), null,
+                        r.getCreatedAt(), r.getUpdatedAt()));
+            }
+            hasMore = slice.hasNext();
+        }
+        
+        // The cursor is the last racine of the page, so it stays valid across inserts and deletes
+        String next = null;
+        if (hasMore && !items.isEmpty()) {
+            next = encodeCursor(items.get(items.size() - 1).getRacine());
+        }
+        return new RacinePageResponse(items, next, size, selected);
+    }
+    
+    private static RacinePageResponse.Item listingItem(List<String> fields, String id, String racine,
+                                                       int deriveCount, List<Derivation> derives,
+                                                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        RacinePageResponse.Item item = new RacinePageResponse.Item();
+        if (fields.contains("id")) item.setId(id);
+        item.setRacine(racine);  // Always read: it is the cursor
+        if (fields.contains("deriveCount")) item.setDeriveCount(deriveCount);
+        if (fields.contains("derives")) item.setDerives(derives);
+        if (fields.contains("createdAt")) item.setCreatedAt(createdAt);
+        if (fields.contains("updatedAt")) item.setUpdatedAt(updatedAt);
+        return item;
+    }
+    
+    static List<String> parseListingFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return DEFAULT_LISTING_FIELDS;
+        }
+        List<String> selected = new ArrayList<>();
+        for (String f : fields.split(",")) {
+            String field = f.trim();
+            if (field.isEmpty() || selected.contains(field)) continue;
+            if (!LISTING_FIELDS.contains(field)) {
+                throw new InvalidRacineException("Unknown field '" + field + "', expected some of " + LISTING_FIELDS);
+            }
+            selected.add(field);
+        }
+        if (!selected.contains("racine")) {
+            selected.add(0, "racine");
+        }
+        return selected;
+    }
+    
+    // Opaque cursor: the last racine of a page, URL-safe Base64
+    static String encodeCursor(String racine) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(racine.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";  // Every racine is greater than the empty string
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRacineException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    /**
+     * Normalized identity of a listing page, for the serialized-page cache
+     * Checks the parameters first, so invalid ones fail before any caching header is set
+     */
+    public String listingKey(String cursor, int limit, String fields) {
+        decodeCursor(cursor);
+        return (cursor == null ? "" : cursor.trim()) + "|"
+                + Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) + "|"
+                + String.join(",", parseListingFields(fields));
+    }
+    
+    /**
+     * Version of the racine collection, for conditional GETs of the listing
+     */
+    public LexiconVersionService.Tag getListingVersion() {
+        return versions.current(LexiconVersionService.Lexicon.RACINES);
+    }
+    
+    /**
+     * Serialized listing page for that version, built once per version and page
+     */
+    public byte[] getListingBody(LexiconVersionService.Tag tag, String page, Supplier<Object> listing) {
+        return versions.body(tag, page, listing);
+    }
+    
+    /**
+     * Autocomplete: at most limit racines starting with prefix, alphabetical,
+     * answered from the engine trie (no store query)
+     */
+    public List<String> searchRacines(String prefix, int limit) {
+        return engine.racinesParPrefixe(prefix.trim(), clampLimit(limit));
     }
     
-    public List<Racine> getAllRacines() {
-        return racineRepository.findAll();
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
     }
     
     public Racine getRacine(String racineText) {
-        return racineRepository.findByRacine(racineText)
+        return racineStore.findByRacine(racineText)
                 .orElseThrow(() -> new RacineNotFoundException(racineText));
     }
     
@@ -68,22 +214,70 @@ public class RacineService {
         return response;
     }
     
+    /**
+     * Apply every registered scheme to a racine in one pass over the engine's scheme table
+     * Forms are generated on each call from the compiled scheme templates (one array copy
+     * per scheme), which costs less than keeping a per-racine cache for the whole lexicon
+     * With persist=true, forms not yet stored are appended in one atomic in-place update
+     */
+    public ParadigmResponse getParadigm(String racineText, boolean persist) {
+        if (engine.arbre.rechercher(racineText) == null && !racineStore.existsByRacine(racineText)) {
+            throw new RacineNotFoundException(racineText);
+        }
+        
+        List<ParadigmResponse.Form> forms = paradigmForms(racineText);
+        DerivationWriter.Counts persisted = persist ? persistParadigm(racineText, forms) : null;
+        return new ParadigmResponse(racineText, forms,
+                persisted != null ? persisted.getAdded() : 0,
+                persisted != null ? persisted.getQueued() : 0);
+    }
+    
+    private List<ParadigmResponse.Form> paradigmForms(String racineText) {
+        // One registry for the whole paradigm: every form comes from the same scheme table
+        RegistreSchemes registre = engine.getRegistreSchemes();
+        List<ParadigmResponse.Form> forms = new ArrayList<>(registre.taille());
+        engine.paradigme(racineText, registre).forEach((scheme, mot) -> forms.add(new ParadigmResponse.Form(scheme, mot)));
+        return forms;
+    }
+    
+    // Append the forms not yet stored for this racine in one atomic update (no document
+    // read); returns the derivations written, or queued in write-behind mode
+    private DerivationWriter.Counts persistParadigm(String racineText, List<ParadigmResponse.Form> forms) {
+        List<Derivation> derives = new ArrayList<>(forms.size());
+        forms.forEach(f -> derives.add(new Derivation(f.getMot(), f.getScheme())));
+        DerivationWriter.Counts added = derivationWriter.addAll(Map.of(racineText, derives));
+        
+        // Stored now, whether by this call or earlier
+        Node node = engine.arbre.rechercher(racineText);
+        if (node != null) {
+            derives.forEach(d -> node.ajouterDerive(d.getMot(), d.getScheme()));
+        }
+        return added;
+    }
+    
     @Transactional
     public Racine updateRacine(String oldRacine, String newRacine) {
         System.out.println("🔄 Updating in service: " + oldRacine + " -> " + newRacine);
         
-        Racine racine = racineRepository.findByRacine(oldRacine)
+        Racine racine = racineStore.findByRacine(oldRacine)
                 .orElseThrow(() -> new RacineNotFoundException(oldRacine));
         
-        if (!oldRacine.equals(newRacine) && racineRepository.existsByRacine(newRacine)) {
+        if (!oldRacine.equals(newRacine) && racineStore.existsByRacine(newRacine)) {
             throw new RacineAlreadyExistsException(newRacine);
         }
         
         racine.setRacine(newRacine);
-        Racine updated = racineRepository.save(racine);
+        racine.setUpdatedAt(LocalDateTime.now());  // Picked up by the snapshot delta sync
+        Racine updated = racineStore.save(racine);
+        versions.bump(LexiconVersionService.Lexicon.RACINES);
         
         try {
-            engine.arbre.addRacine(newRacine);
+            engine.supprimerRacine(oldRacine);
+            engine.ajouterRacine(newRacine);
+            Node node = engine.arbre.rechercher(newRacine);
+            if (node != null && updated.getDerives() != null) {
+                updated.getDerives().forEach(d -> node.ajouterDerive(d.getMot(), d.getScheme()));
+            }
         } catch (Exception e) {
             System.err.println("⚠️ Warning: Could not update engine: " + e.getMessage());
         }
@@ -96,15 +290,17 @@ public void deleteRacine(String racineText) {
     System.out.println("🟢 Service: Attempting to delete racine: '" + racineText + "'");
     
     // تأكد بلي الجذر موجود قبل الحذف
-    if (!racineRepository.existsByRacine(racineText)) {
+    if (!racineStore.existsByRacine(racineText)) {
         System.out.println("🔴 Racine not found: " + racineText);
         throw new RacineNotFoundException(racineText);
     }
     
-    racineRepository.deleteByRacine(racineText);
+    racineStore.deleteByRacine(racineText);
+    versions.bump(LexiconVersionService.Lexicon.RACINES);
+    engine.supprimerRacine(racineText);
     System.out.println("✅ Racine deleted successfully: " + racineText);
 }
     public long getRacineCount() {
-        return racineRepository.count();
+        return racineStore.count();
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.morphologie.api.service;
+
+import com.morphologie.engine.IndexFige;
+import com.morphologie.engine.Morphologie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// ============= Root Index Maintenance Service =============
+/**
+ * With morphologie.root-index=frozen, writes land in a small delta tree next to the
+ * frozen index; this task merges them in periodically so lookups stay on the frozen
+ * array (the engine also refreezes on its own once the delta grows past 1/8)
+ * It also compacts the derivation dictionary, which otherwise keeps the words of every
+ * racine ever loaded, including those the derives cache evicted or that were deleted
+ */
+@Service
+public class RootIndexMaintenanceService {
+
+    private final Morphologie engine;
+    private final double compactRatio;
+    private final int compactMinWords;
+
+    public RootIndexMaintenanceService(Morphologie engine,
+                                       @Value("${morphologie.derives.dictionary.compact-ratio:2.0}") double compactRatio,
+                                       @Value("${morphologie.derives.dictionary.compact-min-words:100000}") int compactMinWords) {
+        this.engine = engine;
+        this.compactRatio = compactRatio;
+        this.compactMinWords = compactMinWords;
+    }
+
+    @Scheduled(initialDelayString = "${morphologie.frozen-index.refreeze-ms:60000}",
+               fixedDelayString = "${morphologie.frozen-index.refreeze-ms:60000}")
+    public void refreeze() {
+        if (!(engine.arbre instanceof IndexFige index) || index.tailleDelta() == 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int pending = index.tailleDelta();
+        index.regeler();
+        System.out.println("✅ Root index refrozen (" + pending + " pending changes, "
+                + (System.currentTimeMillis() - start) + " ms)");
+    }
+
+    // Keep only the words of derivations still in memory once the dictionary holds more
+    // than compact-ratio times as many
+    @Scheduled(initialDelayString = "${morphologie.derives.dictionary.compact-check-ms:300000}",
+               fixedDelayString = "${morphologie.derives.dictionary.compact-check-ms:300000}")
+    public void compactDictionary() {
+        long start = System.currentTimeMillis();
+        int dropped = engine.compacterDictionnaireSiUtile(compactRatio, compactMinWords);
+        if (dropped > 0) {
+            System.out.println("✅ Derivation dictionary compacted: " + dropped + " unused words dropped in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.morphologie.api.service;
+
+import com.morphologie.api.model.SchemeModel;
+import com.morphologie.api.store.SchemeStore;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// ============= Scheme Registry =============
+/**
+ * Stored scheme documents held in memory, read by request handling instead of the store
+ * Each change publishes a new immutable snapshot with the next version: readers take one
+ * snapshot without locking and see a consistent table for their whole request
+ * Loaded once at startup (engine initialization), then kept in step by SchemeService
+ * writes and scheme usage flushes; the engine's own scheme table (RegistreSchemes) holds
+ * the compiled schemes, this one their stored metadata (type, description, usage)
+ * Order is stable: store order at load, then schemes in the order they were added
+ * (a renamed scheme keeps its place)
+ * Published documents are shared and must not be modified
+ */
+@Service
+public class SchemeRegistry {
+
+    private final SchemeStore schemeStore;
+    private volatile Snapshot current;  // null until loaded
+
+    public SchemeRegistry(SchemeStore schemeStore) {
+        this.schemeStore = schemeStore;
+    }
+
+    /**
+     * Current snapshot (loaded from the scheme store on first use)
+     */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Replace the snapshot with the stored schemes
+     */
+    public synchronized Snapshot reload() {
+        long version = current != null ? current.version + 1 : 1;
+        current = new Snapshot(version, schemeStore.findAll());
+        return current;
+    }
+
+    /**
+     * Publish a saved scheme: replaces the document with the same id (at its place),
+     * otherwise is added at the end
+     */
+    public synchronized void put(SchemeModel saved) {
+        List<SchemeModel> schemes = new ArrayList<>(current().schemes);
+        int at = -1;
+        for (int i = 0; i < schemes.size(); i++) {
+            if (Objects.equals(schemes.get(i).getId(), saved.getId())) {
+                at = i;
+                break;
+            }
+        }
+        if (at >= 0) schemes.set(at, saved); else schemes.add(saved);
+        publish(schemes);
+    }
+
+    /**
+     * Publish the removal of a scheme
+     */
+    public synchronized void remove(String nom) {
+        List<SchemeModel> schemes = new ArrayList<>(current().schemes);
+        if (schemes.removeIf(s -> nom.equals(s.getNom()))) {
+            publish(schemes);
+        }
+    }
+
+    /**
+     * Publish usage counts written to the store (copies of the counted documents)
+     */
+    public synchronized void addUsage(Map<String, Long> counts) {
+        Snapshot snapshot = current;
+        if (snapshot == null) return;  // Loaded later with the stored counts
+        List<SchemeModel> schemes = new ArrayList<>(snapshot.schemes.size());
+        for (SchemeModel s : snapshot.schemes) {
+            Long n = counts.get(s.getNom());
+            schemes.add(n == null ? s : withUsage(s, s.getUsageCount() + n.intValue()));
+        }
+        publish(schemes);
+    }
+
+    private void publish(List<SchemeModel> schemes) {
+        current = new Snapshot(current.version + 1, schemes);
+    }
+
+    /**
+     * Copy of a published document with another usage count
+     */
+    static SchemeModel withUsage(SchemeModel s, int usageCount) {
+        SchemeModel copy = new SchemeModel(s.getNom(), s.getPattern(), s.isDynamic(), s.getType());
+        copy.setId(s.getId());
+        copy.setDescription(s.getDescription());
+        copy.setCreatedAt(s.getCreatedAt());
+        copy.setUpdatedAt(s.getUpdatedAt());
+        copy.setUsageCount(usageCount);
+        return copy;
+    }
+
+    // ============= Snapshot =============
+    public static final class Snapshot {
+        private final long version;
+        private final List<SchemeModel> schemes;
+        private final Map<String, SchemeModel> byNom;
+
+        Snapshot(long version, List<SchemeModel> schemes) {
+            this.version = version;
+            this.schemes = Collections.unmodifiableList(new ArrayList<>(schemes));
+            Map<String, SchemeModel> map = new HashMap<>(schemes.size() * 2);
+            for (SchemeModel s : schemes) {
+                map.putIfAbsent(s.getNom(), s);
+            }
+            this.byNom = Collections.unmodifiableMap(map);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<SchemeModel> getSchemes() {
+            return schemes;
+        }
+
+        public SchemeModel get(String nom) {
+            return byNom.get(nom);
+        }
+
+        public boolean contains(String nom) {
+            return byNom.containsKey(nom);
+        }
+
+        public int size() {
+            return schemes.size();
+        }
+
+        public List<SchemeModel> byType(String type) {
+            return schemes.stream()
+                    .filter(s -> Objects.equals(type, s.getType()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
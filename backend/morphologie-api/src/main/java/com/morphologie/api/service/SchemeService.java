@@ -2,22 +2,37 @@ package com.morphologie.api.service;
 
 import com.morphologie.engine.Morphologie;
 import com.morphologie.api.model.SchemeModel;
-import com.morphologie.api.repository.SchemeRepository;
+import com.morphologie.api.store.SchemeStore;
 import com.morphologie.api.exception.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 // ============= Scheme Service =============
+/**
+ * Scheme reads are served from the in-memory SchemeRegistry; writes go to the scheme store and the
+ * engine, then publish the saved document to the registry before the listing version is bumped
+ */
 @Service
 public class SchemeService {
     
-    private final SchemeRepository schemeRepository;
+    private final SchemeStore schemeStore;
     private final Morphologie engine;
+    private final LexiconVersionService versions;
+    private final SchemeUsageCounter usageCounter;
+    private final SchemeRegistry schemeRegistry;
     
-    public SchemeService(SchemeRepository schemeRepository, Morphologie engine) {
-        this.schemeRepository = schemeRepository;
+    public SchemeService(SchemeStore schemeStore, Morphologie engine, LexiconVersionService versions,
+                         SchemeUsageCounter usageCounter, SchemeRegistry schemeRegistry) {
+        this.schemeStore = schemeStore;
         this.engine = engine;
+        this.versions = versions;
+        this.usageCounter = usageCounter;
+        this.schemeRegistry = schemeRegistry;
     }
     
     /**
@@ -36,39 +51,59 @@ public class SchemeService {
         }
         
         // Check if already exists
-        if (schemeRepository.existsByNom(nom)) {
+        if (schemeStore.existsByNom(nom)) {
             throw new SchemeAlreadyExistsException(nom);
         }
         
         // Add to engine
         engine.ajouterScheme(nom);
         
-        // Save to MongoDB
+        // Save to the store
         SchemeModel scheme = new SchemeModel(nom, nom, true, type != null ? type : "CUSTOM");
         scheme.setDescription(description);
-        return schemeRepository.save(scheme);
+        SchemeModel saved = schemeStore.save(scheme);
+        schemeRegistry.put(saved);
+        versions.bump(LexiconVersionService.Lexicon.SCHEMES);
+        return saved;
     }
     
     /**
-     * Get all schemes
+     * Get all schemes (registry order)
      */
     public List<SchemeModel> getAllSchemes() {
-        return schemeRepository.findAll();
+        return schemeRegistry.current().getSchemes();
+    }
+    
+    /**
+     * Version of the scheme collection, for conditional GETs of the full listing
+     */
+    public LexiconVersionService.Tag getListingVersion() {
+        return versions.current(LexiconVersionService.Lexicon.SCHEMES);
+    }
+    
+    /**
+     * Serialized listing for that version, built once per version
+     */
+    public byte[] getListingBody(LexiconVersionService.Tag tag, Supplier<Object> listing) {
+        return versions.body(tag, "", listing);
     }
     
     /**
      * Get scheme by name
      */
     public SchemeModel getScheme(String nom) {
-        return schemeRepository.findByNom(nom)
-                .orElseThrow(() -> new SchemeNotFoundException(nom));
+        SchemeModel scheme = schemeRegistry.current().get(nom);
+        if (scheme == null) {
+            throw new SchemeNotFoundException(nom);
+        }
+        return scheme;
     }
     
     /**
      * Get schemes by type
      */
     public List<SchemeModel> getSchemesByType(String type) {
-        return schemeRepository.findByType(type);
+        return schemeRegistry.current().byType(type);
     }
     
     /**
@@ -76,20 +111,28 @@ public class SchemeService {
      */
     @Transactional
     public SchemeModel modifyScheme(String nom, String newPattern) {
-        SchemeModel scheme = getScheme(nom);
+        // Stored document (registry documents are shared and never modified)
+        SchemeModel scheme = schemeStore.findByNom(nom)
+                .orElseThrow(() -> new SchemeNotFoundException(nom));
         
         // Validate new pattern
         if (!newPattern.contains("ف") || !newPattern.contains("ع") || !newPattern.contains("ل")) {
             throw new InvalidSchemeException("New pattern must contain ف ع ل");
         }
         
+        // Counts pending under the old name must land before the rename
+        usageCounter.flush();
+        
         // Modify in engine
         engine.modifierScheme(nom, newPattern);
         
-        // Update in MongoDB
+        // Update in the store
         scheme.setNom(newPattern);
         scheme.setPattern(newPattern);
-        return schemeRepository.save(scheme);
+        SchemeModel saved = schemeStore.save(scheme);
+        schemeRegistry.put(saved);
+        versions.bump(LexiconVersionService.Lexicon.SCHEMES);
+        return saved;
     }
     
     /**
@@ -97,29 +140,41 @@ public class SchemeService {
      */
     @Transactional
     public void deleteScheme(String nom) {
-        if (!schemeRepository.existsByNom(nom)) {
+        if (!schemeStore.existsByNom(nom)) {
             throw new SchemeNotFoundException(nom);
         }
         
         // Remove from engine
         engine.supprimerScheme(nom);
         
-        // Delete from MongoDB
-        schemeRepository.deleteByNom(nom);
+        // Delete from the store
+        schemeStore.deleteByNom(nom);
+        schemeRegistry.remove(nom);
+        versions.bump(LexiconVersionService.Lexicon.SCHEMES);
     }
     
     /**
      * Get most popular schemes
+     * Ranked on the registry counts plus the uses not flushed yet, so the ranking includes
+     * every generation without a store write on the request path
      */
     public List<SchemeModel> getPopularSchemes() {
-        return schemeRepository.findTop10ByOrderByUsageCountDesc();
+        Map<String, Long> pending = usageCounter.pendingCounts();
+        return schemeRegistry.current().getSchemes().stream()
+                .map(s -> {
+                    Long n = pending.get(s.getNom());
+                    return n == null ? s : SchemeRegistry.withUsage(s, s.getUsageCount() + n.intValue());
+                })
+                .sorted(Comparator.comparingInt(SchemeModel::getUsageCount).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
     }
     
     /**
      * Get total count of schemes
      */
     public long getSchemeCount() {
-        return schemeRepository.count();
+        return schemeRegistry.current().size();
     }
 }
 
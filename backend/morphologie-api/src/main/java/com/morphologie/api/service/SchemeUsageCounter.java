@@ -0,0 +1,105 @@
+package com.morphologie.api.service;
+
+import com.morphologie.api.store.SchemeStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// ============= Scheme Usage Counter =============
+/**
+ * Scheme usage counts accumulated in memory and written in batches
+ * Each generated word adds to a striped LongAdder (no lock, no store write on the request
+ * path); every flush-ms the pending counts go out as one bulk increment (MongoDB: $inc updates)
+ * Stored usageCount values (and the SchemeRegistry copies) lag by at most flush-ms plus
+ * one flush, and are exact after a flush (scheme rename, shutdown); readers that need
+ * current counts add pendingCounts to the registry ones instead of flushing
+ * A failed flush puts back only the counts the store certainly did not apply; when the
+ * store cannot tell, the counts are dropped rather than risk counting them twice
+ */
+@Service
+public class SchemeUsageCounter {
+
+    private final SchemeStore schemeStore;
+    private final LexiconVersionService versions;
+    private final SchemeRegistry schemeRegistry;
+    private final long flushMs;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public SchemeUsageCounter(SchemeStore schemeStore,
+                              LexiconVersionService versions,
+                              SchemeRegistry schemeRegistry,
+                              @Value("${morphologie.usage.flush-ms:5000}") long flushMs) {
+        this.schemeStore = schemeStore;
+        this.versions = versions;
+        this.schemeRegistry = schemeRegistry;
+        this.flushMs = flushMs;
+    }
+
+    /**
+     * Count uses of a scheme (written by the next flush)
+     */
+    public void record(String scheme, long count) {
+        pending.computeIfAbsent(scheme, k -> new LongAdder()).add(count);
+    }
+
+    /**
+     * Uses recorded since the last flush, per scheme (no store access)
+     */
+    public Map<String, Long> pendingCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        pending.forEach((scheme, adder) -> {
+            long n = adder.sum();
+            if (n != 0) counts.put(scheme, n);
+        });
+        return counts;
+    }
+
+    /**
+     * Write every pending count with one bulk increment
+     * Counts the store did not apply are put back and retried by the next flush
+     */
+    @Scheduled(initialDelayString = "${morphologie.usage.flush-ms:5000}",
+               fixedDelayString = "${morphologie.usage.flush-ms:5000}")
+    public synchronized void flush() {
+        // Each adder cell is drained atomically: an increment lands in this flush or the next
+        Map<String, Long> drained = new LinkedHashMap<>();
+        pending.forEach((scheme, adder) -> {
+            long n = adder.sumThenReset();
+            if (n != 0) drained.put(scheme, n);
+        });
+        if (drained.isEmpty()) return;
+
+        Set<String> notApplied;
+        try {
+            notApplied = schemeStore.incrementUsage(drained);
+        } catch (RuntimeException e) {
+            // Some increments may have been applied: at most once
+            long dropped = drained.values().stream().mapToLong(Long::longValue).sum();
+            System.err.println("⚠️ Scheme usage flush failed with an unknown outcome, dropped " + dropped + " uses: " + e.getMessage());
+            return;
+        }
+        Map<String, Long> applied = new LinkedHashMap<>(drained);
+        for (String scheme : notApplied) {
+            Long n = applied.remove(scheme);
+            if (n != null) record(scheme, n);
+        }
+        if (!notApplied.isEmpty()) {
+            System.err.println("⚠️ Could not flush usage counts of " + notApplied + ", retrying in " + flushMs + " ms");
+        }
+        if (applied.isEmpty()) return;
+        schemeRegistry.addUsage(applied);
+        versions.bump(LexiconVersionService.Lexicon.SCHEMES);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
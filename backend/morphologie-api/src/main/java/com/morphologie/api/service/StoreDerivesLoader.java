@@ -0,0 +1,24 @@
+package com.morphologie.api.service;
+
+import com.morphologie.api.store.RacineStore;
+import com.morphologie.engine.ChargeurDerives;
+import java.util.List;
+
+// ============= Store Derives Loader =============
+/**
+ * Loads the derivations of one racine from the racine store when the engine first needs them
+ * (MongoDB: projected query on racine and derives.mot / derives.scheme only)
+ */
+public class StoreDerivesLoader implements ChargeurDerives {
+    
+    private final RacineStore racineStore;
+    
+    public StoreDerivesLoader(RacineStore racineStore) {
+        this.racineStore = racineStore;
+    }
+    
+    @Override
+    public void charger(String racine, List<String> mots, List<String> schemes) {
+        racineStore.loadDerives(racine, mots, schemes);
+    }
+}
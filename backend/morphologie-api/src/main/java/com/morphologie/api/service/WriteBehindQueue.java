@@ -0,0 +1,398 @@
+package com.morphologie.api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.dto.response.WriteBehindResponse;
+import com.morphologie.api.model.Derivation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// ============= Write-Behind Queue =============
+/**
+ * Bounded queue of derivations waiting to be written, drained by one background thread
+ * (created by DerivationWriter when morphologie.write-behind.enabled is set)
+ * - coalescing: pending derivations are grouped per racine, a word queued twice is kept once
+ * - flush: a bulk batch as soon as batch-size derivations are pending, or when the oldest
+ *   has waited flush-ms
+ * - backpressure: when capacity derivations are pending, callers wait up to
+ *   offer-timeout-ms for room; offer then returns false and the caller writes synchronously
+ * - spill: while MongoDB is unreachable, batches are appended (and fsynced) to a local file,
+ *   replayed every retry-ms until MongoDB accepts them, and at the next start
+ * - spill failure: a batch that cannot be spilled either goes back to the head of the queue
+ *   and is retried (MongoDB first, then the spill file) every retry-ms; meanwhile the queue
+ *   fills up and callers fall back to synchronous writes
+ * Derivations still in memory are written (or spilled) on close; only a crash, or a close
+ * while neither MongoDB nor the spill file accepts them, loses them (counted in lost)
+ */
+final class WriteBehindQueue {
+
+    /**
+     * Bulk write of a batch (racine -> derivations); throws when MongoDB is unreachable
+     */
+    interface Sink {
+        int write(Map<String, List<Derivation>> batch);
+    }
+
+    private final Sink sink;
+    private final Consumer<Map<String, List<Derivation>>> onReplay;  // Replayed spill -> engine
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushNanos;
+    private final long offerTimeoutNanos;
+    private final long retryNanos;
+    private final Path spillPath;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition ready = lock.newCondition();
+    private LinkedHashMap<String, LinkedHashMap<String, Derivation>> pending = new LinkedHashMap<>();  // Guarded by lock
+    private int size;               // Derivations in pending
+    private long oldestAt;          // nanoTime of the oldest pending derivation
+    private boolean closed;
+
+    private final Thread flusher;
+    private volatile boolean mongoDown;
+    private volatile boolean spillFailing;  // Last spill failed: batches are kept in the queue
+    private long lastAttempt;       // Flusher thread only
+    private long retryAt;           // nanoTime of the next attempt while spillFailing (guarded by lock)
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushNanosTotal = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong spillFailures = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+
+    WriteBehindQueue(Sink sink, Consumer<Map<String, List<Derivation>>> onReplay, ObjectMapper objectMapper,
+                     int capacity, int batchSize, long flushMs, long offerTimeoutMs, long retryMs, Path spillPath) {
+        this.sink = sink;
+        this.onReplay = onReplay;
+        this.objectMapper = objectMapper;
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMs);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMs);
+        this.spillPath = spillPath;
+        this.flusher = new Thread(this::run, "derivation-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queue the derivations of one racine
+     * Returns false if there was no room within offer-timeout-ms (nothing queued)
+     */
+    boolean offer(String racine, List<Derivation> derives) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = offerTimeoutNanos;
+            boolean waited = false;
+            while (size >= capacity && !closed) {
+                if (remaining <= 0) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                if (!waited) {
+                    waits.incrementAndGet();
+                    waited = true;
+                }
+                ready.signal();  // Room comes from a flush
+                remaining = notFull.awaitNanos(remaining);
+            }
+            if (closed) return false;
+
+            boolean wasEmpty = size == 0;
+            if (wasEmpty) oldestAt = System.nanoTime();
+            LinkedHashMap<String, Derivation> words = pending.computeIfAbsent(racine, k -> new LinkedHashMap<>());
+            for (Derivation d : derives) {
+                if (words.putIfAbsent(d.getMot(), d) == null) {
+                    size++;
+                    enqueued.incrementAndGet();
+                } else {
+                    coalesced.incrementAndGet();
+                }
+            }
+            if (size >= batchSize || wasEmpty) ready.signal();  // Idle flusher starts its flush-ms timer
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting derivations, write (or spill) everything pending, then stop the thread
+     */
+    void close(long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            closed = true;
+            ready.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(timeoutMs);
+    }
+
+    // ================= Flusher thread =================
+    private void run() {
+        replaySpill();  // Left over by a previous run
+        while (true) {
+            Map<String, List<Derivation>> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == null) return;  // Closed and drained
+            if (!batch.isEmpty()) write(batch);
+            if (mongoDown && System.nanoTime() - lastAttempt >= retryNanos) replaySpill();
+        }
+    }
+
+    // Waits for a size or time trigger; empty map on a timeout with nothing to write
+    // While the spill file is failing, nothing is taken before the next retry
+    private Map<String, List<Derivation>> nextBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!closed && (size < batchSize || spillFailing)) {
+                long wait = spillFailing ? retryAt - System.nanoTime()
+                        : size == 0 ? (mongoDown ? retryNanos : Long.MAX_VALUE) : flushNanos - (System.nanoTime() - oldestAt);
+                if (wait <= 0) break;
+                if (size == 0 && mongoDown && !spillFailing) {
+                    ready.awaitNanos(wait);
+                    return Map.of();  // Wake up to retry the spill file
+                }
+                if (wait == Long.MAX_VALUE) ready.await(); else ready.awaitNanos(wait);
+            }
+            if (closed && size == 0) return null;
+            return drain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes whole racines from the head until batch-size derivations (called with the lock)
+    private Map<String, List<Derivation>> drain() {
+        Map<String, List<Derivation>> batch = new LinkedHashMap<>();
+        int taken = 0;
+        Iterator<Map.Entry<String, LinkedHashMap<String, Derivation>>> it = pending.entrySet().iterator();
+        while (it.hasNext() && taken < batchSize) {
+            Map.Entry<String, LinkedHashMap<String, Derivation>> e = it.next();
+            batch.put(e.getKey(), new ArrayList<>(e.getValue().values()));
+            taken += e.getValue().size();
+            it.remove();
+        }
+        size -= taken;
+        oldestAt = System.nanoTime();  // Remaining entries are at most one flush late
+        notFull.signalAll();
+        return batch;
+    }
+
+    private void write(Map<String, List<Derivation>> batch) {
+        if (mongoDown && !spillFailing) {
+            keep(batch);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            sink.write(batch);
+            spillFailing = false;  // A kept batch reached MongoDB
+            long elapsed = System.nanoTime() - start;
+            flushes.incrementAndGet();
+            flushNanosTotal.addAndGet(elapsed);
+            lastFlushNanos = elapsed;
+            if (elapsed > maxFlushNanos) maxFlushNanos = elapsed;
+            written.addAndGet(count(batch));
+        } catch (RuntimeException e) {
+            if (!mongoDown) {
+                System.err.println("⚠️ MongoDB unreachable, spilling derivations to " + spillPath + ": " + e.getMessage());
+            }
+            mongoDown = true;
+            lastAttempt = System.nanoTime();
+            keep(batch);
+        }
+    }
+
+    // Spills a batch MongoDB did not take; if the spill file cannot be written either, the
+    // batch goes back to the queue (retried after retry-ms), or is lost once the queue is closed
+    private void keep(Map<String, List<Derivation>> batch) {
+        if (spill(batch)) {
+            spillFailing = false;
+            return;
+        }
+        spillFailures.incrementAndGet();
+        lock.lock();
+        try {
+            if (closed) {
+                lost.addAndGet(count(batch));
+                System.err.println("❌ Lost " + count(batch) + " derivations: neither MongoDB nor " + spillPath + " accepted them on close");
+                return;
+            }
+            requeue(batch);
+            spillFailing = true;
+            retryAt = System.nanoTime() + retryNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Puts a batch back at the head of the queue, before what was queued since (called with
+    // the lock); a word queued again meanwhile is kept once
+    private void requeue(Map<String, List<Derivation>> batch) {
+        LinkedHashMap<String, LinkedHashMap<String, Derivation>> merged = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Derivation>> e : batch.entrySet()) {
+            LinkedHashMap<String, Derivation> words = merged.computeIfAbsent(e.getKey(), k -> new LinkedHashMap<>());
+            for (Derivation d : e.getValue()) words.putIfAbsent(d.getMot(), d);
+        }
+        for (Map.Entry<String, LinkedHashMap<String, Derivation>> e : pending.entrySet()) {
+            LinkedHashMap<String, Derivation> words = merged.computeIfAbsent(e.getKey(), k -> new LinkedHashMap<>());
+            for (Derivation d : e.getValue().values()) words.putIfAbsent(d.getMot(), d);
+        }
+        int n = 0;
+        for (LinkedHashMap<String, Derivation> words : merged.values()) n += words.size();
+        pending = merged;
+        size = n;
+        oldestAt = System.nanoTime();
+    }
+
+    // ================= Spill file =================
+    // One JSON object per line: racine, mot, scheme, createdAt
+    // Returns false if the batch could not be written and synced
+    private boolean spill(Map<String, List<Derivation>> batch) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (Map.Entry<String, List<Derivation>> e : batch.entrySet()) {
+                for (Derivation d : e.getValue()) {
+                    Map<String, String> line = new LinkedHashMap<>();
+                    line.put("racine", e.getKey());
+                    line.put("mot", d.getMot());
+                    line.put("scheme", d.getScheme());
+                    line.put("createdAt", d.getCreatedAt() != null ? d.getCreatedAt().toString() : null);
+                    lines.append(objectMapper.writeValueAsString(line)).append('\n');
+                }
+            }
+            Path dir = spillPath.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(spillPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buf = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buf.hasRemaining()) channel.write(buf);
+                channel.force(false);
+            }
+            spilled.addAndGet(count(batch));
+            return true;
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not spill " + count(batch) + " derivations, kept in memory: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Writes the spill file to MongoDB in batches, then deletes it
+    // Conditional pushes are idempotent: after a failure the whole file is simply replayed again
+    private void replaySpill() {
+        lastAttempt = System.nanoTime();
+        if (!Files.isRegularFile(spillPath)) {
+            mongoDown = false;
+            return;
+        }
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(spillPath, StandardCharsets.UTF_8)) {
+            Map<String, List<Derivation>> batch = new LinkedHashMap<>();
+            int inBatch = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Map<String, String> entry = objectMapper.readValue(line, new TypeReference<Map<String, String>>() {});
+                Derivation d = new Derivation(entry.get("mot"), entry.get("scheme"));
+                if (entry.get("createdAt") != null) d.setCreatedAt(LocalDateTime.parse(entry.get("createdAt")));
+                batch.computeIfAbsent(entry.get("racine"), k -> new ArrayList<>()).add(d);
+                if (++inBatch == batchSize) {
+                    replayBatch(batch);
+                    count += inBatch;
+                    batch = new LinkedHashMap<>();
+                    inBatch = 0;
+                }
+            }
+            replayBatch(batch);
+            count += inBatch;
+        } catch (IOException e) {
+            System.err.println("❌ Unreadable spill file " + spillPath + ", left in place: " + e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            mongoDown = true;
+            return;  // Still unreachable: retried after retry-ms
+        }
+        try {
+            Files.delete(spillPath);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not delete spill file " + spillPath + ": " + e.getMessage());
+        }
+        mongoDown = false;
+        replayed.addAndGet(count);
+        System.out.println("✅ Replayed " + count + " spilled derivations into MongoDB");
+    }
+
+    private void replayBatch(Map<String, List<Derivation>> batch) {
+        if (batch.isEmpty()) return;
+        sink.write(batch);
+        onReplay.accept(batch);
+    }
+
+    private static int count(Map<String, List<Derivation>> batch) {
+        int n = 0;
+        for (List<Derivation> l : batch.values()) n += l.size();
+        return n;
+    }
+
+    // ================= Statistics =================
+    WriteBehindResponse stats() {
+        int depth;
+        int racines;
+        lock.lock();
+        try {
+            depth = size;
+            racines = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        long spillBytes;
+        try {
+            spillBytes = Files.isRegularFile(spillPath) ? Files.size(spillPath) : 0;
+        } catch (IOException e) {
+            spillBytes = -1;
+        }
+        return new WriteBehindResponse(true, capacity, depth, racines, !mongoDown,
+                enqueued.get(), coalesced.get(), written.get(), flushes.get(),
+                flushNanosTotal.get(), lastFlushNanos, maxFlushNanos,
+                waits.get(), rejected.get(), spilled.get(), replayed.get(), spillBytes,
+                spillFailures.get(), lost.get());
+    }
+}
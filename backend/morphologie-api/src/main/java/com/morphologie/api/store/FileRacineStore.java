@@ -0,0 +1,377 @@
+package com.morphologie.api.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.model.Derivation;
+import com.morphologie.api.model.Racine;
+import com.morphologie.api.model.RacineSummary;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// ============= File Racine Store =============
+/**
+ * Racine store in a local append-only log (profile "embedded"), keyed by racine
+ * The sorted index serves existence checks, counts and listing pages without reading
+ * documents; a document read is one positional read of the page cache
+ * Read-modify-write operations (derivations, renames) hold the log's write lock, so
+ * conditional adds keep the same guarantees as the MongoDB $ne filter
+ * An in-memory summary per racine (id, derive count, dates), rebuilt on open and kept up
+ * to date by every write, answers the listing summaries, derive counts and delta sync
+ * without decoding documents; only the racines changed since the sync point are read
+ * New derivations are appended as a MERGE record holding only the added words, checked
+ * against the words each racine already holds (kept in memory), so adding a word neither
+ * reads nor rewrites the document; reads and compaction fold them into it
+ */
+@Repository
+@Profile("embedded")
+public class FileRacineStore implements RacineStore {
+
+    private final LogStore<Racine> log;
+    private final Map<String, String> racineById = new ConcurrentHashMap<>();
+    private final Map<String, RacineSummary> summaries = new ConcurrentHashMap<>();  // Replaced, never mutated
+    private final Map<String, Set<String>> knownMots = new HashMap<>();  // Words of each racine (guarded by log)
+    private final ConcurrentSkipListMap<LocalDateTime, Set<String>> racinesByUpdate = new ConcurrentSkipListMap<>();
+    private volatile long withDerives;  // Racines with at least one derive (guarded by log)
+    private final double compactRatio;
+    private final long compactMinBytes;
+
+    public FileRacineStore(ObjectMapper objectMapper,
+                           @Value("${morphologie.store.path:data/store}") String path,
+                           @Value("${morphologie.store.sync:interval}") String sync,
+                           @Value("${morphologie.store.compact-ratio:0.5}") double compactRatio,
+                           @Value("${morphologie.store.compact-min-bytes:1048576}") long compactMinBytes) throws IOException {
+        this.log = new LogStore<>(Path.of(path, "racines.log"), objectMapper, Racine.class,
+                "always".equalsIgnoreCase(sync), new AddedDerivesMerge());
+        this.compactRatio = compactRatio;
+        this.compactMinBytes = compactMinBytes;
+        log.forEach((racine, doc) -> {
+            racineById.put(doc.getId(), racine);
+            index(racine, doc);
+        });
+        System.out.println("✅ Embedded racine store: " + log.size() + " racines, " + log.fileBytes() + " bytes");
+    }
+
+    // ================= Documents =================
+    @Override
+    public Optional<Racine> findByRacine(String racine) {
+        return Optional.ofNullable(log.get(racine));
+    }
+
+    @Override
+    public boolean existsByRacine(String racine) {
+        return log.contains(racine);
+    }
+
+    @Override
+    public Racine save(Racine racine) {
+        synchronized (log) {
+            if (racine.getId() == null) racine.setId(new ObjectId().toHexString());
+            Racine stored = log.get(racine.getRacine());
+            if (stored != null && !stored.getId().equals(racine.getId())) {
+                throw new DuplicateKeyException("Racine already stored: " + racine.getRacine());
+            }
+            // New key written before the old one is removed: a crash in between leaves a copy, not a loss
+            String previous = racineById.put(racine.getId(), racine.getRacine());
+            log.put(racine.getRacine(), racine);
+            index(racine.getRacine(), racine);
+            if (previous != null && !previous.equals(racine.getRacine())) {
+                log.delete(previous);
+                unindex(previous);
+            }
+            return racine;
+        }
+    }
+
+    @Override
+    public void deleteByRacine(String racine) {
+        synchronized (log) {
+            Racine stored = log.get(racine);
+            if (stored != null) {
+                log.delete(racine);
+                racineById.remove(stored.getId());
+                unindex(racine);
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        return log.size();
+    }
+
+    @Override
+    public Set<String> findExisting(Collection<String> racines) {
+        Set<String> found = new HashSet<>();
+        for (String racine : racines) {
+            if (log.contains(racine)) found.add(racine);
+        }
+        return found;
+    }
+
+    // Only the changed documents are read
+    @Override
+    public List<Racine> findUpdatedAfter(LocalDateTime updatedAt) {
+        List<Racine> changed = new ArrayList<>();
+        for (Set<String> racines : racinesByUpdate.tailMap(updatedAt, false).values()) {
+            for (String racine : racines) {
+                Racine doc = log.get(racine);
+                if (doc != null && doc.getUpdatedAt() != null && doc.getUpdatedAt().isAfter(updatedAt)) changed.add(doc);
+            }
+        }
+        return changed;
+    }
+
+    // ================= Listing =================
+    @Override
+    public Slice<Racine> findSliceAfter(String after, int size) {
+        return slice(after, size, log::get);
+    }
+
+    // From the summary index: no document is read
+    @Override
+    public Slice<RacineSummary> findSummariesAfter(String after, int size) {
+        return slice(after, size, key -> {
+            RacineSummary summary = summaries.get(key);
+            return summary != null ? copy(summary) : null;
+        });
+    }
+
+    // Reads size + 1 keys to know if more follow, like the MongoDB slice
+    private <R> Slice<R> slice(String after, int size, Function<String, R> reader) {
+        List<String> keys = log.keysAfter(after != null ? after : "", size + 1);
+        boolean hasNext = keys.size() > size;
+        List<R> content = new ArrayList<>(Math.min(keys.size(), size));
+        for (String key : hasNext ? keys.subList(0, size) : keys) {
+            R item = reader.apply(key);
+            if (item != null) content.add(item);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    // ================= Writes =================
+    @Override
+    public List<String> insertAll(List<String> racines) {
+        List<String> inserted = new ArrayList<>(racines.size());
+        synchronized (log) {
+            for (String racine : racines) {
+                if (log.contains(racine)) continue;
+                Racine doc = new Racine(racine);
+                doc.setId(new ObjectId().toHexString());
+                log.put(racine, doc);
+                racineById.put(doc.getId(), racine);
+                index(racine, doc);
+                inserted.add(racine);
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public boolean addDerivation(String racine, Derivation derivation) {
+        return addDerivations(Map.of(racine, List.of(derivation))) > 0;
+    }
+
+    // One MERGE record per racine with only its new words: the document is not read
+    @Override
+    public int addDerivations(Map<String, List<Derivation>> derivesByRacine) {
+        int added = 0;
+        synchronized (log) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, List<Derivation>> e : derivesByRacine.entrySet()) {
+                Set<String> known = knownMots.get(e.getKey());
+                if (known == null) continue;  // Racine not stored
+                Map<String, Derivation> fresh = new LinkedHashMap<>();
+                for (Derivation d : e.getValue()) {
+                    if (!known.contains(d.getMot())) fresh.putIfAbsent(d.getMot(), d);
+                }
+                if (fresh.isEmpty()) continue;
+
+                AddedDerives delta = new AddedDerives();
+                delta.setDerives(new ArrayList<>(fresh.values()));
+                delta.setUpdatedAt(now);
+                log.merge(e.getKey(), delta);
+                known.addAll(fresh.keySet());
+
+                RacineSummary summary = copy(summaries.get(e.getKey()));
+                summary.setDeriveCount(summary.getDeriveCount() + fresh.size());
+                summary.setUpdatedAt(now);
+                index(e.getKey(), summary);
+                added += fresh.size();
+            }
+        }
+        return added;
+    }
+
+    // ================= Engine loading =================
+    @Override
+    public void loadDerives(String racine, List<String> mots, List<String> schemes) {
+        Racine doc = log.get(racine);
+        if (doc != null) collect(doc, mots, schemes);
+    }
+
+    @Override
+    public long estimatedCount() {
+        return log.size();
+    }
+
+    // Keys only: no document is read
+    @Override
+    public void forEachName(Consumer<String> action) {
+        log.forEachKey(action);
+    }
+
+    @Override
+    public long countWithDerives() {
+        return withDerives;
+    }
+
+    @Override
+    public void forEachDerives(DerivesConsumer action) {
+        log.forEach((racine, doc) -> {
+            if (doc.getDerives() == null || doc.getDerives().isEmpty()) return;
+            List<String> mots = new ArrayList<>(doc.getDerives().size());
+            List<String> schemes = new ArrayList<>(doc.getDerives().size());
+            collect(doc, mots, schemes);
+            action.accept(racine, mots, schemes);
+        });
+    }
+
+    // ================= Summary index (callers hold the log lock) =================
+    private void index(String racine, Racine doc) {
+        Set<String> mots = new HashSet<>();
+        if (doc.getDerives() != null) doc.getDerives().forEach(d -> mots.add(d.getMot()));
+        knownMots.put(racine, mots);
+
+        RacineSummary summary = new RacineSummary();
+        summary.setId(doc.getId());
+        summary.setRacine(racine);
+        summary.setDeriveCount(doc.getDerives() != null ? doc.getDerives().size() : 0);
+        summary.setCreatedAt(doc.getCreatedAt());
+        summary.setUpdatedAt(doc.getUpdatedAt());
+        index(racine, summary);
+    }
+
+    private void index(String racine, RacineSummary summary) {
+        RacineSummary old = summaries.put(racine, summary);
+        forget(racine, old);
+        if (summary.getDeriveCount() > 0) withDerives++;
+        if (summary.getUpdatedAt() != null) {
+            racinesByUpdate.computeIfAbsent(summary.getUpdatedAt(), t -> ConcurrentHashMap.newKeySet()).add(racine);
+        }
+    }
+
+    private void unindex(String racine) {
+        knownMots.remove(racine);
+        forget(racine, summaries.remove(racine));
+    }
+
+    private void forget(String racine, RacineSummary old) {
+        if (old == null) return;
+        if (old.getDeriveCount() > 0) withDerives--;
+        if (old.getUpdatedAt() == null) return;
+        Set<String> racines = racinesByUpdate.get(old.getUpdatedAt());
+        if (racines != null && racines.remove(racine) && racines.isEmpty()) {
+            racinesByUpdate.remove(old.getUpdatedAt());
+        }
+    }
+
+    private static RacineSummary copy(RacineSummary summary) {
+        RacineSummary c = new RacineSummary();
+        c.setId(summary.getId());
+        c.setRacine(summary.getRacine());
+        c.setDeriveCount(summary.getDeriveCount());
+        c.setCreatedAt(summary.getCreatedAt());
+        c.setUpdatedAt(summary.getUpdatedAt());
+        return c;
+    }
+
+    private static void collect(Racine doc, List<String> mots, List<String> schemes) {
+        if (doc.getDerives() == null) return;
+        for (Derivation d : doc.getDerives()) {
+            if (d.getMot() == null) continue;
+            mots.add(d.getMot());
+            schemes.add(d.getScheme() != null ? d.getScheme() : "");
+        }
+    }
+
+    // ================= Merge records =================
+    /**
+     * Derivations appended to a racine by one addDerivations call
+     */
+    static final class AddedDerives {
+        private List<Derivation> derives;
+        private LocalDateTime updatedAt;
+
+        public List<Derivation> getDerives() {
+            return derives;
+        }
+
+        public void setDerives(List<Derivation> derives) {
+            this.derives = derives;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class AddedDerivesMerge implements LogStore.Merge<Racine, AddedDerives> {
+        @Override
+        public Class<AddedDerives> deltaType() {
+            return AddedDerives.class;
+        }
+
+        @Override
+        public Racine apply(Racine doc, AddedDerives delta) {
+            List<Derivation> derives = doc.getDerives() != null ? new ArrayList<>(doc.getDerives()) : new ArrayList<>();
+            derives.addAll(delta.getDerives());
+            doc.setDerives(derives);
+            doc.setUpdatedAt(delta.getUpdatedAt());
+            return doc;
+        }
+    }
+
+    // ================= Maintenance =================
+    @Scheduled(fixedDelayString = "${morphologie.store.sync-interval-ms:100}")
+    public void sync() {
+        log.sync();
+    }
+
+    @Scheduled(initialDelayString = "${morphologie.store.compact-check-ms:60000}",
+               fixedDelayString = "${morphologie.store.compact-check-ms:60000}")
+    public void compact() {
+        log.compactIfNeeded(compactRatio, compactMinBytes);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        log.close();
+    }
+}
@@ -0,0 +1,154 @@
+package com.morphologie.api.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.model.SchemeModel;
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.RegistreSchemes;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ============= File Scheme Store =============
+/**
+ * Scheme store in a local append-only log (profile "embedded"), keyed by id (so a rename
+ * is one record), with a name -> id index in memory
+ * A new store starts with the engine's base schemes, as the MongoDB collection does
+ */
+@Repository
+@Profile("embedded")
+public class FileSchemeStore implements SchemeStore {
+
+    private final LogStore<SchemeModel> log;
+    private final Map<String, String> idByNom = new ConcurrentHashMap<>();
+    private final double compactRatio;
+    private final long compactMinBytes;
+
+    public FileSchemeStore(ObjectMapper objectMapper,
+                           Morphologie engine,
+                           @Value("${morphologie.store.path:data/store}") String path,
+                           @Value("${morphologie.store.sync:interval}") String sync,
+                           @Value("${morphologie.store.compact-ratio:0.5}") double compactRatio,
+                           @Value("${morphologie.store.compact-min-bytes:1048576}") long compactMinBytes) throws IOException {
+        this.log = new LogStore<>(Path.of(path, "schemes.log"), objectMapper, SchemeModel.class,
+                "always".equalsIgnoreCase(sync));
+        this.compactRatio = compactRatio;
+        this.compactMinBytes = compactMinBytes;
+        log.forEach((id, scheme) -> idByNom.put(scheme.getNom(), id));
+        if (log.size() == 0) {
+            seed(engine.getRegistreSchemes());
+        }
+    }
+
+    // Base (non-dynamic) schemes of the engine, typed NORMAL
+    private void seed(RegistreSchemes registre) {
+        for (String nom : registre.noms()) {
+            if (!registre.get(nom).estDynamique()) {
+                save(new SchemeModel(nom, nom, false, "NORMAL"));
+            }
+        }
+        System.out.println("✅ Embedded scheme store seeded with " + log.size() + " base schemes");
+    }
+
+    // Ids are ObjectIds: key order is creation order
+    @Override
+    public List<SchemeModel> findAll() {
+        List<SchemeModel> all = new ArrayList<>(log.size());
+        log.forEach((id, scheme) -> all.add(scheme));
+        return all;
+    }
+
+    @Override
+    public Optional<SchemeModel> findByNom(String nom) {
+        String id = idByNom.get(nom);
+        return id == null ? Optional.empty() : Optional.ofNullable(log.get(id));
+    }
+
+    @Override
+    public boolean existsByNom(String nom) {
+        return idByNom.containsKey(nom);
+    }
+
+    @Override
+    public SchemeModel save(SchemeModel scheme) {
+        synchronized (log) {
+            if (scheme.getId() == null) scheme.setId(new ObjectId().toHexString());
+            String other = idByNom.get(scheme.getNom());
+            if (other != null && !other.equals(scheme.getId())) {
+                throw new DuplicateKeyException("Scheme already stored: " + scheme.getNom());
+            }
+            SchemeModel previous = log.get(scheme.getId());
+            log.put(scheme.getId(), scheme);
+            if (previous != null && !previous.getNom().equals(scheme.getNom())) {
+                idByNom.remove(previous.getNom());
+            }
+            idByNom.put(scheme.getNom(), scheme.getId());
+            return scheme;
+        }
+    }
+
+    @Override
+    public void deleteByNom(String nom) {
+        synchronized (log) {
+            String id = idByNom.remove(nom);
+            if (id != null) log.delete(id);
+        }
+    }
+
+    // One record per scheme: a failed append leaves it and the schemes after it unapplied
+    @Override
+    public Set<String> incrementUsage(Map<String, Long> counts) {
+        Set<String> notApplied = new HashSet<>();
+        synchronized (log) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, Long> e : counts.entrySet()) {
+                if (!notApplied.isEmpty()) {
+                    notApplied.add(e.getKey());
+                    continue;
+                }
+                String id = idByNom.get(e.getKey());
+                SchemeModel scheme = id == null ? null : log.get(id);
+                if (scheme == null) continue;
+                scheme.setUsageCount(scheme.getUsageCount() + e.getValue().intValue());
+                scheme.setUpdatedAt(now);
+                try {
+                    log.put(id, scheme);
+                } catch (RuntimeException ex) {
+                    System.err.println("⚠️ Could not write usage count of " + e.getKey() + ": " + ex.getMessage());
+                    notApplied.add(e.getKey());
+                }
+            }
+        }
+        return notApplied;
+    }
+
+    // ================= Maintenance =================
+    @Scheduled(fixedDelayString = "${morphologie.store.sync-interval-ms:100}")
+    public void sync() {
+        log.sync();
+    }
+
+    @Scheduled(initialDelayString = "${morphologie.store.compact-check-ms:60000}",
+               fixedDelayString = "${morphologie.store.compact-check-ms:60000}")
+    public void compact() {
+        log.compactIfNeeded(compactRatio, compactMinBytes);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        log.close();
+    }
+}
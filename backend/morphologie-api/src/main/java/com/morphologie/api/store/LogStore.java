@@ -0,0 +1,503 @@
+package com.morphologie.api.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// ============= Log Store =============
+/**
+ * Append-only log of JSON documents with an in-memory index (embedded persistence)
+ * - every write appends one record, nothing is rewritten in place:
+ *   [body length][CRC32 of body] then body = [op PUT/DELETE/MERGE][key length][key][JSON]
+ * - MERGE records hold a small delta (e.g. the words added to a racine) instead of the whole
+ *   document; a read applies them, in order, to the last PUT with the store's Merge
+ * - the index maps each live key, in sorted order, to its last record, linked back to the
+ *   PUT; a read is one positional read per record plus JSON parsing, without lock
+ * - past MAX_DELTAS merges the merged document is written again as one PUT, which bounds
+ *   the cost of a read; compaction folds every chain the same way
+ * - open replays the log to rebuild the index; a damaged last record (crash during an
+ *   append) is cut off, a damaged record anywhere else stops the open: damage counts as
+ *   the tail only when no well-formed record starts anywhere after it
+ * - compaction copies the live records into a new file that atomically replaces the log
+ *   (file and directory fsynced before the switch); readers switch to it with the new index, in one volatile write
+ * - durability: fsync after every write (syncAlways), or by sync() for every write since
+ *   the previous one
+ * Writes are synchronized on the store; callers synchronize on it for read-modify-write
+ */
+final class LogStore<T> implements Closeable {
+
+    /**
+     * How a MERGE delta, read back as deltaType, changes the document it follows
+     * apply may change and return the document it is given
+     */
+    interface Merge<T, D> {
+        Class<D> deltaType();
+
+        T apply(T document, D delta);
+    }
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte MERGE = 3;
+    private static final int MAX_DELTAS = 64;             // Merges before the document is rewritten
+    private static final int HEADER = 8;                  // Body length + CRC
+    private static final int MAX_BODY = 64 * 1024 * 1024;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final boolean syncAlways;
+    private final Merge<T, ?> merge;  // null: MERGE records are refused
+
+    private volatile State state;  // Channel and index, replaced together by compaction
+    private long end;              // Append position (guarded by this)
+    private long deadBytes;        // Overwritten or deleted records, and tombstones
+    private boolean dirty;         // Written since the last fsync
+    private volatile boolean closed;
+
+    LogStore(Path path, ObjectMapper objectMapper, Class<T> type, boolean syncAlways) throws IOException {
+        this(path, objectMapper, type, syncAlways, null);
+    }
+
+    LogStore(Path path, ObjectMapper objectMapper, Class<T> type, boolean syncAlways, Merge<T, ?> merge) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.syncAlways = syncAlways;
+        this.merge = merge;
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Files.deleteIfExists(compactPath());  // Compaction interrupted by a crash: the log is intact
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ConcurrentSkipListMap<String, Location> index = new ConcurrentSkipListMap<>();
+        try {
+            replay(channel, index);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.state = new State(channel, index);
+    }
+
+    // ================= Reads (no lock) =================
+    T get(String key) {
+        while (true) {
+            State s = state;
+            Location loc = s.index.get(key);
+            if (loc == null) return null;
+            try {
+                return read(s.channel, loc);
+            } catch (ClosedChannelException e) {
+                recover(s, e);  // Compacted meanwhile (or closed by an interrupt): read again
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    boolean contains(String key) {
+        return state.index.containsKey(key);
+    }
+
+    int size() {
+        return state.index.size();
+    }
+
+    /**
+     * Up to limit keys strictly after the given one, in order
+     */
+    List<String> keysAfter(String after, int limit) {
+        List<String> keys = new ArrayList<>(Math.min(limit, 1024));
+        for (String key : state.index.tailMap(after, false).keySet()) {
+            if (keys.size() == limit) break;
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    void forEachKey(Consumer<String> action) {
+        state.index.keySet().forEach(action);
+    }
+
+    /**
+     * Every live document, in key order (documents deleted during the scan are skipped)
+     */
+    void forEach(BiConsumer<String, T> action) {
+        for (String key : state.index.keySet()) {
+            T value = get(key);
+            if (value != null) action.accept(key, value);
+        }
+    }
+
+    long fileBytes() {
+        return end;
+    }
+
+    // ================= Writes =================
+    synchronized void put(String key, T value) {
+        Location loc = append(PUT, key, toJson(value), null);
+        Location old = state.index.put(key, loc);
+        if (old != null) deadBytes += old.chainLength;
+    }
+
+    synchronized boolean delete(String key) {
+        if (!state.index.containsKey(key)) return false;
+        Location tombstone = append(DELETE, key, new byte[0], null);
+        Location old = state.index.remove(key);
+        deadBytes += old.chainLength + tombstone.length;
+        return true;
+    }
+
+    /**
+     * Append a delta (an instance of the Merge's deltaType) to a stored document; false when
+     * the key is not stored. Past MAX_DELTAS, the merged document is written as one PUT
+     */
+    synchronized boolean merge(String key, Object delta) {
+        if (merge == null) throw new IllegalStateException("No merge for " + path);
+        Location previous = state.index.get(key);
+        if (previous == null) return false;
+        if (previous.deltas >= MAX_DELTAS) {
+            T document = get(key);
+            try {
+                document = applyDelta(merge, document, toJson(delta));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            put(key, document);
+            return true;
+        }
+        state.index.put(key, append(MERGE, key, toJson(delta), previous));
+        return true;
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Location append(byte op, String key, byte[] json, Location previous) {
+        if (closed) throw new IllegalStateException("Store closed: " + path);
+        ByteBuffer buf = encode(op, key, json);
+
+        long offset = end;
+        while (true) {
+            State s = state;
+            try {
+                writeFully(s.channel, buf, offset);
+                if (syncAlways) s.channel.force(false); else dirty = true;
+                break;
+            } catch (ClosedChannelException e) {
+                recover(s, e);
+                buf.position(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        end = offset + buf.capacity();
+        return new Location(offset, buf.capacity(), previous);
+    }
+
+    private static ByteBuffer encode(byte op, String key, byte[] json) {
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 3 + k.length + json.length;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + bodyLength);
+        buf.position(HEADER);
+        buf.put(op).putShort((short) k.length).put(k).put(json);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), HEADER, bodyLength);
+        buf.putInt(0, bodyLength).putInt(4, (int) crc.getValue());
+        buf.position(0);
+        return buf;
+    }
+
+    /**
+     * fsync every write since the previous call
+     */
+    synchronized void sync() {
+        if (!dirty || closed) return;
+        try {
+            state.channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not sync " + path + ": " + e.getMessage());
+        }
+    }
+
+    // ================= Compaction =================
+    /**
+     * Compact when dead records are at least ratio of a log of at least minBytes
+     * Writes wait while the live records are copied; documents with merges are written
+     * merged, as one PUT
+     */
+    synchronized boolean compactIfNeeded(double ratio, long minBytes) {
+        if (closed || end < minBytes || deadBytes < ratio * end) return false;
+        long before = end;
+        long start = System.currentTimeMillis();
+        try {
+            compact();
+        } catch (IOException e) {
+            System.err.println("⚠️ Compaction of " + path + " failed, log kept: " + e.getMessage());
+            return false;
+        }
+        System.out.println("✅ Compacted " + path.getFileName() + ": " + before + " -> " + end
+                + " bytes in " + (System.currentTimeMillis() - start) + " ms");
+        return true;
+    }
+
+    private void compact() throws IOException {
+        State old = state;
+        Path tmp = compactPath();
+        FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ConcurrentSkipListMap<String, Location> index = new ConcurrentSkipListMap<>();
+        long position = 0;
+        try {
+            for (Map.Entry<String, Location> e : old.index.entrySet()) {
+                ByteBuffer record = e.getValue().previous == null
+                        ? readRecord(old.channel, e.getValue())
+                        : encode(PUT, e.getKey(), toJson(read(old.channel, e.getValue())));
+                record.position(0);
+                writeFully(out, record, position);
+                index.put(e.getKey(), new Location(position, record.capacity(), null));
+                position += record.capacity();
+            }
+            out.force(true);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        state = new State(out, index);
+        end = position;
+        deadBytes = 0;
+        dirty = false;
+        old.channel.close();
+    }
+
+    // fsync the directory so that the rename itself survives a crash: otherwise the old log
+    // can come back at the next open, with the writes made since the compaction lost
+    // Some platforms (Windows) cannot open a directory: the rename is then as durable as the
+    // filesystem makes it
+    private void syncDirectory() {
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir == null) return;
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not sync directory " + dir + " after compaction: " + e.getMessage());
+        }
+    }
+
+    private Path compactPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        sync();
+        closed = true;
+        state.channel.close();
+    }
+
+    // ================= Records =================
+    // Rebuild the index from the log; cut a damaged tail, fail on damage before valid records
+    private void replay(FileChannel channel, ConcurrentSkipListMap<String, Location> index) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (position < size) {
+            String damage = null;
+            int recordLength = 0;
+            ByteBuffer body = null;
+            if (size - position < HEADER) {
+                damage = "truncated header";
+            } else {
+                header.clear();
+                readFully(channel, header, position);
+                int bodyLength = header.getInt(0);
+                if (bodyLength < 3 || bodyLength > MAX_BODY) {
+                    damage = "bad length " + bodyLength;
+                } else if (position + HEADER + bodyLength > size) {
+                    damage = "truncated body";
+                } else {
+                    recordLength = HEADER + bodyLength;
+                    body = ByteBuffer.allocate(bodyLength);
+                    readFully(channel, body, position + HEADER);
+                    CRC32 crc = new CRC32();
+                    crc.update(body.array());
+                    if ((int) crc.getValue() != header.getInt(4)) damage = "bad checksum";
+                }
+            }
+            if (damage != null) {
+                // A length field can be damaged too: the records after it are found by scanning
+                long next = nextRecord(channel, position + 1, size);
+                if (next >= 0) {
+                    throw new IOException("Corrupt record (" + damage + ") at offset " + position + " of " + path
+                            + ", followed by a valid record at offset " + next);
+                }
+                System.err.println("⚠️ Cut damaged last record (" + damage + ") at offset " + position + " of " + path);
+                channel.truncate(position);
+                channel.force(true);
+                break;
+            }
+
+            byte op = body.get(0);
+            int keyLength = body.getShort(1) & 0xFFFF;
+            String key = new String(body.array(), 3, keyLength, StandardCharsets.UTF_8);
+            if (op == MERGE) {
+                if (merge == null) throw new IOException("Merge record at offset " + position + " of " + path + " without a merge");
+                Location previous = index.get(key);
+                if (previous != null) {
+                    index.put(key, new Location(position, recordLength, previous));
+                } else {
+                    deadBytes += recordLength;  // Follows no document
+                }
+            } else {
+                Location old = op == PUT ? index.put(key, new Location(position, recordLength, null)) : index.remove(key);
+                if (old != null) deadBytes += old.chainLength;
+                if (op == DELETE) deadBytes += recordLength;
+            }
+            position += recordLength;
+        }
+        end = position;
+    }
+
+    // Offset of the first well-formed record starting at or after from, -1 if there is none
+    // Only called on damage, so the byte-by-byte scan costs nothing on a clean open
+    private static long nextRecord(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        for (long p = from; p + HEADER + 3 <= size; p++) {
+            header.clear();
+            readFully(channel, header, p);
+            int bodyLength = header.getInt(0);
+            if (bodyLength < 3 || bodyLength > MAX_BODY || p + HEADER + bodyLength > size) continue;
+            ByteBuffer body = ByteBuffer.allocate(bodyLength);
+            readFully(channel, body, p + HEADER);
+            byte op = body.get(0);
+            if ((op != PUT && op != DELETE && op != MERGE) || 3 + (body.getShort(1) & 0xFFFF) > bodyLength) continue;
+            CRC32 crc = new CRC32();
+            crc.update(body.array());
+            if ((int) crc.getValue() == header.getInt(4)) return p;
+        }
+        return -1;
+    }
+
+    private static ByteBuffer readRecord(FileChannel channel, Location loc) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(loc.length);
+        readFully(channel, record, loc.offset);
+        return record;
+    }
+
+    // The PUT of a key, then its merges in the order they were written
+    private T read(FileChannel channel, Location loc) throws IOException {
+        if (loc.previous == null) return decode(readRecord(channel, loc));
+        Location[] chain = new Location[loc.deltas + 1];
+        for (Location l = loc; l != null; l = l.previous) chain[l.deltas] = l;
+        T document = decode(readRecord(channel, chain[0]));
+        for (int i = 1; i < chain.length; i++) {
+            ByteBuffer record = readRecord(channel, chain[i]);
+            int from = jsonOffset(record);
+            document = applyDelta(merge, document, Arrays.copyOfRange(record.array(), from, record.capacity()));
+        }
+        return document;
+    }
+
+    private <D> T applyDelta(Merge<T, D> m, T document, byte[] json) throws IOException {
+        return m.apply(document, objectMapper.readValue(json, m.deltaType()));
+    }
+
+    private T decode(ByteBuffer record) throws IOException {
+        byte[] bytes = record.array();
+        int from = jsonOffset(record);
+        return objectMapper.readValue(bytes, from, bytes.length - from, type);
+    }
+
+    private static int jsonOffset(ByteBuffer record) {
+        return HEADER + 3 + (record.getShort(HEADER + 1) & 0xFFFF);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position + buf.position());
+            if (n < 0) throw new EOFException();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf, position + buf.position());
+        }
+    }
+
+    // A channel closed under a reader or writer: by compaction (state already replaced),
+    // or by the interrupt of another thread (reopened here); the interrupted thread itself fails
+    private void recover(State seen, ClosedChannelException e) {
+        if (e instanceof ClosedByInterruptException) {
+            reopen(seen);
+            throw new UncheckedIOException("Interrupted while accessing " + path, e);
+        }
+        if (closed) throw new IllegalStateException("Store closed: " + path);
+        if (state == seen) reopen(seen);
+    }
+
+    private synchronized void reopen(State seen) {
+        if (closed || state != seen || seen.channel.isOpen()) return;
+        try {
+            state = new State(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE), seen.index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class State {
+        final FileChannel channel;
+        final ConcurrentSkipListMap<String, Location> index;
+
+        State(FileChannel channel, ConcurrentSkipListMap<String, Location> index) {
+            this.channel = channel;
+            this.index = index;
+        }
+    }
+
+    private static final class Location {
+        final long offset;  // Start of the record (header included)
+        final int length;
+        final Location previous;  // Record this MERGE applies to, null for a PUT
+        final int deltas;         // MERGE records from the PUT to this one
+        final long chainLength;   // Bytes of the PUT and its merges
+
+        Location(long offset, int length, Location previous) {
+            this.offset = offset;
+            this.length = length;
+            this.previous = previous;
+            this.deltas = previous == null ? 0 : previous.deltas + 1;
+            this.chainLength = previous == null ? length : previous.chainLength + length;
+        }
+    }
+}
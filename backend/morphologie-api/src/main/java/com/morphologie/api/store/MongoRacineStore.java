@@ -0,0 +1,279 @@
+package com.morphologie.api.store;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.morphologie.api.model.Derivation;
+import com.morphologie.api.model.Racine;
+import com.morphologie.api.model.RacineSummary;
+import com.morphologie.api.repository.RacineRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// ============= Mongo Racine Store =============
+/**
+ * Racine store on MongoDB (default profile): RacineRepository queries, plus MongoTemplate
+ * for bulk writes and cursor scans
+ * - derivations are added in place, without reading the document: one word is a $push
+ *   whose filter requires the word to be absent (derives.mot $ne); several words for a
+ *   racine are one pipeline update that appends only those it does not hold yet, so they
+ *   are stored all together or not at all, and concurrent writers never overwrite each other
+ * - engine loading reads raw BSON through cursors (no entity mapping, no LocalDateTime)
+ */
+@Repository
+@Profile("!embedded")
+public class MongoRacineStore implements RacineStore {
+
+    private static final String COLLECTION = "racines";
+    private static final int DUPLICATE_KEY = 11000;  // MongoDB error code
+
+    private final RacineRepository racineRepository;
+    private final MongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
+
+    public MongoRacineStore(RacineRepository racineRepository,
+                            MongoTemplate mongoTemplate,
+                            @Value("${morphologie.hydration.batch-size:2000}") int cursorBatchSize) {
+        this.racineRepository = racineRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    // ================= Documents =================
+    @Override
+    public Optional<Racine> findByRacine(String racine) {
+        return racineRepository.findByRacine(racine);
+    }
+
+    @Override
+    public boolean existsByRacine(String racine) {
+        return racineRepository.existsByRacine(racine);
+    }
+
+    @Override
+    public Racine save(Racine racine) {
+        return racineRepository.save(racine);
+    }
+
+    @Override
+    public void deleteByRacine(String racine) {
+        racineRepository.deleteByRacine(racine);
+    }
+
+    @Override
+    public long count() {
+        return racineRepository.count();
+    }
+
+    @Override
+    public Set<String> findExisting(Collection<String> racines) {
+        Set<String> found = new HashSet<>();
+        for (Racine r : racineRepository.findNamesByRacineIn(racines)) {
+            found.add(r.getRacine());
+        }
+        return found;
+    }
+
+    @Override
+    public List<Racine> findUpdatedAfter(LocalDateTime updatedAt) {
+        return racineRepository.findByUpdatedAtAfter(updatedAt);
+    }
+
+    // ================= Listing =================
+    @Override
+    public Slice<Racine> findSliceAfter(String after, int size) {
+        return racineRepository.findSliceAfter(after, PageRequest.of(0, size));
+    }
+
+    @Override
+    public Slice<RacineSummary> findSummariesAfter(String after, int size) {
+        return racineRepository.findSummariesAfter(after, PageRequest.of(0, size));
+    }
+
+    // ================= Writes =================
+    // One unordered bulk insert; duplicate keys are racines already stored
+    @Override
+    public List<String> insertAll(List<String> racines) {
+        if (racines.isEmpty()) return List.of();
+        List<Racine> documents = new ArrayList<>(racines.size());
+        racines.forEach(r -> documents.add(new Racine(r)));
+        
+        Set<Integer> failed = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Racine.class)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) throw e;
+                failed.add(error.getIndex());
+            }
+        }
+        
+        List<String> inserted = new ArrayList<>(racines.size() - failed.size());
+        for (int i = 0; i < racines.size(); i++) {
+            if (!failed.contains(i)) inserted.add(racines.get(i));
+        }
+        return inserted;
+    }
+
+    @Override
+    public boolean addDerivation(String racine, Derivation derivation) {
+        return mongoTemplate.updateFirst(absent(racine, derivation.getMot()), push(derivation), Racine.class)
+                .getModifiedCount() > 0;
+    }
+
+    // One atomic update per racine
+    @Override
+    public int addDerivations(Map<String, List<Derivation>> derivesByRacine) {
+        int added = 0;
+        for (Map.Entry<String, List<Derivation>> e : derivesByRacine.entrySet()) {
+            if (!e.getValue().isEmpty()) added += append(e.getKey(), e.getValue());
+        }
+        return added;
+    }
+
+    // Pipeline update: derives += the derivations whose word is not in derives.mot yet, and
+    // updatedAt only if there was one; the projection of the document before the update
+    // returns how many were appended
+    private int append(String racine, List<Derivation> derives) {
+        Map<String, Document> byMot = new LinkedHashMap<>();
+        for (Derivation d : derives) {
+            if (d.getMot() != null) byMot.putIfAbsent(d.getMot(), toDocument(d));
+        }
+        if (byMot.isEmpty()) return 0;
+        List<String> mots = new ArrayList<>(byMot.keySet());
+        Document held = new Document("$ifNull", List.of("$derives.mot", List.of()));
+        Document fresh = new Document("$filter", new Document("input", literal(new ArrayList<>(byMot.values())))
+                .append("as", "d")
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$d.mot", held))))));
+        Document set = new Document("derives", new Document("$concatArrays",
+                        List.of(new Document("$ifNull", List.of("$derives", List.of())), fresh)))
+                .append("updatedAt", new Document("$cond", List.of(
+                        new Document("$setIsSubset", List.of(literal(mots), held)),
+                        "$updatedAt", toDate(LocalDateTime.now()))));
+        Document count = new Document("_id", 0).append("added",
+                new Document("$size", new Document("$setDifference", List.of(literal(mots), held))));
+
+        Document before = mongoTemplate.getCollection(COLLECTION).findOneAndUpdate(
+                Filters.eq("racine", racine), List.of(new Document("$set", set)),
+                new FindOneAndUpdateOptions().projection(count).returnDocument(ReturnDocument.BEFORE));
+        return before != null ? before.getInteger("added", 0) : 0;
+    }
+
+    // Constant in an aggregation expression (a word starting with $ is not a field path)
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    // Same fields and date conversion as the mapped Derivation
+    private static Document toDocument(Derivation d) {
+        return new Document("mot", d.getMot())
+                .append("scheme", d.getScheme())
+                .append("createdAt", d.getCreatedAt() != null ? toDate(d.getCreatedAt()) : null);
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // The racine, only while it does not hold the word yet
+    private static Query absent(String racine, String mot) {
+        return Query.query(Criteria.where("racine").is(racine).and("derives.mot").ne(mot));
+    }
+
+    // Stored updatedAt is the write time; the derivation keeps the time it was produced
+    private static Update push(Derivation d) {
+        return new Update().push("derives", d).set("updatedAt", LocalDateTime.now());
+    }
+
+    // ================= Engine loading =================
+    // Projected query: racine and derives.mot / derives.scheme only
+    @Override
+    public void loadDerives(String racine, List<String> mots, List<String> schemes) {
+        racineRepository.findDerivesByRacine(racine).ifPresent(r -> {
+            if (r.getDerives() == null) return;
+            for (Derivation d : r.getDerives()) {
+                if (d.getMot() == null) continue;
+                mots.add(d.getMot());
+                schemes.add(d.getScheme() != null ? d.getScheme() : "");
+            }
+        });
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount();
+    }
+
+    // Racine field only, sorted on the unique index
+    @Override
+    public void forEachName(Consumer<String> action) {
+        Query query = new Query().with(Sort.by("racine")).cursorBatchSize(cursorBatchSize);
+        query.fields().include("racine").exclude("_id");
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, COLLECTION)) {
+            Iterator<Document> it = stream.iterator();
+            while (it.hasNext()) {
+                String racine = it.next().getString("racine");
+                if (racine != null) action.accept(racine);
+            }
+        }
+    }
+
+    @Override
+    public long countWithDerives() {
+        return mongoTemplate.count(withDerives(), COLLECTION);
+    }
+
+    @Override
+    public void forEachDerives(DerivesConsumer action) {
+        Query query = withDerives().cursorBatchSize(cursorBatchSize);
+        query.fields().include("racine").include("derives.mot").include("derives.scheme").exclude("_id");
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, COLLECTION)) {
+            Iterator<Document> it = stream.iterator();
+            while (it.hasNext()) {
+                Document doc = it.next();
+                List<Document> derives = doc.getList("derives", Document.class);
+                if (derives == null) continue;
+                List<String> mots = new ArrayList<>(derives.size());
+                List<String> schemes = new ArrayList<>(derives.size());
+                for (Document d : derives) {
+                    if (d.getString("mot") == null) continue;
+                    mots.add(d.getString("mot"));
+                    schemes.add(d.getString("scheme") != null ? d.getString("scheme") : "");
+                }
+                action.accept(doc.getString("racine"), mots, schemes);
+            }
+        }
+    }
+
+    private static Query withDerives() {
+        return Query.query(Criteria.where("derives.0").exists(true));
+    }
+}
@@ -0,0 +1,100 @@
+package com.morphologie.api.store;
+
+import com.mongodb.MongoSocketOpenException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
+import com.morphologie.api.model.SchemeModel;
+import com.morphologie.api.repository.SchemeRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// ============= Mongo Scheme Store =============
+/**
+ * Scheme store on MongoDB (default profile): SchemeRepository queries, plus one bulk of
+ * $inc updates for usage counts
+ */
+@Repository
+@Profile("!embedded")
+public class MongoSchemeStore implements SchemeStore {
+
+    private final SchemeRepository schemeRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public MongoSchemeStore(SchemeRepository schemeRepository, MongoTemplate mongoTemplate) {
+        this.schemeRepository = schemeRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<SchemeModel> findAll() {
+        return schemeRepository.findAll();
+    }
+
+    @Override
+    public Optional<SchemeModel> findByNom(String nom) {
+        return schemeRepository.findByNom(nom);
+    }
+
+    @Override
+    public boolean existsByNom(String nom) {
+        return schemeRepository.existsByNom(nom);
+    }
+
+    @Override
+    public SchemeModel save(SchemeModel scheme) {
+        return schemeRepository.save(scheme);
+    }
+
+    @Override
+    public void deleteByNom(String nom) {
+        schemeRepository.deleteByNom(nom);
+    }
+
+    // Failed operations of the bulk are reported by index; a server that could not be reached
+    // received nothing; any other error leaves the outcome unknown and is rethrown
+    @Override
+    public Set<String> incrementUsage(Map<String, Long> counts) {
+        if (counts.isEmpty()) return Set.of();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SchemeModel.class);
+        List<String> names = new ArrayList<>(counts.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        for (String scheme : names) {
+            bulk.updateOne(Query.query(Criteria.where("nom").is(scheme)),
+                    new Update().inc("usageCount", counts.get(scheme)).set("updatedAt", now));
+        }
+        try {
+            bulk.execute();
+            return Set.of();
+        } catch (BulkOperationException e) {
+            Set<String> failed = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(names.get(error.getIndex()));
+            }
+            return failed;
+        } catch (RuntimeException e) {
+            if (notSent(e)) return new HashSet<>(names);
+            throw e;
+        }
+    }
+
+    // No server selected or no connection opened: the bulk never left this process
+    private static boolean notSent(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MongoTimeoutException || t instanceof MongoSocketOpenException) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package com.morphologie.api.store;
+
+import com.morphologie.api.model.Derivation;
+import com.morphologie.api.model.Racine;
+import com.morphologie.api.model.RacineSummary;
+import org.springframework.data.domain.Slice;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// ============= Racine Store =============
+/**
+ * Persistence of racine documents, behind every service that reads or writes them
+ * Implementations: MongoRacineStore (default) and FileRacineStore (profile "embedded")
+ * Racines are unique: save throws DuplicateKeyException for a racine stored under another id
+ */
+public interface RacineStore {
+
+    /**
+     * Receives the derivations of one racine as parallel lists (engine node layout)
+     */
+    @FunctionalInterface
+    interface DerivesConsumer {
+        void accept(String racine, List<String> mots, List<String> schemes);
+    }
+
+    // ================= Documents =================
+    Optional<Racine> findByRacine(String racine);
+
+    boolean existsByRacine(String racine);
+
+    /**
+     * Insert, or replace the document with the same id (which may carry a new racine)
+     */
+    Racine save(Racine racine);
+
+    void deleteByRacine(String racine);
+
+    long count();
+
+    /**
+     * Which of several racines are stored (batch endpoints)
+     */
+    Set<String> findExisting(Collection<String> racines);
+
+    /**
+     * Racines created or changed after a point in time (delta sync from the engine snapshot)
+     */
+    List<Racine> findUpdatedAfter(LocalDateTime updatedAt);
+
+    // ================= Listing (keyset pagination, in racine order) =================
+    /**
+     * Up to size racines after the given one ("" for the first page), with derives
+     */
+    Slice<Racine> findSliceAfter(String after, int size);
+
+    /**
+     * Same range without derives, only their count
+     */
+    Slice<RacineSummary> findSummariesAfter(String after, int size);
+
+    // ================= Writes =================
+    /**
+     * Insert new racines; returns those actually inserted (the others were already stored)
+     */
+    List<String> insertAll(List<String> racines);
+
+    /**
+     * Add a derivation unless the racine already holds the word; false when nothing was
+     * written (word already there, or unknown racine)
+     */
+    boolean addDerivation(String racine, Derivation derivation);
+
+    /**
+     * Same for many derivations at once; returns the number written
+     * The derivations of one racine are stored all together or not at all
+     * Throws when the store is unreachable (write-behind then spills the batch)
+     */
+    int addDerivations(Map<String, List<Derivation>> derivesByRacine);
+
+    // ================= Engine loading =================
+    /**
+     * Derivations of one racine (lazy loading); nothing when it has none or does not exist
+     */
+    void loadDerives(String racine, List<String> mots, List<String> schemes);
+
+    long estimatedCount();
+
+    /**
+     * Every racine name, in racine order
+     */
+    void forEachName(Consumer<String> action);
+
+    long countWithDerives();
+
+    /**
+     * Derivations of every racine that has some
+     */
+    void forEachDerives(DerivesConsumer action);
+}
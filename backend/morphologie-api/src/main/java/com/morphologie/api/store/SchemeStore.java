@@ -0,0 +1,36 @@
+package com.morphologie.api.store;
+
+import com.morphologie.api.model.SchemeModel;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// ============= Scheme Store =============
+/**
+ * Persistence of scheme documents
+ * Implementations: MongoSchemeStore (default) and FileSchemeStore (profile "embedded")
+ * Names are unique: save throws DuplicateKeyException for a name stored under another id
+ */
+public interface SchemeStore {
+
+    List<SchemeModel> findAll();
+
+    Optional<SchemeModel> findByNom(String nom);
+
+    boolean existsByNom(String nom);
+
+    /**
+     * Insert, or replace the document with the same id (which may carry a new name)
+     */
+    SchemeModel save(SchemeModel scheme);
+
+    void deleteByNom(String nom);
+
+    /**
+     * Add to the usage count of several schemes at once (unknown names are ignored)
+     * Returns the names whose increment was certainly not applied (empty when all were);
+     * throws when the store cannot tell which increments were applied
+     */
+    Set<String> incrementUsage(Map<String, Long> counts);
+}
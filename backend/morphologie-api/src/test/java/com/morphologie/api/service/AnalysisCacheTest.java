@@ -0,0 +1,72 @@
+package com.morphologie.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.morphologie.api.dto.response.AnalysisCacheResponse;
+import com.morphologie.engine.Morphologie;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// ============= Analysis Cache =============
+/**
+ * Bounds count the cached results, not only their keys; a racine change invalidates
+ */
+class AnalysisCacheTest {
+
+    private PrintStream console;
+    private Morphologie engine;
+
+    @BeforeEach
+    void quietEngine() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        engine = new Morphologie();
+    }
+
+    @AfterEach
+    void restoreOutput() {
+        System.setOut(console);
+    }
+
+    @Test
+    void heavyResultsAreEvictedByWeight() {
+        AnalysisCache cache = new AnalysisCache(engine, true, 10_000, 160_000, 600_000);
+        for (int i = 0; i < 1000; i++) {
+            String mot = "mot" + i;
+            cache.analysis(mot, () -> mot, v -> 10_000);
+        }
+        AnalysisCacheResponse stats = cache.getStats();
+        assertTrue(stats.getWeight() <= 160_000, "weight " + stats.getWeight());
+        assertTrue(stats.getSize() <= 16, "size " + stats.getSize());
+        assertTrue(stats.getEvictions() >= 1000 - 16);
+
+        // Light results of the same count all fit
+        AnalysisCache light = new AnalysisCache(engine, true, 10_000, 16_000_000, 600_000);
+        for (int i = 0; i < 1000; i++) {
+            String mot = "mot" + i;
+            light.analysis(mot, () -> mot, v -> AnalysisCache.weightOf(v));
+        }
+        assertEquals(1000, light.getStats().getSize());
+        assertEquals(0, light.getStats().getEvictions());
+    }
+
+    @Test
+    void hitsUntilTheEngineChanges() {
+        AnalysisCache cache = new AnalysisCache(engine, true, 100, 1_000_000, 600_000);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("v", cache.validation("كتب", "كاتب", () -> { loads.incrementAndGet(); return "v"; }, v -> 0));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(4, cache.getStats().getHits());
+
+        engine.ajouterRacine("درس");
+        cache.validation("كتب", "كاتب", () -> { loads.incrementAndGet(); return "v"; }, v -> 0);
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,149 @@
+package com.morphologie.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.model.SchemeModel;
+import com.morphologie.api.store.SchemeStore;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// ============= Scheme Usage Counter =============
+/**
+ * Flushes against a fake store: counts the store did not apply are retried once, counts
+ * with an unknown outcome are never written twice, and the registry only sees what the
+ * store applied
+ */
+class SchemeUsageCounterTest {
+
+    private PrintStream errors;
+    private FakeStore store;
+    private SchemeRegistry registry;
+    private SchemeUsageCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        errors = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        store = new FakeStore(List.of("فاعل", "مفعول", "استفعل"));
+        registry = new SchemeRegistry(store);
+        registry.current();  // Loaded at startup
+        counter = new SchemeUsageCounter(store, new LexiconVersionService(new ObjectMapper()), registry, 5000);
+    }
+
+    @AfterEach
+    void restoreErrors() {
+        System.setErr(errors);
+    }
+
+    @Test
+    void failedIncrementsAreRetriedAlone() {
+        counter.record("فاعل", 3);
+        counter.record("مفعول", 2);
+        store.outcome = counts -> Set.of("مفعول");
+        counter.flush();
+        assertEquals(Map.of("فاعل", 3L, "مفعول", 0L, "استفعل", 0L), store.usage);
+        assertEquals(3, registry.current().get("فاعل").getUsageCount());
+        assertEquals(Map.of("مفعول", 2L), counter.pendingCounts());
+
+        store.outcome = counts -> Set.of();
+        counter.flush();
+        assertEquals(Map.of("فاعل", 3L, "مفعول", 2L, "استفعل", 0L), store.usage);
+        assertEquals(2, registry.current().get("مفعول").getUsageCount());
+        assertTrue(counter.pendingCounts().isEmpty());
+    }
+
+    @Test
+    void unknownOutcomeIsNotCountedTwice() {
+        counter.record("فاعل", 4);
+        store.outcome = counts -> {
+            throw new IllegalStateException("connection reset after the write");
+        };
+        counter.flush();
+        assertEquals(4L, store.usage.get("فاعل"));  // Applied before the error
+        assertTrue(counter.pendingCounts().isEmpty());
+
+        store.outcome = counts -> Set.of();
+        counter.flush();
+        assertEquals(4L, store.usage.get("فاعل"));
+    }
+
+    @Test
+    void popularSchemesIncludePendingUsesWithoutFlushing() {
+        SchemeService service = new SchemeService(store, null, null, counter, registry);
+        counter.record("استفعل", 7);
+        counter.record("فاعل", 1);
+
+        List<SchemeModel> popular = service.getPopularSchemes();
+
+        assertEquals("استفعل", popular.get(0).getNom());
+        assertEquals(7, popular.get(0).getUsageCount());
+        assertEquals(0, store.writes);
+        assertEquals(0, registry.current().get("استفعل").getUsageCount());  // Registry left as is
+    }
+
+    // Applies every increment, then reports what the test says was not applied (or throws)
+    private static final class FakeStore implements SchemeStore {
+        final Map<String, Long> usage = new HashMap<>();
+        final List<SchemeModel> schemes = new ArrayList<>();
+        Function<Map<String, Long>, Set<String>> outcome = counts -> Set.of();
+        int writes;
+
+        FakeStore(List<String> noms) {
+            for (String nom : noms) {
+                SchemeModel s = new SchemeModel(nom, nom, false, "NORMAL");
+                s.setId(nom);
+                schemes.add(s);
+                usage.put(nom, 0L);
+            }
+        }
+
+        @Override
+        public List<SchemeModel> findAll() {
+            return schemes;
+        }
+
+        @Override
+        public Optional<SchemeModel> findByNom(String nom) {
+            return schemes.stream().filter(s -> s.getNom().equals(nom)).findFirst();
+        }
+
+        @Override
+        public boolean existsByNom(String nom) {
+            return usage.containsKey(nom);
+        }
+
+        @Override
+        public SchemeModel save(SchemeModel scheme) {
+            return scheme;
+        }
+
+        @Override
+        public void deleteByNom(String nom) {
+        }
+
+        @Override
+        public Set<String> incrementUsage(Map<String, Long> counts) {
+            writes++;
+            Set<String> notApplied;
+            try {
+                notApplied = outcome.apply(counts);
+            } finally {
+                counts.forEach((nom, n) -> usage.merge(nom, n, Long::sum));
+            }
+            notApplied.forEach(nom -> usage.merge(nom, -counts.get(nom), Long::sum));
+            return notApplied;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.morphologie.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.dto.response.WriteBehindResponse;
+import com.morphologie.api.model.Derivation;
+import com.morphologie.api.store.FileRacineStore;
+import com.morphologie.engine.Morphologie;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// ============= Write-Behind Queue =============
+/**
+ * Against a fake sink that fails and then recovers: every derivation reaches the sink
+ * exactly once, whether it went through the spill file or stayed in memory, and a full
+ * queue makes DerivationWriter write synchronously
+ */
+class WriteBehindQueueTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path dir;
+
+    private PrintStream out;
+    private PrintStream errors;
+    private FakeSink sink;
+    private final List<String> replayedToEngine = new CopyOnWriteArrayList<>();  // Filled by the flusher
+
+    @BeforeEach
+    void setUp() {
+        out = System.out;
+        errors = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        sink = new FakeSink();
+    }
+
+    @AfterEach
+    void restoreOutput() {
+        System.setOut(out);
+        System.setErr(errors);
+    }
+
+    @Test
+    void spilledDerivationsAreReplayedOnce() throws Exception {
+        Path spill = dir.resolve("derivations.spill");
+        WriteBehindQueue queue = open(spill);
+
+        sink.down = true;
+        List<String> expected = offerWords(queue, "كتب", 40);
+        await(() -> queue.stats().getSpilled() == 40, "batches spilled");
+        assertTrue(Files.isRegularFile(spill));
+        assertTrue(sink.writes().isEmpty());
+        assertFalse(queue.stats().isMongoReachable());
+
+        sink.down = false;
+        await(() -> queue.stats().getReplayed() == 40, "spill file replayed");
+        assertFalse(Files.exists(spill));
+        assertEquals(sorted(expected), sorted(replayedToEngine));
+
+        expected.addAll(offerWords(queue, "درس", 5));
+        queue.close(5_000);
+
+        assertWrittenOnce(expected);
+        WriteBehindResponse stats = queue.stats();
+        assertEquals(5, stats.getWritten());
+        assertEquals(0, stats.getLost());
+    }
+
+    @Test
+    void unspillableBatchesStayQueuedUntilTheSinkRecovers() throws Exception {
+        Path spill = Files.createDirectory(dir.resolve("not-a-file"));  // Cannot be opened for append
+        WriteBehindQueue queue = open(spill);
+
+        sink.down = true;
+        List<String> expected = offerWords(queue, "علم", 25);
+        await(() -> queue.stats().getSpillFailures() >= 2, "spill retried");
+        assertTrue(sink.writes().isEmpty());
+        assertEquals(0, queue.stats().getSpilled());
+
+        sink.down = false;
+        await(() -> queue.stats().getWritten() == 25, "kept batches written");
+        queue.close(5_000);
+
+        assertWrittenOnce(expected);
+        assertEquals(0, queue.stats().getLost());
+        assertTrue(replayedToEngine.isEmpty());
+    }
+
+    @Test
+    void fullQueueFallsBackToASynchronousWrite() throws Exception {
+        FileRacineStore store = new FileRacineStore(objectMapper, dir.resolve("store").toString(), "interval", 0.5, 1 << 20);
+        store.insertAll(List.of("كتب"));
+        // Capacity 2, and no flush before a minute: the third derivation finds the queue full
+        DerivationWriter writer = new DerivationWriter(store, new LexiconVersionService(objectMapper), new Morphologie(),
+                objectMapper, true, 2, 100, 60_000, 50, 1_000, dir.resolve("derivations.spill").toString());
+
+        assertEquals(DerivationWriter.Outcome.QUEUED, writer.add("كتب", "كاتب", "فاعل"));
+        assertEquals(DerivationWriter.Outcome.QUEUED, writer.add("كتب", "مكتوب", "مفعول"));
+        assertEquals(DerivationWriter.Outcome.ADDED, writer.add("كتب", "كتاب", "فعال"));
+
+        assertEquals(List.of("كتاب"), mots(store));  // Written by the caller, the others still queued
+        WriteBehindResponse stats = writer.getWriteBehindStats();
+        assertEquals(1, stats.getSynchronousWrites());
+        assertEquals(2, stats.getQueueDepth());
+
+        writer.drainOnShutdown();
+        assertEquals(List.of("كاتب", "كتاب", "مكتوب"), sorted(mots(store)));
+        store.close();
+    }
+
+    private WriteBehindQueue open(Path spill) {
+        return new WriteBehindQueue(sink, batch -> batch.forEach((racine, derives) ->
+                derives.forEach(d -> replayedToEngine.add(racine + "/" + d.getMot()))),
+                objectMapper, 1_000, 10, 20, 100, 50, spill);
+    }
+
+    // Offers count distinct words of one racine, a few at a time; returns racine/mot keys
+    private static List<String> offerWords(WriteBehindQueue queue, String racine, int count) throws InterruptedException {
+        List<String> keys = new ArrayList<>();
+        List<Derivation> chunk = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String mot = racine + i;
+            chunk.add(new Derivation(mot, "فاعل"));
+            keys.add(racine + "/" + mot);
+            if (chunk.size() == 3 || i == count - 1) {
+                assertTrue(queue.offer(racine, chunk));
+                chunk = new ArrayList<>();
+            }
+        }
+        return keys;
+    }
+
+    private void assertWrittenOnce(List<String> expected) {
+        Map<String, Long> times = sink.writes().stream()
+                .collect(Collectors.groupingBy(k -> k, Collectors.counting()));
+        assertEquals(expected.size(), times.size());
+        for (String key : expected) {
+            assertEquals(1L, times.get(key), key);
+        }
+    }
+
+    private static List<String> mots(FileRacineStore store) {
+        List<String> mots = new ArrayList<>();
+        store.loadDerives("كتب", mots, new ArrayList<>());
+        return mots;
+    }
+
+    private static List<String> sorted(List<String> l) {
+        List<String> copy = new ArrayList<>(l);
+        copy.sort(null);
+        return copy;
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Timed out waiting: " + what);
+            Thread.sleep(10);
+        }
+    }
+
+    // Records every racine/mot it accepts; throws the whole batch back while down, like an
+    // unreachable MongoDB
+    private static final class FakeSink implements WriteBehindQueue.Sink {
+        volatile boolean down;
+        private final List<String> writes = new ArrayList<>();
+
+        @Override
+        public synchronized int write(Map<String, List<Derivation>> batch) {
+            if (down) throw new IllegalStateException("MongoDB unreachable");
+            int n = 0;
+            for (Map.Entry<String, List<Derivation>> e : batch.entrySet()) {
+                for (Derivation d : e.getValue()) {
+                    writes.add(e.getKey() + "/" + d.getMot());
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        synchronized List<String> writes() {
+            return new ArrayList<>(writes);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.morphologie.api.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morphologie.api.model.Derivation;
+import com.morphologie.api.model.Racine;
+import com.morphologie.api.model.RacineSummary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// ============= File Racine Store index =============
+/**
+ * The in-memory summary index (derive counts, update dates) agrees with the stored
+ * documents after inserts, derivations, renames and deletes, and after a reopen; new
+ * derivations are appended without rewriting the document
+ */
+class FileRacineStoreTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime SYNC_POINT = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexFollowsWritesAndReopen() throws IOException {
+        FileRacineStore store = open();
+        store.insertAll(List.of("كتب", "درس", "علم"));
+        for (String r : List.of("كتب", "درس", "علم")) {
+            Racine doc = store.findByRacine(r).orElseThrow();
+            doc.setUpdatedAt(OLD);
+            store.save(doc);
+        }
+        check(store, 0, List.of());
+
+        assertEquals(3, store.addDerivations(Map.of(
+                "كتب", List.of(new Derivation("كاتب", "فاعل"), new Derivation("مكتوب", "مفعول")),
+                "درس", List.of(new Derivation("دارس", "فاعل")))));
+        check(store, 2, List.of("درس", "كتب"));
+        assertFalse(store.addDerivation("كتب", new Derivation("كاتب", "فاعل")));
+        check(store, 2, List.of("درس", "كتب"));
+
+        Racine renamed = store.findByRacine("درس").orElseThrow();
+        renamed.setRacine("درز");
+        store.save(renamed);
+        check(store, 2, List.of("درز", "كتب"));
+
+        store.deleteByRacine("كتب");
+        check(store, 1, List.of("درز"));
+        store.close();
+
+        store = open();
+        check(store, 1, List.of("درز"));
+        assertEquals(1, store.addDerivations(Map.of("علم", List.of(new Derivation("عالم", "فاعل")))));
+        check(store, 2, List.of("درز", "علم"));
+        store.close();
+    }
+
+    @Test
+    void derivationsAppendOnlyTheNewWords() throws IOException {
+        FileRacineStore store = open(0, 0);  // Compacts whenever asked
+        store.insertAll(List.of("كتب"));
+        List<Derivation> derives = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            derives.add(new Derivation("كتب" + i, "فاعل"));
+        }
+        assertEquals(200, store.addDerivations(Map.of("كتب", derives)));
+
+        Path log = dir.resolve("racines.log");
+        long before = Files.size(log);
+        assertEquals(1, store.addDerivations(Map.of("كتب", List.of(
+                new Derivation("كتب7", "فاعل"), new Derivation("كاتب", "فاعل"), new Derivation("كاتب", "فاعل")))));
+        long growth = Files.size(log) - before;
+        assertTrue(growth * 20 < before, "record of " + growth + " bytes after " + before);
+        assertFalse(store.addDerivation("كتب", new Derivation("كتب0", "فاعل")));
+        check(store, 1, List.of("كتب"));
+        assertEquals(List.of("كتب0", "كاتب"), firstAndLast(store));
+
+        store.compact();
+        assertEquals(List.of("كتب0", "كاتب"), firstAndLast(store));
+        store.close();
+
+        store = open(0, 0);
+        check(store, 1, List.of("كتب"));
+        assertEquals(201, store.findSummariesAfter("", 10).getContent().get(0).getDeriveCount());
+        assertFalse(store.addDerivation("كتب", new Derivation("كاتب", "فاعل")));
+        assertTrue(store.addDerivation("كتب", new Derivation("مكتوب", "مفعول")));
+        store.close();
+    }
+
+    private FileRacineStore open() throws IOException {
+        return open(0.5, 1 << 20);
+    }
+
+    private FileRacineStore open(double compactRatio, long compactMinBytes) throws IOException {
+        return new FileRacineStore(objectMapper, dir.toString(), "interval", compactRatio, compactMinBytes);
+    }
+
+    private static List<String> firstAndLast(FileRacineStore store) {
+        List<String> mots = new ArrayList<>();
+        store.loadDerives("كتب", mots, new ArrayList<>());
+        return List.of(mots.get(0), mots.get(mots.size() - 1));
+    }
+
+    // Index answers against the decoded documents, and against the expected values
+    private static void check(FileRacineStore store, long withDerives, List<String> updated) {
+        List<Racine> docs = store.findSliceAfter("", 10).getContent();
+        assertEquals(withDerives, docs.stream().filter(d -> !d.getDerives().isEmpty()).count());
+        assertEquals(withDerives, store.countWithDerives());
+
+        TreeSet<String> changed = new TreeSet<>();
+        store.findUpdatedAfter(SYNC_POINT).forEach(d -> changed.add(d.getRacine()));
+        assertEquals(updated, new ArrayList<>(changed));
+
+        List<RacineSummary> summaries = store.findSummariesAfter("", 10).getContent();
+        assertEquals(docs.size(), summaries.size());
+        for (int i = 0; i < docs.size(); i++) {
+            Racine doc = docs.get(i);
+            RacineSummary summary = summaries.get(i);
+            assertEquals(doc.getId(), summary.getId());
+            assertEquals(doc.getRacine(), summary.getRacine());
+            assertEquals(doc.getDerives().size(), summary.getDeriveCount());
+            assertEquals(doc.getUpdatedAt(), summary.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.morphologie.api.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// ============= Log Store replay =============
+/**
+ * Reopening a damaged log: a torn or garbage tail is cut, the records before it survive;
+ * damage followed by valid records (bad checksum, bad or oversized length) fails the open
+ * and leaves the file untouched. Merge records are applied on read, after a reopen and by
+ * compaction
+ */
+class LogStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenRebuildsTheIndex() throws IOException {
+        Path path = dir.resolve("log");
+        try (LogStore<String> store = open(path)) {
+            store.put("a", "1");
+            store.put("b", "2");
+            store.put("a", "3");
+            store.delete("b");
+        }
+        try (LogStore<String> store = open(path)) {
+            assertEquals("3", store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void cutsTornLastRecord() throws IOException {
+        Path path = dir.resolve("log");
+        List<Long> ends = write(path, 3);
+        truncate(path, ends.get(2) - 5);
+
+        try (LogStore<String> store = open(path)) {
+            assertEquals(2, store.size());
+            assertEquals("value0", store.get("key0"));
+            assertEquals("value1", store.get("key1"));
+            assertNull(store.get("key2"));
+            assertEquals(ends.get(1), Files.size(path));
+
+            // Appends go after the last valid record
+            store.put("key2", "again");
+        }
+        try (LogStore<String> store = open(path)) {
+            assertEquals("again", store.get("key2"));
+        }
+    }
+
+    @Test
+    void cutsGarbageTail() throws IOException {
+        Path path = dir.resolve("log");
+        List<Long> ends = write(path, 2);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 5, 6, 7}));
+        }
+
+        try (LogStore<String> store = open(path)) {
+            assertEquals(2, store.size());
+            assertEquals(ends.get(1), Files.size(path));
+        }
+    }
+
+    @Test
+    void failsOnBadChecksumInTheMiddle() throws IOException {
+        Path path = dir.resolve("log");
+        List<Long> ends = write(path, 3);
+        long size = Files.size(path);
+        patch(path, ends.get(1) - 2, new byte[] {'x'});  // Inside the JSON of record 1
+
+        assertThrows(IOException.class, () -> open(path));
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    void failsOnBadLengthInTheMiddle() throws IOException {
+        Path path = dir.resolve("log");
+        List<Long> ends = write(path, 3);
+        long size = Files.size(path);
+
+        // Longer than the rest of the file: reads like a truncated body
+        patch(path, ends.get(0), ByteBuffer.allocate(4).putInt(1_000_000).array());
+        assertThrows(IOException.class, () -> open(path));
+        assertEquals(size, Files.size(path));
+
+        // Out of range
+        patch(path, ends.get(0), ByteBuffer.allocate(4).putInt(-1).array());
+        assertThrows(IOException.class, () -> open(path));
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    void mergesAreAppliedOnReadReopenAndCompaction() throws IOException {
+        Path path = dir.resolve("log");
+        String expected = "xy" + "z".repeat(100);
+        try (LogStore<String> store = openWithMerge(path)) {
+            store.put("a", "x");
+            assertTrue(store.merge("a", "y"));
+            assertFalse(store.merge("b", "y"));
+            assertEquals("xy", store.get("a"));
+            for (int i = 0; i < 100; i++) {
+                store.merge("a", "z");  // Past MAX_DELTAS the document is written again
+            }
+            assertEquals(expected, store.get("a"));
+        }
+        long size = Files.size(path);
+        assertThrows(IOException.class, () -> open(path));  // Merge records need the merge
+        assertEquals(size, Files.size(path));
+
+        try (LogStore<String> store = openWithMerge(path)) {
+            assertEquals(expected, store.get("a"));
+            assertTrue(store.compactIfNeeded(0, 0));
+            assertEquals(expected, store.get("a"));
+        }
+        try (LogStore<String> store = open(path)) {  // Folded into one PUT
+            assertEquals(expected, store.get("a"));
+            assertEquals(Files.size(path), store.fileBytes());
+        }
+    }
+
+    private LogStore<String> openWithMerge(Path path) throws IOException {
+        return new LogStore<>(path, objectMapper, String.class, false, new LogStore.Merge<String, String>() {
+            @Override
+            public Class<String> deltaType() {
+                return String.class;
+            }
+
+            @Override
+            public String apply(String document, String delta) {
+                return document + delta;
+            }
+        });
+    }
+
+    private LogStore<String> open(Path path) throws IOException {
+        return new LogStore<>(path, objectMapper, String.class, false);
+    }
+
+    // Writes key0..key(n-1); returns the file size after each record
+    private List<Long> write(Path path, int n) throws IOException {
+        List<Long> ends = new ArrayList<>();
+        try (LogStore<String> store = open(path)) {
+            for (int i = 0; i < n; i++) {
+                store.put("key" + i, "value" + i);
+                ends.add(store.fileBytes());
+            }
+        }
+        assertEquals(ends.get(n - 1), Files.size(path));
+        return ends;
+    }
+
+    private static void truncate(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static void patch(Path path, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}
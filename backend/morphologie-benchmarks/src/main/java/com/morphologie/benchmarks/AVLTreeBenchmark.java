@@ -0,0 +1,70 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.AVLTree;
+import com.morphologie.engine.Node;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Recherche et insertion dans l'arbre AVL des racines
+// (l'arbre ne dépend pas du nombre de schèmes : seul le nombre de racines varie)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class AVLTreeBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int racines;
+
+    AVLTree arbre;
+    String[] presentes;   // Échantillon de 1024 racines de l'arbre
+    String[] absentes;    // Racines hors de l'arbre, pour les insertions
+    int i;
+    PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // addRacine affiche chaque insertion : on coupe la sortie pendant toute la mesure
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        List<String> lexique = GenerateurLexique.racines(racines + 1024);
+        arbre = new AVLTree();
+        for (int k = 0; k < racines; k++) {
+            arbre.addRacine(lexique.get(k));
+        }
+        presentes = new String[1024];
+        for (int k = 0; k < presentes.length; k++) {
+            presentes[k] = lexique.get((int) ((k * 7919L) % racines));
+        }
+        absentes = lexique.subList(racines, racines + 1024).toArray(new String[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public Node rechercher() {
+        return arbre.rechercher(presentes[i++ & 1023]);
+    }
+
+    @Benchmark
+    public Node rechercherAbsente() {
+        return arbre.rechercher(absentes[i++ & 1023]);
+    }
+
+    // Insertion puis suppression de la même racine : la taille de l'arbre reste constante
+    @Benchmark
+    public boolean addRacineEtSupprimer() {
+        String r = absentes[i++ & 1023];
+        arbre.addRacine(r);
+        return arbre.supprimerRacine(r);
+    }
+}
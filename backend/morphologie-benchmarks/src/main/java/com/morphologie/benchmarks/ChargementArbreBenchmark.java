@@ -0,0 +1,70 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.AVLTree;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Construction de l'arbre des racines : insertions une à une contre chargement en masse
+// (construction équilibrée à partir d'un lot trié, et fusion d'un lot dans un arbre existant)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ChargementArbreBenchmark {
+
+    @Param({"100000", "1000000"})
+    int racines;
+
+    List<String> melangees;   // Ordre du fichier
+    List<String> triees;      // Même lexique, trié
+    List<String> moitie;      // Première moitié (arbre de départ pour la fusion)
+    List<String> reste;       // Seconde moitié, triée (lot fusionné)
+
+    @Setup(Level.Trial)
+    public void setup() {
+        melangees = GenerateurLexique.racines(racines);
+        triees = new ArrayList<>(melangees);
+        triees.sort(null);
+        moitie = melangees.subList(0, racines / 2);
+        reste = new ArrayList<>(melangees.subList(racines / 2, racines));
+        reste.sort(null);
+    }
+
+    @Benchmark
+    public AVLTree uneParUne() {
+        AVLTree arbre = new AVLTree();
+        GenerateurLexique.silencieux(() -> {
+            for (String r : melangees) arbre.addRacine(r);
+        });
+        return arbre;
+    }
+
+    // Lot dans l'ordre du fichier : tri + construction
+    @Benchmark
+    public AVLTree enMasse() {
+        AVLTree arbre = new AVLTree();
+        arbre.addRacines(melangees);
+        return arbre;
+    }
+
+    // Lot déjà trié : construction seule, en O(n)
+    @Benchmark
+    public AVLTree enMasseTrie() {
+        AVLTree arbre = new AVLTree();
+        arbre.addRacinesTriees(triees);
+        return arbre;
+    }
+
+    // Fusion d'un lot trié (n/2 racines) dans un arbre de n/2 racines
+    @Benchmark
+    public AVLTree fusion() {
+        AVLTree arbre = new AVLTree();
+        arbre.addRacines(moitie);
+        arbre.addRacinesTriees(reste);
+        return arbre;
+    }
+}
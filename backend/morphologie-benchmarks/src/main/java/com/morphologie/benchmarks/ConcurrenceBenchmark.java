@@ -0,0 +1,103 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.Analyse;
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.Scheme;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Débit en lecture pendant des écritures : 3 lecteurs + 1 écrivain
+// sansVerrou    : moteur actuel (lectures sur instantané, écritures sérialisées)
+// verrouGlobal  : référence avec un seul verrou autour de toutes les opérations
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Group)
+public class ConcurrenceBenchmark {
+
+    @Param({"1000", "100000"})
+    int racines;
+
+    @Param({"10"})
+    int schemes;
+
+    Morphologie engine;
+    final Object verrou = new Object();
+    String[] racinesTest;
+    String[] motsTest;
+    String[] absentes;
+    PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> lexique = GenerateurLexique.racines(racines + 1024);
+        List<String> patterns = GenerateurLexique.schemes(schemes);
+        engine = GenerateurLexique.moteur(lexique.subList(0, racines), patterns, true);
+        absentes = lexique.subList(racines, racines + 1024).toArray(new String[0]);
+        racinesTest = new String[1024];
+        motsTest = new String[1024];
+        for (int k = 0; k < 1024; k++) {
+            racinesTest[k] = lexique.get((int) ((k * 7919L) % racines));
+            Scheme s = engine.getScheme(patterns.get(k % schemes));
+            motsTest[k] = s.generate(racinesTest[k]);
+        }
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    // Compteur propre à chaque thread
+    @State(Scope.Thread)
+    public static class Curseur {
+        int i;
+    }
+
+    @Benchmark
+    @Group("sansVerrou")
+    @GroupThreads(3)
+    public List<Analyse> lireSansVerrou(Curseur c) {
+        int k = c.i++ & 1023;
+        engine.valider(racinesTest[k], motsTest[k]);
+        return engine.analyser(motsTest[k]);
+    }
+
+    @Benchmark
+    @Group("sansVerrou")
+    @GroupThreads(1)
+    public boolean ecrireSansVerrou(Curseur c) {
+        String r = absentes[c.i++ & 1023];
+        engine.ajouterRacine(r);
+        return engine.supprimerRacine(r);
+    }
+
+    @Benchmark
+    @Group("verrouGlobal")
+    @GroupThreads(3)
+    public List<Analyse> lireVerrouGlobal(Curseur c) {
+        int k = c.i++ & 1023;
+        synchronized (verrou) {
+            engine.valider(racinesTest[k], motsTest[k]);
+            return engine.analyser(motsTest[k]);
+        }
+    }
+
+    @Benchmark
+    @Group("verrouGlobal")
+    @GroupThreads(1)
+    public boolean ecrireVerrouGlobal(Curseur c) {
+        String r = absentes[c.i++ & 1023];
+        synchronized (verrou) {
+            engine.ajouterRacine(r);
+            return engine.supprimerRacine(r);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.Morphologie;
+import com.morphologie.utils.FileLoader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Chargement complet d'un fichier de racines dans un moteur vide (arbre + index)
+// Mesure « à froid » : une exécution par itération
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class FileLoaderBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int racines;
+
+    @Param({"10", "200"})
+    int schemes;
+
+    Path fichier;
+    List<String> patterns;
+    Morphologie engine;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        fichier = GenerateurLexique.ecrireFichier(GenerateurLexique.racines(racines));
+        patterns = GenerateurLexique.schemes(schemes);
+    }
+
+    // Moteur vide avec les schèmes voulus, recréé avant chaque chargement
+    @Setup(Level.Invocation)
+    public void moteurVide() {
+        boolean indexe = (long) racines * schemes <= MorphologieBenchmark.LIMITE_INDEX;
+        engine = GenerateurLexique.moteur(List.of(), patterns, indexe);
+    }
+
+    @Benchmark
+    public Morphologie chargerRacines() {
+        GenerateurLexique.silencieux(() -> FileLoader.chargerRacinesDepuisChemin(fichier, engine));
+        return engine;
+    }
+}
@@ -0,0 +1,103 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.Morphologie;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Générateur de lexiques synthétiques pour les benchmarks
+// Les racines sont déterministes (même graine -> même lexique) et mélangées
+// pour ne pas insérer dans l'ordre alphabétique
+public class GenerateurLexique {
+
+    // Lettres utilisées pour les racines : arabe de base + lettres étendues (≈ 2,4 millions de racines possibles)
+    static final char[] ALPHABET = alphabet();
+
+    // Affixes combinés pour fabriquer des schèmes dynamiques distincts autour de ف ع ل
+    static final String[] PREFIXES = {"", "م", "ت", "ا", "ان", "است", "ي", "ن", "مت", "مست"};
+    static final String[] APRES_F = {"", "ا", "و", "ْ", "ِ"};
+    static final String[] APRES_E = {"", "ّ", "ا", "ي"};
+    static final String[] SUFFIXES = {"", "ة", "ان", "ون", "ين", "ات"};
+
+    private static char[] alphabet() {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 'ء'; c <= 'غ'; c++) sb.append(c);
+        for (char c = 'ف'; c <= 'ي'; c++) sb.append(c);
+        for (char c = 'ٱ'; c <= 'ۓ'; c++) sb.append(c);
+        return sb.toString().toCharArray();
+    }
+
+    // Retourne n racines distinctes de 3 lettres
+    public static List<String> racines(int n) {
+        int a = ALPHABET.length;
+        long total = (long) a * a * a;
+        if (n > total)
+            throw new IllegalArgumentException("Au plus " + total + " racines distinctes");
+
+        // i -> (i * PAS) mod total est une permutation car PAS est premier avec total
+        final long pas = 1_000_003L;
+        List<String> racines = new ArrayList<>(n);
+        for (long i = 0; i < n; i++) {
+            long k = (i * pas) % total;
+            char c1 = ALPHABET[(int) (k % a)];
+            char c2 = ALPHABET[(int) ((k / a) % a)];
+            char c3 = ALPHABET[(int) (k / ((long) a * a))];
+            racines.add("" + c1 + c2 + c3);
+        }
+        return racines;
+    }
+
+    // Retourne n patterns de schèmes distincts (contenant ف ع ل)
+    public static List<String> schemes(int n) {
+        int total = PREFIXES.length * APRES_F.length * APRES_E.length * SUFFIXES.length;
+        if (n > total)
+            throw new IllegalArgumentException("Au plus " + total + " schèmes distincts");
+
+        List<String> schemes = new ArrayList<>(n);
+        for (int i = 0; schemes.size() < n; i++) {
+            // Les indices tournent à des vitesses différentes : les premiers schèmes sont déjà variés
+            String p = PREFIXES[i % PREFIXES.length];
+            String f = APRES_F[(i / PREFIXES.length) % APRES_F.length];
+            String e = APRES_E[(i / (PREFIXES.length * APRES_F.length)) % APRES_E.length];
+            String s = SUFFIXES[(i / (PREFIXES.length * APRES_F.length * APRES_E.length)) % SUFFIXES.length];
+            schemes.add(p + "ف" + f + "ع" + e + "ل" + s);
+        }
+        return schemes;
+    }
+
+    // Construit un moteur contenant exactement les racines et les schèmes donnés
+    // (les schèmes prédéfinis sont retirés pour contrôler leur nombre)
+    public static Morphologie moteur(List<String> racines, List<String> schemes, boolean avecIndex) {
+        Morphologie engine = new Morphologie(avecIndex);
+        silencieux(() -> {
+            for (String nom : engine.getAllSchemes()) engine.supprimerScheme(nom);
+            for (String pattern : schemes) engine.ajouterScheme(pattern);
+            for (String r : racines) engine.ajouterRacine(r);
+        });
+        return engine;
+    }
+
+    // Écrit les racines dans un fichier texte (une par ligne), comme racines.txt
+    public static Path ecrireFichier(List<String> racines) throws IOException {
+        Path fichier = Files.createTempFile("racines-", ".txt");
+        fichier.toFile().deleteOnExit();
+        Files.write(fichier, racines, StandardCharsets.UTF_8);
+        return fichier;
+    }
+
+    // Exécute une action en coupant la sortie standard (le moteur affiche chaque opération)
+    public static void silencieux(Runnable action) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(console);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.DictionnaireDerives;
+import com.morphologie.engine.Node;
+import com.morphologie.engine.RootIndex;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Recherche d'une racine selon l'implémentation de l'index : arbre AVL (comparaisons de
+// String à chaque niveau), table de hachage sur clés long (une sonde en moyenne) et
+// tableau figé en ordre d'Eytzinger (le lot initial dépasse le seuil : tout est figé)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class IndexRacinesBenchmark {
+
+    @Param({"AVL", "HASH", "FROZEN"})
+    RootIndex.Type type;
+
+    @Param({"1000", "100000", "1000000"})
+    int racines;
+
+    RootIndex index;
+    String[] presentes;   // Échantillon de 1024 racines de l'index
+    String[] absentes;    // Racines hors de l'index
+    int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> lexique = GenerateurLexique.racines(racines + 1024);
+        index = RootIndex.creer(type, null, new DictionnaireDerives());
+        index.addRacines(lexique.subList(0, racines));  // Lot : aucun affichage
+        presentes = new String[1024];
+        for (int k = 0; k < presentes.length; k++) {
+            presentes[k] = lexique.get((int) ((k * 7919L) % racines));
+        }
+        absentes = lexique.subList(racines, racines + 1024).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public Node rechercher() {
+        return index.rechercher(presentes[i++ & 1023]);
+    }
+
+    @Benchmark
+    public Node rechercherAbsente() {
+        return index.rechercher(absentes[i++ & 1023]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.Analyse;
+import com.morphologie.engine.Morphologie;
+import com.morphologie.engine.Scheme;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Validation et analyse inversée sur le moteur complet
+// L'index inversé contient racines × schèmes mots : au-delà de LIMITE_INDEX entrées
+// il ne tient pas dans le tas, le moteur est alors construit sans index
+// et analyser() mesure le chemin par gabarits (voir le champ indexe dans les résultats)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class MorphologieBenchmark {
+
+    static final long LIMITE_INDEX = 10_000_000L;
+
+    @Param({"1000", "100000", "1000000"})
+    int racines;
+
+    @Param({"10", "200"})
+    int schemes;
+
+    Morphologie engine;
+    boolean indexe;
+    String[] racinesTest;   // Échantillon de racines du lexique
+    String[] motsTest;      // Mot valide correspondant (schème tiré au hasard)
+    int i;
+    PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> lexique = GenerateurLexique.racines(racines);
+        List<String> patterns = GenerateurLexique.schemes(schemes);
+        indexe = (long) racines * schemes <= LIMITE_INDEX;
+        engine = GenerateurLexique.moteur(lexique, patterns, indexe);
+
+        racinesTest = new String[1024];
+        motsTest = new String[1024];
+        for (int k = 0; k < 1024; k++) {
+            racinesTest[k] = lexique.get((int) ((k * 7919L) % racines));
+            Scheme s = engine.getScheme(patterns.get((k * 31) % schemes));
+            motsTest[k] = s.generate(racinesTest[k]);
+        }
+
+        // validerMot / analyserMot affichent leur résultat : sortie coupée pendant la mesure
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String valider() {
+        int k = i++ & 1023;
+        return engine.valider(racinesTest[k], motsTest[k]);
+    }
+
+    @Benchmark
+    public void validerMot() {
+        int k = i++ & 1023;
+        engine.validerMot(racinesTest[k], motsTest[k]);
+    }
+
+    @Benchmark
+    public List<Analyse> analyser() {
+        return engine.analyser(motsTest[i++ & 1023]);
+    }
+
+    @Benchmark
+    public List<Analyse> analyserParGabarits() {
+        return engine.analyserParGabarits(motsTest[i++ & 1023]);
+    }
+
+    @Benchmark
+    public void analyserMot() {
+        engine.analyserMot(motsTest[i++ & 1023]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.morphologie.benchmarks;
+
+import com.morphologie.engine.Scheme;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Génération d'un paradigme complet (tous les schèmes appliqués à une racine)
+// Schèmes explicites (règle lambda) contre schèmes dynamiques (pattern ف ع ل)
+// Le temps mesuré couvre tous les schèmes : diviser par le nombre de schèmes pour un mot
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemeBenchmark {
+
+    @Param({"10", "200"})
+    int schemes;
+
+    Scheme[] explicites;
+    Scheme[] dynamiques;
+    String[] racines;
+    String[] mots;       // Forme du premier schème pour chaque racine (pour reconnait)
+    StringBuilder tampon = new StringBuilder(64);
+    char[] buffer = new char[64];
+    int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> patterns = GenerateurLexique.schemes(schemes);
+        explicites = new Scheme[schemes];
+        dynamiques = new Scheme[schemes];
+        for (int k = 0; k < schemes; k++) {
+            String pattern = patterns.get(k);
+            // Règle explicite équivalente : concaténation des segments autour de ف ع ل
+            String[] seg = pattern.split("[فعل]", -1);
+            explicites[k] = new Scheme(pattern, (c1, c2, c3) -> seg[0] + c1 + seg[1] + c2 + seg[2] + c3 + seg[3]);
+            dynamiques[k] = new Scheme(pattern);
+        }
+        racines = GenerateurLexique.racines(1024).toArray(new String[0]);
+        mots = new String[racines.length];
+        for (int k = 0; k < racines.length; k++) {
+            mots[k] = dynamiques[0].generate(racines[k]);
+        }
+    }
+
+    @Benchmark
+    public void generateExplicite(Blackhole bh) {
+        String r = racines[i++ & 1023];
+        for (Scheme s : explicites) bh.consume(s.generate(r));
+    }
+
+    @Benchmark
+    public void generateDynamique(Blackhole bh) {
+        String r = racines[i++ & 1023];
+        for (Scheme s : dynamiques) bh.consume(s.generate(r));
+    }
+
+    @Benchmark
+    public void generateIntoStringBuilder(Blackhole bh) {
+        String r = racines[i++ & 1023];
+        for (Scheme s : dynamiques) {
+            tampon.setLength(0);
+            bh.consume(s.generateInto(r, tampon));
+        }
+    }
+
+    @Benchmark
+    public void generateIntoCharArray(Blackhole bh) {
+        String r = racines[i++ & 1023];
+        for (Scheme s : dynamiques) bh.consume(s.generateInto(r, buffer, 0));
+    }
+
+    // Recherche du schème d'un mot pour une racine connue, sans générer les mots
+    @Benchmark
+    public void reconnait(Blackhole bh) {
+        int k = i++ & 1023;
+        for (Scheme s : dynamiques) bh.consume(s.reconnait(racines[k], mots[k]));
+    }
+}
@@ -2,10 +2,42 @@ package com.morphologie.engine;
 
 import com.morphologie.utils.RTLFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-public class AVLTree {
-    private Node root;  // La racine de l'arbre
+// Arbre AVL persistant : une modification ne touche jamais un nœud existant,
+// elle copie le chemin parcouru puis publie la nouvelle racine (champ volatile).
+// Les lectures travaillent donc sur un instantané figé, sans verrou, pendant que
+// les écritures sont sérialisées par synchronized.
+public class AVLTree implements RootIndex {
+    private volatile Node root;  // La racine de l'arbre (dernière version publiée)
+    private volatile int taille;  // Nombre de racines (modifié uniquement par les écrivains)
+    private final CacheDerives cacheDerives;  // Cache des dérivés des nouveaux nœuds (null : toujours en mémoire)
+    private final DictionnaireDerives dico;   // Dictionnaire des mots dérivés des nœuds de l'arbre
+
+    public AVLTree() {
+        this(null);
+    }
+
+    public AVLTree(CacheDerives cacheDerives) {
+        this(cacheDerives, new DictionnaireDerives());
+    }
+
+    public AVLTree(CacheDerives cacheDerives, DictionnaireDerives dico) {
+        this.cacheDerives = cacheDerives;
+        this.dico = dico;
+    }
+
+    // Arbre équilibré construit à partir de nœuds existants triés, copiés (dérivés partagés)
+    // Utilisé par l'index figé pour garder dans son delta les racines qu'il ne peut pas figer
+    AVLTree(CacheDerives cacheDerives, DictionnaireDerives dico, List<Node> tries) {
+        this(cacheDerives, dico);
+        Node[] copies = new Node[tries.size()];
+        for (int i = 0; i < copies.length; i++)
+            copies[i] = new Node(tries.get(i));
+        root = construire(copies, 0, copies.length);
+        taille = copies.length;
+    }
 
     // Retourne la hauteur d'un nœud (0 si le nœud est null)
     private int height(Node n) {
@@ -20,8 +52,10 @@ public class AVLTree {
 
     // Rotation à droite pour rééquilibrer l'arbre
     // Utilisé quand le sous-arbre gauche est trop lourd
+    // Les deux nœuds déplacés sont copiés : l'ancienne version reste intacte
     private Node rotateRight(Node y) {
-        Node x = y.gauche;
+        y = new Node(y);
+        Node x = new Node(y.gauche);
         Node T2 = x.droite;
 
         x.droite = y;
@@ -36,7 +70,8 @@ public class AVLTree {
     // Rotation à gauche pour rééquilibrer l'arbre
     // Utilisé quand le sous-arbre droit est trop lourd
     private Node rotateLeft(Node x) {
-        Node y = x.droite;
+        x = new Node(x);
+        Node y = new Node(x.droite);
         Node T2 = y.gauche;
 
         y.gauche = x;
@@ -48,11 +83,18 @@ public class AVLTree {
         return y;
     }
 
+    // Dictionnaire des mots dérivés de l'arbre
+    public DictionnaireDerives getDictionnaire() {
+        return dico;
+    }
+
     // Insertion récursive d'une nouvelle racine
-    // Retourne le nouveau nœud ou le nœud modifié après rééquilibrage
+    // Retourne le nouveau nœud ou la copie modifiée après rééquilibrage
     private Node insert(Node node, String racine) {
         if (node == null)
-            return new Node(racine);
+            return new Node(racine, cacheDerives, dico);
+
+        node = new Node(node);  // Copie du nœud sur le chemin d'insertion
 
         // On cherche où insérer le nouveau mot
         if (racine.compareTo(node.racine) < 0)
@@ -92,18 +134,186 @@ public class AVLTree {
     }
 
     // Ajoute une nouvelle racine après vérification qu'elle n'existe pas déjà
-    public void addRacine(String racine) {
+    // Retourne true si la racine a été ajoutée
+    public synchronized boolean addRacine(String racine) {
         if (rechercher(racine) != null) {
             System.out.println("⚠️ Racine déjà existante : " + RTLFormatter.rtl(racine));
-            return;
+            return false;
         }
         root = insert(root, racine);
+        taille++;
         System.out.println("✅ Racine ajoutée avec succès : " + RTLFormatter.rtl(racine));
+        return true;
+    }
+
+    // ================= Chargement en masse =================
+    // Ajoute un lot de racines sans affichage et ne publie l'arbre qu'une fois à la fin
+    // Le lot est trié et dédoublonné si besoin (inutile s'il l'est déjà), puis fusionné
+    // Retourne les racines réellement ajoutées, dans l'ordre alphabétique
+    public synchronized List<String> addRacines(Collection<String> racines) {
+        List<String> lot = new ArrayList<>(racines);
+        if (!estTrie(lot)) {
+            lot.sort(null);
+            int k = 0;  // Suppression des doublons adjacents
+            for (String r : lot) {
+                if (k == 0 || !r.equals(lot.get(k - 1)))
+                    lot.set(k++, r);
+            }
+            lot.subList(k, lot.size()).clear();
+        }
+        return addRacinesTriees(lot);
+    }
+
+    // Ajoute un lot déjà trié (ordre de compareTo) et sans doublons :
+    // - arbre vide : construction directe d'un arbre parfaitement équilibré en O(m) ;
+    // - petit lot devant l'arbre : insertions classiques en O(m log n) ;
+    // - sinon : fusion des deux suites triées puis reconstruction en O(n + m),
+    //   sans aucune rotation (les nœuds existants sont copiés, jamais modifiés)
+    // Retourne les racines réellement ajoutées
+    public synchronized List<String> addRacinesTriees(List<String> triees) {
+        if (!estTrie(triees))
+            throw new IllegalArgumentException("Le lot doit être trié et sans doublons");
+
+        Node r = root;
+        List<String> ajoutees = new ArrayList<>();
+        if ((long) triees.size() * height(r) < taille) {
+            for (String racine : triees) {
+                if (rechercher(r, racine) != null)
+                    continue;
+                r = insert(r, racine);
+                ajoutees.add(racine);
+            }
+        } else {
+            List<Node> existants = new ArrayList<>(taille);
+            inOrderCollect(r, existants);
+            Node[] fusion = new Node[existants.size() + triees.size()];
+            int i = 0, j = 0, k = 0;
+            while (i < existants.size() || j < triees.size()) {
+                int cmp = (i == existants.size()) ? 1
+                        : (j == triees.size()) ? -1
+                        : existants.get(i).racine.compareTo(triees.get(j));
+                if (cmp <= 0) {
+                    fusion[k++] = new Node(existants.get(i++));
+                    if (cmp == 0) j++;  // Racine déjà présente
+                } else {
+                    String racine = triees.get(j++);
+                    fusion[k++] = new Node(racine, cacheDerives, dico);
+                    ajoutees.add(racine);
+                }
+            }
+            r = construire(fusion, 0, k);
+        }
+        root = r;
+        taille += ajoutees.size();
+        return ajoutees;
+    }
+
+    // Construit un arbre parfaitement équilibré à partir de nœuds triés [debut, fin)
+    // Le milieu devient la racine : les deux moitiés diffèrent d'au plus un nœud
+    private Node construire(Node[] noeuds, int debut, int fin) {
+        if (debut >= fin)
+            return null;
+        int milieu = (debut + fin) >>> 1;
+        Node n = noeuds[milieu];
+        n.gauche = construire(noeuds, debut, milieu);
+        n.droite = construire(noeuds, milieu + 1, fin);
+        n.height = 1 + Math.max(height(n.gauche), height(n.droite));
+        return n;
+    }
+
+    // Vrai si la liste est strictement croissante
+    private static boolean estTrie(List<String> racines) {
+        for (int i = 1; i < racines.size(); i++) {
+            if (racines.get(i - 1).compareTo(racines.get(i)) >= 0)
+                return false;
+        }
+        return true;
+    }
+
+    // Nombre de racines dans l'arbre
+    public int taille() {
+        return taille;
+    }
+
+    // Supprime une racine de l'arbre
+    // Retourne true si la racine existait
+    public synchronized boolean supprimerRacine(String racine) {
+        Node node = rechercher(racine);
+        if (node == null)
+            return false;
+        root = delete(root, racine);
+        taille--;
+        if (cacheDerives != null)
+            cacheDerives.oublier(node.derives);
+        return true;
+    }
+
+    // Suppression récursive d'une racine (la racine doit exister)
+    // Retourne le sous-arbre rééquilibré
+    private Node delete(Node node, String racine) {
+        if (node == null)
+            return null;
+
+        node = new Node(node);  // Copie du nœud sur le chemin de suppression
+        int cmp = racine.compareTo(node.racine);
+        if (cmp < 0)
+            node.gauche = delete(node.gauche, racine);
+        else if (cmp > 0)
+            node.droite = delete(node.droite, racine);
+        else {
+            // Nœud avec au plus un enfant : on le remplace par cet enfant
+            if (node.gauche == null)
+                return node.droite;
+            if (node.droite == null)
+                return node.gauche;
+
+            // Deux enfants : le successeur (plus petit du sous-arbre droit) prend sa place
+            Node succ = node.droite;
+            while (succ.gauche != null)
+                succ = succ.gauche;
+            succ = new Node(succ);
+            succ.droite = deleteMin(node.droite);
+            succ.gauche = node.gauche;
+            node = succ;
+        }
+
+        return rebalance(node);
+    }
+
+    // Détache le plus petit nœud d'un sous-arbre et retourne le sous-arbre rééquilibré
+    private Node deleteMin(Node node) {
+        if (node.gauche == null)
+            return node.droite;
+        node = new Node(node);
+        node.gauche = deleteMin(node.gauche);
+        return rebalance(node);
+    }
+
+    // Met à jour la hauteur et corrige le déséquilibre après une suppression
+    private Node rebalance(Node node) {
+        node.height = 1 + Math.max(height(node.gauche), height(node.droite));
+        int balance = getBalance(node);
+
+        if (balance > 1) {
+            if (getBalance(node.gauche) < 0)
+                node.gauche = rotateLeft(node.gauche);  // Cas gauche-droite
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (getBalance(node.droite) > 0)
+                node.droite = rotateRight(node.droite);  // Cas droite-gauche
+            return rotateLeft(node);
+        }
+        return node;
     }
 
     // Cherche un mot dans l'arbre et retourne le nœud correspondant
     public Node rechercher(String racine) {
-        Node current = root;
+        return rechercher(root, racine);  // Lecture unique de la version publiée
+    }
+
+    // Recherche dans une version donnée de l'arbre
+    private static Node rechercher(Node current, String racine) {
         while (current != null) {
             if (racine.equals(current.racine))
                 return current;
@@ -118,10 +328,11 @@ public class AVLTree {
     // Affiche toutes les racines et leurs dérivés dans l'ordre alphabétique
     public void afficher() {
         System.out.println("\n=== RACINES ET DÉRIVÉS ===");
-        if (root == null)
+        Node r = root;
+        if (r == null)
             System.out.println("Aucune racine");
         else
-            inOrder(root);
+            inOrder(r);
     }
 
     // Parcours infixe (gauche, racine, droite) pour afficher dans l'ordre
@@ -135,7 +346,7 @@ public class AVLTree {
 
     // ================= Méthodes pour l'analyse inversée =================
     
-    // Récupère tous les nœuds de l'arbre dans une liste
+    // Récupère tous les nœuds de l'arbre dans une liste (instantané cohérent)
     public List<Node> getAllNodes() {
         List<Node> nodes = new ArrayList<>();
         inOrderCollect(root, nodes);
@@ -150,4 +361,24 @@ public class AVLTree {
             inOrderCollect(node.droite, nodes);
         }
     }
-}
\ No newline at end of file
+
+    // Vérifie les invariants de l'arbre : ordre infixe strict, hauteurs et équilibre AVL
+    // Utilisé par les tests de charge concurrente
+    public boolean verifier() {
+        return verifier(root, null, null) >= 0;
+    }
+
+    // Retourne la hauteur du sous-arbre, ou -1 si un invariant est violé
+    private int verifier(Node node, String min, String max) {
+        if (node == null)
+            return 0;
+        if ((min != null && node.racine.compareTo(min) <= 0) || (max != null && node.racine.compareTo(max) >= 0))
+            return -1;
+        int hg = verifier(node.gauche, min, node.racine);
+        int hd = verifier(node.droite, node.racine, max);
+        if (hg < 0 || hd < 0 || Math.abs(hg - hd) > 1)
+            return -1;
+        int h = 1 + Math.max(hg, hd);
+        return (h == node.height) ? h : -1;
+    }
+}
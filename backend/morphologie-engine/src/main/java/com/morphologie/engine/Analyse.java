@@ -0,0 +1,20 @@
+package com.morphologie.engine;
+
+// Résultat d'une analyse inversée : le couple (racine, schème) qui produit un mot
+public class Analyse {
+    private final String racine;  // La racine de 3 lettres
+    private final String scheme;  // Le nom du schème appliqué
+
+    public Analyse(String racine, String scheme) {
+        this.racine = racine;
+        this.scheme = scheme;
+    }
+
+    public String getRacine() {
+        return racine;
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+}
@@ -0,0 +1,95 @@
+package com.morphologie.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache des dérivés chargés à la demande : au plus "capacite" racines gardent leurs
+// dérivés en mémoire, les moins récemment utilisées sont déchargées (LRU)
+// La mémoire dépend alors des racines réellement consultées, pas de tout l'historique
+// Sans chargeur, le cache est inactif et tous les dérivés restent en mémoire (CLI)
+public class CacheDerives {
+    private final ChargeurDerives chargeur;
+    private final int capacite;
+    private final LinkedHashMap<DerivesRacine, Boolean> charges;  // Ordre d'accès : la plus ancienne en tête
+
+    private final AtomicLong acces = new AtomicLong();
+    private final AtomicLong chargements = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CacheDerives(ChargeurDerives chargeur, int capacite) {
+        if (chargeur != null && capacite < 1)
+            throw new IllegalArgumentException("Capacité du cache invalide : " + capacite);
+        this.chargeur = chargeur;
+        this.capacite = capacite;
+        this.charges = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    boolean aUnChargeur() {
+        return chargeur != null;
+    }
+
+    void charger(String racine, List<String> mots, List<String> schemes) {
+        chargeur.charger(racine, mots, schemes);
+    }
+
+    // Enregistre un accès ; les racines évincées sont déchargées hors du verrou du cache
+    // (une racine prend son propre verrou puis celui du cache, jamais l'inverse)
+    void acceder(DerivesRacine d, boolean chargement) {
+        acces.incrementAndGet();
+        if (chargement) chargements.incrementAndGet();
+        List<DerivesRacine> victimes = null;
+        synchronized (charges) {
+            charges.put(d, Boolean.TRUE);
+            Iterator<DerivesRacine> it = charges.keySet().iterator();
+            while (charges.size() > capacite && it.hasNext()) {
+                DerivesRacine v = it.next();
+                it.remove();
+                if (victimes == null) victimes = new ArrayList<>();
+                victimes.add(v);
+            }
+        }
+        if (victimes != null) {
+            for (DerivesRacine v : victimes) v.decharger();
+            evictions.addAndGet(victimes.size());
+        }
+    }
+
+    // Oublie une racine supprimée du moteur
+    void oublier(DerivesRacine d) {
+        synchronized (charges) {
+            charges.remove(d);
+        }
+        d.decharger();
+    }
+
+    // ================= Statistiques =================
+    public boolean estActif() {
+        return chargeur != null;
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    // Nombre de racines dont les dérivés sont en mémoire
+    public int getTaille() {
+        synchronized (charges) {
+            return charges.size();
+        }
+    }
+
+    public long getAcces() {
+        return acces.get();
+    }
+
+    public long getChargements() {
+        return chargements.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+}
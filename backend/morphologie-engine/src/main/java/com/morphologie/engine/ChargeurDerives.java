@@ -0,0 +1,10 @@
+package com.morphologie.engine;
+
+import java.util.List;
+
+// Source des dérivés persistés d'une racine (base de données, fichier...)
+// Utilisé par CacheDerives pour charger les dérivés à la demande
+public interface ChargeurDerives {
+    // Ajoute dans mots et schemes (par paires) les dérivés connus de la racine
+    void charger(String racine, List<String> mots, List<String> schemes);
+}
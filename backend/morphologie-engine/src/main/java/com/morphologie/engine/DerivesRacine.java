@@ -0,0 +1,223 @@
+package com.morphologie.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Dérivés d'une racine, partagés par toutes les copies de son nœud (arbre persistant)
+// Stockage compact : un tableau d'entiers (idMot, idSchème) par paires, les mots et les
+// noms de schèmes eux-mêmes étant dans le dictionnaire du moteur
+// Sans chargeur : tableau créé au premier ajout, jamais déchargé
+// Avec chargeur : tableau chargé à la première lecture puis déchargeable par le cache ;
+// un ajout sur des dérivés non chargés est ignoré, la base (qui reçoit aussi le mot) fait foi
+final class DerivesRacine {
+
+    // Au-delà de ce nombre de mots, les doublons sont détectés par hachage et non plus par parcours
+    private static final int SEUIL_HACHAGE = 16;
+
+    // Paires publiées avec leur nombre : le tableau n'est jamais modifié en deçà de 2 * n,
+    // un lecteur voit donc toujours un préfixe cohérent même pendant un ajout
+    // Les identifiants de mots appartiennent à la génération "mots" du dictionnaire
+    static final class Paires {
+        final int[] data;  // idMot en 2i, idSchème en 2i + 1
+        final int n;
+        final DictionnaireDerives.Mots mots;  // null si aucune paire
+
+        Paires(int[] data, int n, DictionnaireDerives.Mots mots) {
+            this.data = data;
+            this.n = n;
+            this.mots = mots;
+        }
+
+        int idMot(int i) {
+            return data[2 * i];
+        }
+
+        // Mot de la paire i, décodé dans la génération de ses identifiants
+        String mot(int i) {
+            return mots.mot(idMot(i));
+        }
+
+        int idScheme(int i) {
+            return data[2 * i + 1];
+        }
+    }
+
+    static final Paires VIDE = new Paires(new int[0], 0, null);
+
+    final String racine;
+    final DictionnaireDerives dico;
+    private final CacheDerives cache;   // null : dérivés toujours en mémoire
+    private volatile Paires paires;     // null : aucun dérivé, ou pas encore chargés
+    private int[] vus;                  // Hachage des idMot présents (écrivains seulement), null si peu de mots
+
+    DerivesRacine(String racine, CacheDerives cache, DictionnaireDerives dico) {
+        this.racine = racine;
+        this.dico = dico;
+        this.cache = (cache != null && cache.aUnChargeur()) ? cache : null;
+    }
+
+    // Dérivés de la racine, chargés si besoin
+    Paires lire() {
+        Paires p = paires;
+        boolean charge = false;
+        if (p == null) {
+            if (cache == null) return VIDE;
+            synchronized (this) {
+                p = paires;
+                if (p == null) {
+                    List<String> mots = new ArrayList<>();
+                    List<String> schemes = new ArrayList<>();
+                    cache.charger(racine, mots, schemes);
+                    p = VIDE;
+                    for (int i = 0; i < mots.size(); i++) {
+                        p = ajouterA(p, mots.get(i), schemes.get(i));
+                    }
+                    p = ajuster(p);
+                    paires = p;  // Publication une fois le chargement complet
+                    charge = true;
+                }
+            }
+        }
+        if (cache != null) cache.acceder(this, charge);
+        return p;
+    }
+
+    // Dérivés déjà en mémoire, sans déclencher de chargement (null sinon)
+    Paires siCharges() {
+        Paires p = paires;
+        return (p == null && cache == null) ? VIDE : p;
+    }
+
+    // Ajoute un mot et son schème (les doublons sont ignorés)
+    void ajouter(String mot, String scheme) {
+        synchronized (this) {
+            if (!modifiable()) return;
+            paires = ajouterA(paires, mot, scheme);
+        }
+        if (cache != null) cache.acceder(this, false);
+    }
+
+    // Ajoute plusieurs mots, publiés en une seule fois
+    void ajouterTout(List<String> mots, List<String> schemes) {
+        synchronized (this) {
+            if (!modifiable()) return;
+            Paires p = paires;
+            for (int i = 0; i < mots.size(); i++) {
+                p = ajouterA(p, mots.get(i), schemes.get(i));
+            }
+            paires = ajuster(p);
+        }
+        if (cache != null) cache.acceder(this, false);
+    }
+
+    // Vrai si les dérivés sont en mémoire (ou créables) ; appelé sous verrou
+    private boolean modifiable() {
+        if (paires == null && cache == null) paires = VIDE;
+        return paires != null;
+    }
+
+    // Ajout d'une paire (sous verrou) : dédoublonnage en O(1), par parcours tant que la racine
+    // a peu de mots ; retourne les nouvelles paires, que l'appelant publie
+    // Des paires d'une génération compactée sont d'abord réencodées dans la courante
+    private Paires ajouterA(Paires p, String mot, String scheme) {
+        DictionnaireDerives.Mots generation = dico.courante();
+        if (p.n > 0 && p.mots != generation) p = reencoder(p, generation);
+        int idMot = dico.idMot(generation, mot);
+        if (contient(p, idMot)) return p;
+
+        int[] data = p.data;
+        if (2 * p.n + 2 > data.length) {
+            data = Arrays.copyOf(data, Math.max(4, data.length * 2));
+        }
+        data[2 * p.n] = idMot;
+        data[2 * p.n + 1] = dico.idScheme(scheme);
+        Paires suivantes = new Paires(data, p.n + 1, generation);
+
+        if (vus != null) {
+            inserer(vus, idMot);
+            if (4 * suivantes.n > vus.length * 3) vus = hacher(suivantes, vus.length * 2);
+        } else if (suivantes.n > SEUIL_HACHAGE) {
+            vus = hacher(suivantes, 4 * SEUIL_HACHAGE);
+        }
+        return suivantes;
+    }
+
+    // Tableau réduit à la taille exacte après un ajout en masse (pas de marge de croissance)
+    private static Paires ajuster(Paires p) {
+        if (p.n == 0 || p.data.length == 2 * p.n) return p;
+        return new Paires(Arrays.copyOf(p.data, 2 * p.n), p.n, p.mots);
+    }
+
+    private boolean contient(Paires p, int idMot) {
+        if (vus == null) {
+            for (int i = 0; i < p.n; i++) {
+                if (p.idMot(i) == idMot) return true;
+            }
+            return false;
+        }
+        int masque = vus.length - 1;
+        for (int i = mix(idMot) & masque; vus[i] != 0; i = (i + 1) & masque) {
+            if (vus[i] == idMot + 1) return true;
+        }
+        return false;
+    }
+
+    private static int[] hacher(Paires p, int taille) {
+        int[] table = new int[taille];
+        for (int i = 0; i < p.n; i++) inserer(table, p.idMot(i));
+        return table;
+    }
+
+    private static void inserer(int[] table, int idMot) {
+        int masque = table.length - 1;
+        int i = mix(idMot) & masque;
+        while (table[i] != 0) i = (i + 1) & masque;
+        table[i] = idMot + 1;
+    }
+
+    private static int mix(int x) {
+        int h = x * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Réencode les dérivés en mémoire dans la génération courante du dictionnaire
+    // (compaction) ; retourne le nombre de paires réencodées
+    synchronized int reencoder() {
+        Paires p = paires;
+        DictionnaireDerives.Mots generation = dico.courante();
+        if (p == null || p.n == 0 || p.mots == generation) return 0;
+        paires = reencoder(p, generation);
+        return p.n;
+    }
+
+    // Nouvelles paires (nouveau tableau) avec les identifiants de la génération donnée ;
+    // la table des doublons est reconstruite sur ces identifiants (sous verrou)
+    private Paires reencoder(Paires p, DictionnaireDerives.Mots generation) {
+        int[] data = new int[2 * p.n];
+        for (int i = 0; i < p.n; i++) {
+            data[2 * i] = dico.idMot(generation, p.mot(i));
+            data[2 * i + 1] = p.idScheme(i);
+        }
+        Paires q = new Paires(data, p.n, generation);
+        vus = q.n > SEUIL_HACHAGE ? hacher(q, Integer.highestOneBit(q.n) * 4) : null;
+        return q;
+    }
+
+    // Libère le tableau (appelé par le cache) ; il sera rechargé à la prochaine lecture
+    synchronized void decharger() {
+        if (cache != null) {
+            paires = null;
+            vus = null;
+        }
+    }
+
+    // Octets occupés par les dérivés en mémoire (tableau, objet Paires, table de hachage)
+    synchronized long octetsOccupes() {
+        Paires p = paires;
+        if (p == null || p == VIDE) return 0;
+        long total = 16 + 16 + 4L * p.data.length;
+        if (vus != null) total += 16 + 4L * vus.length;
+        return total;
+    }
+}
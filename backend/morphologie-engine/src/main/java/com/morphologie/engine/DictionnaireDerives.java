@@ -0,0 +1,214 @@
+package com.morphologie.engine;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Dictionnaire des mots dérivés et des noms de schèmes d'un moteur
+// Chaque mot distinct est stocké une seule fois et identifié par un entier ; les nœuds
+// ne gardent que des paires (idMot, idSchème) au lieu de deux listes de String
+//
+// Les mots sont encodés sur 1 octet par lettre (page de code arabe) :
+//   octet 0x01..0xDF -> caractère U+0620 + octet (bloc arabe U+0621..U+06FF)
+//   octet 0xFF       -> caractère hors page, suivi de ses 2 octets UTF-16
+// Un mot arabe de 5 lettres occupe donc 5 octets au lieu d'un String (~56 octets)
+//
+// Les mots sont rangés par génération (Mots) : un mot n'est jamais retiré d'une génération,
+// mais compacter() en ouvre une nouvelle, vide, dans laquelle le moteur réencode les dérivés
+// encore en mémoire ; les mots des racines déchargées ou supprimées restent dans l'ancienne,
+// libérée dès que plus aucun dérivé ne la désigne. Chaque jeu de dérivés garde la génération
+// de ses identifiants : un lecteur décode toujours dans la bonne
+//
+// Écritures (nouveaux mots / schèmes) synchronisées, lectures sans verrou : un identifiant
+// n'est publié qu'après l'écriture complète du mot dans les tableaux
+public class DictionnaireDerives {
+
+    private static final int BASE = 0x0620;     // Premier caractère de la page (exclu)
+    private static final int DERNIER = 0x06FF;  // Dernier caractère de la page
+    private static final int ECHAPPEMENT = 0xFF;
+
+    // Dictionnaire commun aux nœuds créés hors d'un moteur (new Node(racine))
+    private static final DictionnaireDerives DEFAUT = new DictionnaireDerives();
+
+    // Génération courante : les nouveaux identifiants y sont attribués
+    private volatile Mots mots = new Mots();
+    private long compactions;
+
+    // Schèmes : quelques dizaines de noms, tableau copié à chaque ajout (jamais compacté)
+    private volatile String[] schemes = new String[0];
+    private final HashMap<String, Integer> idsSchemes = new HashMap<>();
+
+    static DictionnaireDerives defaut() {
+        return DEFAUT;
+    }
+
+    // ================= Générations de mots =================
+    // Mots : octets concaténés, début de chaque mot (debuts[id + 1] = fin du mot id)
+    static final class Mots {
+        private volatile byte[] octets = new byte[1024];
+        private volatile int[] debuts = new int[257];
+        private int nombre;                   // Écrivains seulement (verrou du dictionnaire)
+        private int[] table = new int[512];   // Hachage ouvert : id + 1, 0 = case libre
+
+        // Mot correspondant à un identifiant (décodé à chaque appel)
+        String mot(int id) {
+            int[] d = debuts;
+            byte[] o = octets;
+            int debut = d[id], fin = d[id + 1];
+            char[] lettres = new char[fin - debut];
+            int n = 0;
+            for (int k = debut; k < fin; k++) {
+                int b = o[k] & 0xFF;
+                if (b == ECHAPPEMENT) {
+                    lettres[n++] = (char) (((o[k + 1] & 0xFF) << 8) | (o[k + 2] & 0xFF));
+                    k += 2;
+                } else {
+                    lettres[n++] = (char) (BASE + b);
+                }
+            }
+            return new String(lettres, 0, n);
+        }
+
+        private int id(String mot) {
+            int masque = table.length - 1;
+            int i = mot.hashCode() & masque;
+            while (table[i] != 0) {
+                if (egal(table[i] - 1, mot)) return table[i] - 1;
+                i = (i + 1) & masque;
+            }
+
+            int id = nombre;
+            ecrire(id, mot);
+            table[i] = id + 1;
+            nombre = id + 1;
+            if (nombre * 2 > table.length) agrandirTable();
+            return id;
+        }
+
+        private void ecrire(int id, String mot) {
+            int[] d = debuts;
+            if (id + 2 > d.length) {
+                d = Arrays.copyOf(d, d.length * 2);
+                debuts = d;
+            }
+            int debut = d[id];
+            byte[] o = octets;
+            if (debut + mot.length() * 3 > o.length) {
+                o = Arrays.copyOf(o, Math.max(o.length * 2, debut + mot.length() * 3));
+                octets = o;
+            }
+            int k = debut;
+            for (int i = 0; i < mot.length(); i++) {
+                char c = mot.charAt(i);
+                if (c > BASE && c <= DERNIER) {
+                    o[k++] = (byte) (c - BASE);
+                } else {
+                    o[k++] = (byte) ECHAPPEMENT;
+                    o[k++] = (byte) (c >>> 8);
+                    o[k++] = (byte) c;
+                }
+            }
+            d[id + 1] = k;  // Écrit en dernier : le mot est complet
+        }
+
+        // Compare le mot stocké sous id à une chaîne, sans décoder
+        private boolean egal(int id, String mot) {
+            int k = debuts[id], fin = debuts[id + 1];
+            byte[] o = octets;
+            for (int i = 0; i < mot.length(); i++) {
+                if (k >= fin) return false;
+                char c = mot.charAt(i);
+                int b = o[k] & 0xFF;
+                if (b == ECHAPPEMENT) {
+                    if (c != (char) (((o[k + 1] & 0xFF) << 8) | (o[k + 2] & 0xFF))) return false;
+                    k += 3;
+                } else {
+                    if (c != BASE + b) return false;
+                    k++;
+                }
+            }
+            return k == fin;
+        }
+
+        private void agrandirTable() {
+            int[] nouvelle = new int[table.length * 2];
+            int masque = nouvelle.length - 1;
+            for (int id = 0; id < nombre; id++) {
+                int i = mot(id).hashCode() & masque;
+                while (nouvelle[i] != 0) i = (i + 1) & masque;
+                nouvelle[i] = id + 1;
+            }
+            table = nouvelle;
+        }
+
+        private long octetsOccupes() {
+            return 16 + octets.length + 16 + 4L * debuts.length + 16 + 4L * table.length;
+        }
+    }
+
+    // Génération courante
+    Mots courante() {
+        return mots;
+    }
+
+    // ================= Mots =================
+    // Identifiant du mot dans la génération courante, ajouté s'il est nouveau
+    public synchronized int idMot(String mot) {
+        return mots.id(mot);
+    }
+
+    // Identifiant du mot dans une génération donnée (celle des dérivés qui le reçoivent)
+    synchronized int idMot(Mots generation, String mot) {
+        return generation.id(mot);
+    }
+
+    // Mot correspondant à un identifiant de la génération courante
+    public String mot(int id) {
+        return mots.mot(id);
+    }
+
+    // Nombre de mots distincts de la génération courante
+    public synchronized int nombreMots() {
+        return mots.nombre;
+    }
+
+    // Ouvre une génération vide : l'appelant y réencode les dérivés encore en mémoire
+    // (voir Morphologie.compacterDictionnaire)
+    synchronized void compacter() {
+        mots = new Mots();
+        compactions++;
+    }
+
+    // Nombre de compactions depuis la création
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    // ================= Schèmes =================
+    // Identifiant d'un nom de schème, ajouté s'il est nouveau
+    public synchronized int idScheme(String nom) {
+        Integer id = idsSchemes.get(nom);
+        if (id != null) return id;
+        String[] copie = Arrays.copyOf(schemes, schemes.length + 1);
+        copie[schemes.length] = nom;
+        schemes = copie;
+        idsSchemes.put(nom, copie.length - 1);
+        return copie.length - 1;
+    }
+
+    public String scheme(int id) {
+        return schemes[id];
+    }
+
+    // ================= Mémoire =================
+    // Octets occupés par la génération courante du dictionnaire (tableaux + en-têtes)
+    public synchronized long octetsOccupes() {
+        long total = mots.octetsOccupes();
+        for (String s : schemes) total += 40 + 2L * s.length();
+        return total;
+    }
+
+    // Octets réellement utilisés par les lettres des mots
+    public synchronized long octetsMots() {
+        return mots.debuts[mots.nombre];
+    }
+}
@@ -0,0 +1,315 @@
+package com.morphologie.engine;
+
+import com.morphologie.utils.RTLFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// Index des racines pour un lexique lu bien plus souvent qu'il n'est modifié
+// - partie figée : racines triées, clés long rangées en ordre d'Eytzinger (parcours en
+//   largeur d'un arbre binaire complet : les premiers niveaux tiennent dans quelques lignes
+//   de cache) et recherche sans branchement ; tableau trié des nœuds pour les parcours
+//   dans l'ordre et les plages ;
+// - delta : arbre AVL persistant qui reçoit les ajouts depuis le dernier gel, et liste
+//   triée des clés figées supprimées depuis ;
+// - gel : partie figée + delta - supprimées reconstruits en O(n), automatiquement quand
+//   le delta dépasse 1/8 de la partie figée, ou à la demande (tâche périodique de l'API).
+// Lectures sans verrou sur un état publié d'un coup (champ volatile), écritures
+// sérialisées par synchronized. Les racines non tassables (plus de 3 lettres) restent
+// dans le delta.
+public class IndexFige implements RootIndex {
+
+    private static final long NON_GELABLE = -1L;
+    private static final int SEUIL_DELTA_MIN = 4096;
+
+    // Partie figée, jamais modifiée une fois construite
+    private static final class Gel {
+        final int n;
+        final long[] cles;     // Ordre d'Eytzinger, indices 1..n
+        final Node[] noeuds;   // Nœud de cles[k]
+        final Node[] tries;    // Nœuds par ordre alphabétique, indices 0..n-1
+
+        Gel(Node[] tries) {
+            this.n = tries.length;
+            this.tries = tries;
+            this.cles = new long[n + 1];
+            this.noeuds = new Node[n + 1];
+            remplir(0, 1);
+        }
+
+        // Parcours infixe de l'arbre implicite (fils de k : 2k et 2k + 1) : les nœuds triés
+        // y sont déposés dans l'ordre
+        private int remplir(int i, int k) {
+            if (k <= n) {
+                i = remplir(i, 2 * k);
+                cles[k] = cle(tries[i].racine);
+                noeuds[k] = tries[i];
+                i++;
+                i = remplir(i, 2 * k + 1);
+            }
+            return i;
+        }
+
+        // Nœud de la clé, null si absente ; la boucle ne fait que descendre (2k ou 2k + 1)
+        // selon une comparaison, puis on remonte au dernier pas à gauche
+        Node rechercher(long cle) {
+            long[] c = cles;
+            int k = 1;
+            while (k <= n)
+                k = 2 * k + (c[k] < cle ? 1 : 0);
+            k >>>= Integer.numberOfTrailingZeros(~k) + 1;  // Premier élément >= cle (0 : aucun)
+            return (k != 0 && c[k] == cle) ? noeuds[k] : null;
+        }
+    }
+
+    // État publié : une lecture voit toujours une partie figée, ses suppressions et son delta cohérents
+    private static final class Etat {
+        final Gel gel;
+        final long[] supprimees;  // Clés figées supprimées depuis le gel (triées)
+        final AVLTree delta;
+        final int nonGelables;    // Racines non tassables reprises dans le delta au gel
+
+        Etat(Gel gel, long[] supprimees, AVLTree delta, int nonGelables) {
+            this.gel = gel;
+            this.supprimees = supprimees;
+            this.delta = delta;
+            this.nonGelables = nonGelables;
+        }
+
+        // Écritures en attente d'un gel
+        int enAttente() {
+            return delta.taille() - nonGelables + supprimees.length;
+        }
+
+        Node rechercher(String racine) {
+            long k = cle(racine);
+            if (k != NON_GELABLE) {
+                Node n = gel.rechercher(k);
+                if (n != null && Arrays.binarySearch(supprimees, k) < 0)
+                    return n;
+            }
+            return delta.rechercher(racine);  // Racine ajoutée (ou rajoutée) depuis le gel
+        }
+    }
+
+    private volatile Etat etat;
+    private volatile int taille;
+    private volatile long gels;  // Nombre de gels effectués
+    private final CacheDerives cacheDerives;
+    private final DictionnaireDerives dico;
+
+    public IndexFige() {
+        this(null, new DictionnaireDerives());
+    }
+
+    public IndexFige(CacheDerives cacheDerives, DictionnaireDerives dico) {
+        this.cacheDerives = cacheDerives;
+        this.dico = dico;
+        this.etat = new Etat(new Gel(new Node[0]), new long[0], new AVLTree(cacheDerives, dico), 0);
+    }
+
+    // ================= Clés =================
+    // Clé d'une racine d'au plus 3 lettres, caractères alignés à gauche (16 bits chacun) :
+    // l'ordre des clés est l'ordre alphabétique des racines ("ab" < "aba" < "abb")
+    // NON_GELABLE pour une racine vide, trop longue ou contenant le caractère nul
+    static long cle(String racine) {
+        int n = racine.length();
+        if (n == 0 || n > 3)
+            return NON_GELABLE;
+        long k = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = i < n ? racine.charAt(i) : 0;
+            if (i < n && c == 0)
+                return NON_GELABLE;
+            k = (k << 16) | c;
+        }
+        return k;
+    }
+
+    // ================= Lectures =================
+    public Node rechercher(String racine) {
+        return etat.rechercher(racine);
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    // Fusion des nœuds figés (hors supprimés) et du delta, tous deux déjà triés : O(n)
+    public List<Node> getAllNodes() {
+        Etat e = etat;
+        return fusionner(e, 0, e.gel.n, e.delta.getAllNodes());
+    }
+
+    // Racines de la plage [debut, fin) dans l'ordre alphabétique
+    // (debut null : depuis le début, fin null : jusqu'au bout)
+    public List<Node> plage(String debut, String fin) {
+        Etat e = etat;
+        Node[] t = e.gel.tries;
+        int de = debut == null ? 0 : premierAuMoins(t, debut);
+        int a = fin == null ? t.length : premierAuMoins(t, fin);
+        List<Node> delta = new ArrayList<>();
+        for (Node n : e.delta.getAllNodes()) {
+            if ((debut == null || n.racine.compareTo(debut) >= 0) && (fin == null || n.racine.compareTo(fin) < 0))
+                delta.add(n);
+        }
+        return fusionner(e, de, Math.max(de, a), delta);
+    }
+
+    // Premier indice de t dont la racine est >= borne (recherche dichotomique)
+    private static int premierAuMoins(Node[] t, String borne) {
+        int lo = 0, hi = t.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (t[mid].racine.compareTo(borne) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static List<Node> fusionner(Etat e, int de, int a, List<Node> delta) {
+        Node[] t = e.gel.tries;
+        List<Node> nodes = new ArrayList<>(a - de + delta.size());
+        int j = 0;
+        for (int i = de; i < a; i++) {
+            Node n = t[i];
+            if (e.supprimees.length > 0 && Arrays.binarySearch(e.supprimees, cle(n.racine)) >= 0)
+                continue;
+            while (j < delta.size() && delta.get(j).racine.compareTo(n.racine) < 0)
+                nodes.add(delta.get(j++));
+            nodes.add(n);
+        }
+        while (j < delta.size())
+            nodes.add(delta.get(j++));
+        return nodes;
+    }
+
+    public DictionnaireDerives getDictionnaire() {
+        return dico;
+    }
+
+    // Taille du delta (racines ajoutées + supprimées depuis le dernier gel)
+    public int tailleDelta() {
+        return etat.enAttente();
+    }
+
+    public long getGels() {
+        return gels;
+    }
+
+    public void afficher() {
+        System.out.println("\n=== RACINES ET DÉRIVÉS ===");
+        List<Node> nodes = getAllNodes();
+        if (nodes.isEmpty())
+            System.out.println("Aucune racine");
+        for (Node n : nodes)
+            n.afficher();
+    }
+
+    // ================= Écritures =================
+    public synchronized boolean addRacine(String racine) {
+        if (rechercher(racine) != null) {
+            System.out.println("⚠️ Racine déjà existante : " + RTLFormatter.rtl(racine));
+            return false;
+        }
+        ajouterAuDelta(List.of(racine));
+        System.out.println("✅ Racine ajoutée avec succès : " + RTLFormatter.rtl(racine));
+        return true;
+    }
+
+    public synchronized List<String> addRacines(Collection<String> racines) {
+        List<String> nouvelles = new ArrayList<>();
+        for (String r : racines) {
+            if (rechercher(r) == null)
+                nouvelles.add(r);
+        }
+        return ajouterAuDelta(nouvelles);
+    }
+
+    // Ajoute au delta (qui trie et dédoublonne le lot), puis regèle si le delta est trop gros
+    private List<String> ajouterAuDelta(List<String> racines) {
+        if (racines.isEmpty())
+            return racines;
+        List<String> ajoutees = etat.delta.addRacines(racines);
+        taille += ajoutees.size();
+        regelerSiBesoin();
+        return ajoutees;
+    }
+
+    public synchronized boolean supprimerRacine(String racine) {
+        Etat e = etat;
+        if (e.delta.supprimerRacine(racine)) {  // Le delta oublie lui-même les dérivés en cache
+            taille--;
+            return true;
+        }
+        long k = cle(racine);
+        Node n = k == NON_GELABLE ? null : e.gel.rechercher(k);
+        if (n == null || Arrays.binarySearch(e.supprimees, k) >= 0)
+            return false;
+
+        long[] supprimees = Arrays.copyOf(e.supprimees, e.supprimees.length + 1);
+        supprimees[supprimees.length - 1] = k;
+        Arrays.sort(supprimees);
+        etat = new Etat(e.gel, supprimees, e.delta, e.nonGelables);
+        taille--;
+        if (cacheDerives != null)
+            cacheDerives.oublier(n.derives);
+        regelerSiBesoin();
+        return true;
+    }
+
+    private void regelerSiBesoin() {
+        Etat e = etat;
+        if (e.enAttente() > Math.max(SEUIL_DELTA_MIN, e.gel.n / 8))
+            regeler();
+    }
+
+    // Reconstruit la partie figée avec le delta et repart d'un delta vide
+    // Les nœuds sont copiés sans leurs fils (les dérivés restent partagés) : la partie figée
+    // ne retient pas les anciens arbres du delta
+    public synchronized void regeler() {
+        Etat e = etat;
+        if (e.enAttente() <= 0)
+            return;
+        List<Node> gelables = new ArrayList<>(taille);
+        List<Node> nonGelables = new ArrayList<>();  // Restent dans le nouveau delta
+        for (Node n : getAllNodes()) {
+            if (cle(n.racine) == NON_GELABLE) {
+                nonGelables.add(n);
+                continue;
+            }
+            Node copie = new Node(n);
+            copie.gauche = null;
+            copie.droite = null;
+            copie.height = 1;
+            gelables.add(copie);
+        }
+        AVLTree reste = new AVLTree(cacheDerives, dico, nonGelables);
+        etat = new Etat(new Gel(gelables.toArray(new Node[0])), new long[0], reste, nonGelables.size());
+        gels++;
+    }
+
+    // ================= Vérification =================
+    // Clés figées triées dans l'ordre infixe et cohérentes avec les nœuds, delta équilibré,
+    // aucune racine à la fois figée (non supprimée) et dans le delta, taille exacte
+    public synchronized boolean verifier() {
+        Etat e = etat;
+        Gel g = e.gel;
+        for (int i = 0; i < g.n; i++) {
+            long k = cle(g.tries[i].racine);
+            if (i > 0 && cle(g.tries[i - 1].racine) >= k)
+                return false;
+            if (g.rechercher(k) != g.tries[i])
+                return false;
+        }
+        if (!e.delta.verifier())
+            return false;
+        for (Node n : e.delta.getAllNodes()) {
+            long k = cle(n.racine);
+            if (k != NON_GELABLE && g.rechercher(k) != null && Arrays.binarySearch(e.supprimees, k) < 0)
+                return false;
+        }
+        return taille == g.n - e.supprimees.length + e.delta.taille();
+    }
+}
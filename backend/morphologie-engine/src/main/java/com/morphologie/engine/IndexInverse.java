@@ -0,0 +1,124 @@
+package com.morphologie.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Index inversé : mot généré -> liste des couples (racine, schème) qui le produisent
+// Il est construit au démarrage puis mis à jour à chaque ajout / suppression
+// de racine ou de schème, ce qui ramène l'analyse inversée à une seule recherche
+// Lectures sans verrou : chaque liste d'analyses est immuable et remplacée en bloc ;
+// les écritures sont sérialisées par le moteur (Morphologie)
+// Les mots sont rangés dans un trie, qui sert à la fois à la recherche exacte et à la
+// recherche par préfixe (chaque mot n'est stocké qu'une fois), et les analyses sous leur
+// squelette normalisé (sans voyelles, hamza unifiée...) pour l'analyse tolérante
+public class IndexInverse {
+    private final TriePrefixes<List<Analyse>> mots = new TriePrefixes<>();  // Mot -> analyses (listes immuables)
+    private final ConcurrentHashMap<String, List<Analyse>> squelettes = new ConcurrentHashMap<>();  // Squelette -> analyses
+
+    // Indexe tous les mots d'une racine pour les schèmes donnés
+    public void indexerRacine(String racine, Collection<Scheme> schemes) {
+        for (Scheme s : schemes) {
+            ajouter(s.generate(racine), racine, s.nom);
+        }
+    }
+
+    // Retire tous les mots d'une racine pour les schèmes donnés
+    public void retirerRacine(String racine, Collection<Scheme> schemes) {
+        for (Scheme s : schemes) {
+            retirer(s.generate(racine), racine, s.nom);
+        }
+    }
+
+    // Indexe les mots d'un schème pour toutes les racines données
+    public void indexerScheme(Scheme s, Collection<String> racines) {
+        for (String racine : racines) {
+            ajouter(s.generate(racine), racine, s.nom);
+        }
+    }
+
+    // Retire les mots d'un schème pour toutes les racines données
+    public void retirerScheme(Scheme s, Collection<String> racines) {
+        for (String racine : racines) {
+            retirer(s.generate(racine), racine, s.nom);
+        }
+    }
+
+    // Retourne les analyses d'un mot (liste vide si le mot est inconnu)
+    public List<Analyse> rechercher(String mot) {
+        List<Analyse> analyses = mots.valeur(mot);
+        return analyses == null ? Collections.emptyList() : analyses;
+    }
+
+    // Analyses des mots dont le squelette est celui du mot donné (voir NormaliseurArabe)
+    // Une recherche de plus que l'analyse exacte, sans parcours des racines
+    public List<Analyse> rechercherNormalise(String mot) {
+        if (mot == null) return Collections.emptyList();
+        List<Analyse> analyses = squelettes.get(NormaliseurArabe.normaliser(mot));
+        return analyses == null ? Collections.emptyList() : analyses;
+    }
+
+    // Au plus k mots indexés commençant par le préfixe (ordre alphabétique)
+    public List<String> rechercherPrefixe(String prefixe, int k) {
+        return mots.rechercher(prefixe, k);
+    }
+
+    // Nombre de mots distincts dans l'index
+    public int taille() {
+        return mots.taille();
+    }
+
+    private void ajouter(String mot, String racine, String scheme) {
+        if (mot == null) return;
+        Analyse analyse = new Analyse(racine, scheme);
+        List<Analyse> analyses = avec(mots.valeur(mot), analyse);
+        if (analyses == null) return;  // Couple déjà indexé
+        mots.mettre(mot, analyses);
+        String squelette = NormaliseurArabe.normaliser(mot);
+        analyses = avec(squelettes.get(squelette), analyse);
+        if (analyses != null) squelettes.put(squelette, analyses);
+    }
+
+    private void retirer(String mot, String racine, String scheme) {
+        if (mot == null) return;
+        List<Analyse> analyses = sans(mots.valeur(mot), racine, scheme);
+        if (analyses == null) return;
+        if (analyses.isEmpty())
+            mots.enlever(mot);  // Plus aucun couple ne produit ce mot
+        else
+            mots.mettre(mot, analyses);
+        String squelette = NormaliseurArabe.normaliser(mot);
+        analyses = sans(squelettes.get(squelette), racine, scheme);
+        if (analyses == null) return;
+        if (analyses.isEmpty())
+            squelettes.remove(squelette);
+        else
+            squelettes.put(squelette, analyses);
+    }
+
+    // Copie immuable de la liste avec le couple en plus ; null s'il y était déjà
+    private static List<Analyse> avec(List<Analyse> analyses, Analyse analyse) {
+        if (analyses == null)
+            return Collections.singletonList(analyse);
+        for (Analyse a : analyses) {
+            if (a.getRacine().equals(analyse.getRacine()) && a.getScheme().equals(analyse.getScheme()))
+                return null;
+        }
+        List<Analyse> copie = new ArrayList<>(analyses.size() + 1);
+        copie.addAll(analyses);
+        copie.add(analyse);
+        return Collections.unmodifiableList(copie);
+    }
+
+    // Copie immuable de la liste sans le couple (vide s'il était le seul) ; null s'il n'y
+    // était pas
+    private static List<Analyse> sans(List<Analyse> analyses, String racine, String scheme) {
+        if (analyses == null) return null;
+        List<Analyse> copie = new ArrayList<>(analyses);
+        copie.removeIf(a -> a.getRacine().equals(racine) && a.getScheme().equals(scheme));
+        if (copie.size() == analyses.size()) return null;
+        return copie.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(copie);
+    }
+}
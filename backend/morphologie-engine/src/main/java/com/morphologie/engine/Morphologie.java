@@ -1,24 +1,57 @@
 package com.morphologie.engine;
 import com.morphologie.utils.RTLFormatter;
-import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+// Moteur partagé entre plusieurs threads (API) :
+// - les lectures (recherche, génération, validation, analyse) ne prennent aucun verrou
+//   et travaillent sur des instantanés (arbre persistant, table des schèmes copiée à l'écriture) ;
+// - les écritures (racines et schèmes) sont sérialisées par synchronized sur le moteur.
 public class Morphologie {
 
-    public AVLTree arbre;  // L'arbre qui contient toutes les racines
-    private HashMap<String, Scheme> schemes; // Table qui stocke les schèmes (patterns de dérivation)
+    public RootIndex arbre;  // L'index qui contient toutes les racines (arbre AVL ou table de hachage)
+    private volatile RegistreSchemes schemes; // Table des schèmes immuable et versionnée (voir RegistreSchemes)
+    private IndexInverse index;  // Index inversé mot -> (racine, schème), null si désactivé
+    private final TriePrefixes<Boolean> prefixesRacines = new TriePrefixes<>();  // Racines, pour l'autocomplétion
+    private final CacheDerives cacheDerives;  // Dérivés chargés à la demande (null si tout reste en mémoire)
+    private volatile long generation;      // Incrémentée à la fin de chaque écriture (racines ou schèmes)
+    private final Object compaction = new Object();  // Une compaction du dictionnaire à la fois
 
-    // Constructeur : initialise l'arbre et la table des schèmes
+    // Constructeur : initialise l'arbre, la table des schèmes et l'index inversé
     public Morphologie() {
-        arbre = new AVLTree();
-        schemes = new HashMap<>();
+        this(true);
+    }
+
+    // Constructeur avec choix de l'index inversé
+    // Sans index, l'analyse passe par les gabarits des schèmes (O(nombre de schèmes))
+    // et la mémoire ne dépend plus du produit racines × schèmes
+    public Morphologie(boolean avecIndex) {
+        this(avecIndex, null);
+    }
+
+    // Constructeur avec cache des dérivés : avec un chargeur, les dérivés d'une racine ne sont
+    // chargés qu'à la première consultation et les moins utilisés sont déchargés
+    // (null : tous les dérivés restent en mémoire)
+    public Morphologie(boolean avecIndex, CacheDerives cacheDerives) {
+        this(avecIndex, cacheDerives, RootIndex.Type.AVL);
+    }
+
+    // Constructeur avec choix de l'index des racines : AVL (ordre alphabétique natif) ou
+    // HASH (recherche en O(1) sur des clés long, tri à la demande pour les parcours)
+    public Morphologie(boolean avecIndex, CacheDerives cacheDerives, RootIndex.Type typeIndex) {
+        this.cacheDerives = cacheDerives;
+        arbre = RootIndex.creer(typeIndex, cacheDerives, new DictionnaireDerives());
+        index = avecIndex ? new IndexInverse() : null;
         initSchemes();  // On charge les schèmes de base
     }
 
     // ================= Initialisation des schèmes avec règles explicites =================
     // Cette méthode crée tous les schèmes de base du système
     private void initSchemes() {
+        LinkedHashMap<String, Scheme> schemes = new LinkedHashMap<>();  // Ordre de déclaration
 
         // NORMAL : فَعَلَ (forme de base du verbe)
         schemes.put("فَعَلَ", new Scheme("فَعَلَ",
@@ -64,6 +97,50 @@ public class Morphologie {
         // MAZID : فعول (forme de nom)
         schemes.put("فعول", new Scheme("فعول",
                 (c1, c2, c3) -> "م" + c1 + c2 + "و" + c3));
+
+        this.schemes = RegistreSchemes.initial(new ArrayList<>(schemes.values()));
+    }
+
+    // ================= Racines =================
+    // Ajoute une racine dans l'arbre et indexe tous ses mots
+    // Retourne true si la racine a été ajoutée
+    public synchronized boolean ajouterRacine(String racine) {
+        if (!arbre.addRacine(racine))
+            return false;
+        prefixesRacines.mettre(racine, Boolean.TRUE);
+        if (index != null)
+            index.indexerRacine(racine, schemes.schemes());
+        generation++;
+        return true;
+    }
+
+    // Ajoute un lot de racines (import en masse) : une seule prise du verrou,
+    // aucun affichage par racine, puis indexation des racines nouvelles
+    // Retourne les racines réellement ajoutées
+    public synchronized List<String> ajouterRacines(Collection<String> racines) {
+        List<String> ajoutees = arbre.addRacines(racines);
+        for (String racine : ajoutees)
+            prefixesRacines.mettre(racine, Boolean.TRUE);
+        if (index != null) {
+            Collection<Scheme> table = schemes.schemes();
+            for (String racine : ajoutees)
+                index.indexerRacine(racine, table);
+        }
+        if (!ajoutees.isEmpty())
+            generation++;
+        return ajoutees;
+    }
+
+    // Supprime une racine de l'arbre et retire ses mots de l'index
+    // Retourne true si la racine existait
+    public synchronized boolean supprimerRacine(String racine) {
+        if (!arbre.supprimerRacine(racine))
+            return false;
+        prefixesRacines.enlever(racine);
+        if (index != null)
+            index.retirerRacine(racine, schemes.schemes());
+        generation++;
+        return true;
     }
 
     // ================= Génération =================
@@ -96,7 +173,7 @@ public class Morphologie {
     // Affiche tous les schèmes disponibles
     public void afficherSchemes() {
         System.out.println("\n=== SCHÈMES DISPONIBLES ===");
-        for (Scheme s : schemes.values()) {
+        for (Scheme s : schemes.tableau()) {
             String typeInfo = s.isDynamic ? " (dynamique)" : " (explicite)";
             System.out.println("- " + RTLFormatter.rtl(s.nom) + typeInfo);
         }
@@ -104,7 +181,7 @@ public class Morphologie {
 
     // ================= Modification / Suppression =================
     // Modifie un schème existant
-    public void modifierScheme(String nom, String nouveauPattern) {
+    public synchronized void modifierScheme(String nom, String nouveauPattern) {
         Scheme oldScheme = schemes.get(nom);
         if (oldScheme == null) {
             System.out.println("❌ Schème introuvable : " + RTLFormatter.rtl(nom));
@@ -117,16 +194,34 @@ public class Morphologie {
             return;
         }
         
+        // Un seul schème par nom dans le registre
+        if (!nouveauPattern.equals(nom) && schemes.contient(nouveauPattern)) {
+            System.out.println("❌ Ce schème existe déjà !");
+            return;
+        }
+        
         // Créer un nouveau schème dynamique avec le nouveau pattern
+        // L'index est mis à jour avant la publication de la table : un lecteur ne voit
+        // jamais la nouvelle table avec l'index de l'ancienne
         Scheme newScheme = new Scheme(nouveauPattern);
-        schemes.remove(nom);
-        schemes.put(nouveauPattern, newScheme);
+        if (index != null) {
+            List<String> racines = getAllRacines();
+            index.retirerScheme(oldScheme, racines);
+            index.indexerScheme(newScheme, racines);
+        }
+        schemes = schemes.remplacer(nom, newScheme);  // Publication de la nouvelle table, à la même place
+        generation++;
         System.out.println("✅ Schème modifié : " + RTLFormatter.rtl(nom) + " → " + RTLFormatter.rtl(nouveauPattern));
     }
 
     // Supprime un schème
-    public void supprimerScheme(String nom) {
-        if (schemes.remove(nom) != null) {
+    public synchronized void supprimerScheme(String nom) {
+        Scheme s = schemes.get(nom);
+        if (s != null) {
+            if (index != null)
+                index.retirerScheme(s, getAllRacines());
+            schemes = schemes.sans(nom);  // Après l'index, comme pour la modification
+            generation++;
             System.out.println("✅ Schème supprimé : " + RTLFormatter.rtl(nom));
         } else {
             System.out.println("❌ Schème introuvable : " + RTLFormatter.rtl(nom));
@@ -142,39 +237,119 @@ public class Morphologie {
             return;
         }
 
-        // On teste tous les schèmes pour voir si le mot correspond
-        for (Scheme s : schemes.values()) {
-            if (mot.equals(s.generate(racine))) {
-                System.out.println("✅ Le mot " + RTLFormatter.rtl(mot) + " appartient morphologiquement à la racine " + RTLFormatter.rtl(racine) + " | Schème : " + RTLFormatter.rtl(s.nom));
-                node.ajouterDerive(mot);
-                return;
-            }
+        String nomScheme = valider(racine, mot);
+        if (nomScheme != null) {
+            System.out.println("✅ Le mot " + RTLFormatter.rtl(mot) + " appartient morphologiquement à la racine " + RTLFormatter.rtl(racine) + " | Schème : " + RTLFormatter.rtl(nomScheme));
+            String forme = forme(racine, nomScheme);
+            node.ajouterDerive(forme != null ? forme : mot, nomScheme);  // Forme canonique
+            return;
         }
 
         System.out.println("❌ Le mot " + RTLFormatter.rtl(mot) + " n'appartient pas morphologiquement à la racine " + RTLFormatter.rtl(racine));
     }
 
+    // Retourne le nom du schème qui relie le mot à la racine, ou null
+    // Chaque schème compare le mot à son gabarit : aucun mot n'est généré
+    // Sans correspondance exacte, le mot est comparé sous sa forme normalisée
+    // (voyelles, variantes de hamza, ة/ه, ى/ي : voir NormaliseurArabe)
+    public String valider(String racine, String mot) {
+        for (Scheme s : schemes.tableau()) {
+            if (s.reconnait(racine, mot))
+                return s.nom;
+        }
+        return validerNormalise(racine, mot);
+    }
+
+    // Validation tolérante : une recherche dans l'index des squelettes, ou sans index,
+    // comparaison des squelettes des formes de la racine (une par schème)
+    private String validerNormalise(String racine, String mot) {
+        if (racine == null || mot == null) return null;
+        if (index != null) {
+            for (Analyse a : index.rechercherNormalise(mot)) {
+                if (a.getRacine().equals(racine))
+                    return a.getScheme();
+            }
+            return null;
+        }
+        String squelette = NormaliseurArabe.normaliser(mot);
+        for (Scheme s : schemes.tableau()) {
+            String forme = s.generate(racine);
+            if (forme != null && NormaliseurArabe.normaliser(forme).equals(squelette))
+                return s.nom;
+        }
+        return null;
+    }
+
+    // Forme générée par un schème pour une racine (null si le schème est inconnu)
+    // Sert à enregistrer la forme canonique d'un mot validé sous une graphie approchée
+    public String forme(String racine, String nomScheme) {
+        Scheme s = schemes.get(nomScheme);
+        return s == null ? null : s.generate(racine);
+    }
+
     // ================= Analyse inversée =================
     // Trouve la racine et le schème d'un mot donné
     public void analyserMot(String mot) {
-        // On parcourt toutes les racines et tous les schèmes
-        for (Node node : arbre.getAllNodes()) {
-            for (Scheme s : schemes.values()) {
-                if (mot.equals(s.generate(node.racine))) {
-                    System.out.println("✅ Analyse réussie :");
-                    System.out.println("   Mot    : " + RTLFormatter.rtl(mot));
-                    System.out.println("   Racine : " + RTLFormatter.rtl(node.racine));
-                    System.out.println("   Schème : " + RTLFormatter.rtl(s.nom));
-                    return;
+        List<Analyse> analyses = analyser(mot);
+        if (analyses.isEmpty()) {
+            System.out.println("❌ Mot inconnu : " + RTLFormatter.rtl(mot));
+            return;
+        }
+        Analyse a = analyses.get(0);
+        System.out.println("✅ Analyse réussie :");
+        System.out.println("   Mot    : " + RTLFormatter.rtl(mot));
+        System.out.println("   Racine : " + RTLFormatter.rtl(a.getRacine()));
+        System.out.println("   Schème : " + RTLFormatter.rtl(a.getScheme()));
+    }
+
+    // Retourne tous les couples (racine, schème) qui produisent le mot
+    // Avec l'index : une seule recherche, quelle que soit la taille du lexique, puis si le
+    // mot est inconnu une seconde sur son squelette normalisé (voir NormaliseurArabe)
+    // Sans index : un alignement par schème (voir analyserParGabarits)
+    public List<Analyse> analyser(String mot) {
+        if (index != null) {
+            List<Analyse> analyses = index.rechercher(mot);
+            return analyses.isEmpty() ? index.rechercherNormalise(mot) : analyses;
+        }
+        return analyserParGabarits(mot);
+    }
+
+    // Analyse sans index : chaque schème extrait la racine candidate de son gabarit,
+    // puis une seule recherche dans l'arbre confirme qu'elle existe
+    // Sans résultat exact, même alignement sur les squelettes normalisés
+    public List<Analyse> analyserParGabarits(String mot) {
+        List<Analyse> analyses = new ArrayList<>();
+        if (mot == null) return analyses;
+        analyserExact(mot, analyses);
+        if (analyses.isEmpty()) {
+            String squelette = NormaliseurArabe.normaliser(mot);
+            for (Scheme s : schemes.tableau()) {
+                String racine = s.extraireRacineNormalisee(squelette);
+                if (racine != null && arbre.rechercher(racine) != null)
+                    analyses.add(new Analyse(racine, s.nom));
+            }
+        }
+        return analyses;
+    }
+
+    private void analyserExact(String mot, List<Analyse> analyses) {
+        for (Scheme s : schemes.tableau()) {
+            String racine = s.extraireRacine(mot);
+            if (racine == null && s.gabarit == null) {
+                // Règle non compilable : on retombe sur la génération racine par racine
+                for (Node n : arbre.getAllNodes()) {
+                    if (s.reconnait(n.racine, mot))
+                        analyses.add(new Analyse(n.racine, s.nom));
                 }
+            } else if (racine != null && arbre.rechercher(racine) != null) {
+                analyses.add(new Analyse(racine, s.nom));
             }
         }
-        System.out.println("❌ Mot inconnu : " + RTLFormatter.rtl(mot));
     }
 
     // ================= Ajout d'un nouveau schème (DYNAMIQUE) =================
     // Ajoute un nouveau schème à partir d'un pattern (ex: "فاعل")
-    public void ajouterScheme(String nom) {
+    public synchronized void ajouterScheme(String nom) {
         // Validation 1 : Non null et non vide
         if (nom == null || nom.trim().isEmpty()) {
             System.out.println("❌ Le schème ne peut pas être vide !");
@@ -188,26 +363,56 @@ public class Morphologie {
         }
         
         // Validation 3 : Ne doit pas déjà exister
-        if (schemes.containsKey(nom)) {
+        if (schemes.contient(nom)) {
             System.out.println("❌ Ce schème existe déjà !");
             return;
         }
         
-        schemes.put(nom, new Scheme(nom));
+        Scheme s = new Scheme(nom);
+        if (index != null)
+            index.indexerScheme(s, getAllRacines());
+        publierScheme(s);
+        generation++;
         System.out.println("✅ Schème ajouté : " + RTLFormatter.rtl(nom));
     }
     
     // ================= Ajout avec règle explicite (pour compatibilité) =================
     // Version alternative pour ajouter un schème avec une règle de transformation personnalisée
-    public void ajouterScheme(String nom, Scheme.Transformation rule) {
-        if (schemes.containsKey(nom)) {
+    public synchronized void ajouterScheme(String nom, Scheme.Transformation rule) {
+        if (schemes.contient(nom)) {
             System.out.println("❌ Ce schème existe déjà !");
             return;
         }
-        schemes.put(nom, new Scheme(nom, rule));
+        Scheme s = new Scheme(nom, rule);
+        if (index != null)
+            index.indexerScheme(s, getAllRacines());
+        publierScheme(s);
+        generation++;
         System.out.println("✅ Schème ajouté : " + RTLFormatter.rtl(nom));
     }
     
+    // Publie un nouveau registre contenant le schème
+    private void publierScheme(Scheme s) {
+        schemes = schemes.avec(s);
+    }
+
+    // ================= Paradigme complet d'une racine =================
+    // Applique tous les schèmes à la racine en un seul parcours de la table
+    // Retourne schème -> mot généré (les schèmes qui échouent sont ignorés)
+    public Map<String, String> paradigme(String racine) {
+        return paradigme(racine, schemes);
+    }
+
+    // Paradigme sous un registre donné (pris une fois par l'appelant, avec sa version)
+    public Map<String, String> paradigme(String racine, RegistreSchemes registre) {
+        Map<String, String> formes = new LinkedHashMap<>();
+        for (Scheme s : registre.tableau()) {
+            String mot = s.generate(racine);
+            if (mot != null) formes.put(s.nom, mot);
+        }
+        return formes;
+    }
+
     // ================= Affichage des dérivés d'une racine =================
     // Affiche tous les mots déjà générés pour une racine donnée
     public void afficherDerivesRacine(String racine) {
@@ -218,10 +423,11 @@ public class Morphologie {
         }
 
         System.out.println("=== Dérivés de la racine " + RTLFormatter.rtl(racine) + " ===");
-        if (node.derives.isEmpty()) {
+        List<String> derives = node.getDerives();
+        if (derives.isEmpty()) {
             System.out.println("❌ Aucun mot dérivé pour cette racine");
         } else {
-            for (String mot : node.derives) {
+            for (String mot : derives) {
                 System.out.println("- " + RTLFormatter.rtl(mot));
             }
         }
@@ -239,7 +445,12 @@ public class Morphologie {
 
     // Retourne la liste de tous les schèmes (pour les menus)
     public List<String> getAllSchemes() {
-        return new ArrayList<>(schemes.keySet());
+        return new ArrayList<>(schemes.noms());
+    }
+
+    // Registre des schèmes courant : table et version cohérentes, jamais modifiées
+    public RegistreSchemes getRegistreSchemes() {
+        return schemes;
     }
     
     /**
@@ -248,4 +459,70 @@ public class Morphologie {
     public Scheme getScheme(String schemeName) {
         return schemes.get(schemeName);
     }
+
+    // Cache des dérivés (null si tous les dérivés restent en mémoire)
+    public CacheDerives getCacheDerives() {
+        return cacheDerives;
+    }
+
+    // Vrai si les dérivés sont chargés à la demande : inutile de les précharger
+    public boolean derivesALaDemande() {
+        return cacheDerives != null && cacheDerives.estActif();
+    }
+
+    // Version de la table des schèmes : change à chaque ajout, modification ou suppression
+    // (publiée avec la table : pour calculer sous une version connue, prendre le registre)
+    public long getVersionSchemes() {
+        return schemes.getVersion();
+    }
+
+    // Génération du moteur : change après chaque ajout ou suppression de racine et chaque
+    // changement de schème, une fois l'index inversé à jour ; un résultat d'analyse ou de
+    // validation calculé après avoir lu la génération g reste exact tant qu'elle vaut g
+    public long getGeneration() {
+        return generation;
+    }
+
+    // ================= Recherche par préfixe =================
+    // Au plus k racines commençant par le préfixe, dans l'ordre alphabétique
+    public List<String> racinesParPrefixe(String prefixe, int k) {
+        return prefixesRacines.rechercher(prefixe, k);
+    }
+
+    // Au plus k mots générés (racines × schèmes) commençant par le préfixe
+    // Nécessite l'index inversé : liste vide sans index
+    public List<String> motsParPrefixe(String prefixe, int k) {
+        return index == null ? new ArrayList<>() : index.rechercherPrefixe(prefixe, k);
+    }
+
+    // Mémoire occupée par les dérivés (stockage compact vs ancienne disposition estimée)
+    public RapportMemoire rapportMemoire() {
+        return new RapportMemoire(arbre);
+    }
+
+    // ================= Compaction du dictionnaire des dérivés =================
+    // Le dictionnaire ne retire jamais un mot : ceux des racines déchargées par le cache ou
+    // supprimées y restent. La compaction ouvre une génération vide et y réencode les seuls
+    // dérivés en mémoire ; l'ancienne génération est libérée avec les derniers dérivés qui la
+    // désignent (lectures en cours comprises). Les écritures continuent pendant la compaction
+    // Retourne le nombre de mots abandonnés
+    public int compacterDictionnaire() {
+        synchronized (compaction) {
+            DictionnaireDerives dico = arbre.getDictionnaire();
+            int avant = dico.nombreMots();
+            dico.compacter();
+            for (Node n : arbre.getAllNodes())
+                n.derives.reencoder();
+            return Math.max(0, avant - dico.nombreMots());
+        }
+    }
+
+    // Compacte si le dictionnaire a au moins "minimum" mots et plus de "ratio" fois les mots
+    // encore désignés par les dérivés en mémoire ; retourne les mots abandonnés (0 sinon)
+    public int compacterDictionnaireSiUtile(double ratio, int minimum) {
+        int total = arbre.getDictionnaire().nombreMots();
+        if (total < minimum || total <= ratio * RapportMemoire.motsReferences(arbre))
+            return 0;
+        return compacterDictionnaire();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.morphologie.engine;
 
 import com.morphologie.utils.RTLFormatter;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 
 public class Node {
@@ -9,44 +9,93 @@ public class Node {
     Node gauche;             // Sous-arbre gauche (mots plus petits)
     Node droite;             // Sous-arbre droit (mots plus grands)
     int height;              // Hauteur du nœud pour l'équilibrage AVL
-    List<String> derives;    // Liste des mots générés à partir de cette racine
-    List<String> deriveSchemes; // Schème correspondant à chaque mot généré
+    // Mots générés à partir de cette racine et leurs schèmes (identifiants du dictionnaire),
+    // partagés par toutes les copies d'un même nœud (arbre persistant) ; chargés à la
+    // demande si le moteur a un chargeur
+    final DerivesRacine derives;
 
-    // Constructeur : crée un nouveau nœud avec une racine
+    // Constructeur : crée un nouveau nœud avec une racine (dérivés toujours en mémoire,
+    // dictionnaire commun aux nœuds créés hors d'un moteur)
     public Node(String racine) {
+        this(racine, null, DictionnaireDerives.defaut());
+    }
+
+    // Constructeur avec le cache et le dictionnaire des dérivés du moteur
+    Node(String racine, CacheDerives cache, DictionnaireDerives dico) {
         this.racine = racine;
         this.gauche = null;
         this.droite = null;
         this.height = 1;           // Hauteur initiale = 1 (feuille)
-        this.derives = new ArrayList<>();
-        this.deriveSchemes = new ArrayList<>();
+        this.derives = new DerivesRacine(racine, cache, dico);
+    }
+
+    // Constructeur de copie utilisé par l'arbre persistant
+    // La copie partage les dérivés de l'original : un mot ajouté est visible dans toutes les versions
+    Node(Node autre) {
+        this.racine = autre.racine;
+        this.gauche = autre.gauche;
+        this.droite = autre.droite;
+        this.height = autre.height;
+        this.derives = autre.derives;
+    }
+
+    // Mots dérivés de la racine (lecture seule, chargés si besoin, décodés à la lecture)
+    public List<String> getDerives() {
+        DerivesRacine.Paires p = derives.lire();
+        return new AbstractList<String>() {
+            public String get(int i) {
+                if (i < 0 || i >= p.n) throw new IndexOutOfBoundsException(i);
+                return p.mot(i);
+            }
+
+            public int size() {
+                return p.n;
+            }
+        };
+    }
+
+    // Schèmes des mots dérivés, dans le même ordre que getDerives()
+    public List<String> getDeriveSchemes() {
+        DerivesRacine.Paires p = derives.lire();
+        DictionnaireDerives dico = derives.dico;
+        return new AbstractList<String>() {
+            public String get(int i) {
+                if (i < 0 || i >= p.n) throw new IndexOutOfBoundsException(i);
+                return dico.scheme(p.idScheme(i));
+            }
+
+            public int size() {
+                return p.n;
+            }
+        };
     }
 
     // Ajoute un mot dérivé sans préciser le schème
     public void ajouterDerive(String mot) {
-        if (!derives.contains(mot)) {           // On évite les doublons
-            derives.add(mot);
-            deriveSchemes.add("");               // Pas de schème associé
-        }
+        ajouterDerive(mot, "");                  // Pas de schème associé
     }
 
-    // Ajoute un mot dérivé avec son schème
+    // Ajoute un mot dérivé avec son schème (les doublons sont ignorés)
     public void ajouterDerive(String mot, String scheme) {
-        if (!derives.contains(mot)) {           // On évite les doublons
-            derives.add(mot);
-            deriveSchemes.add(scheme);           // On garde le schème correspondant
-        }
+        derives.ajouter(mot, scheme);
+    }
+
+    // Ajoute plusieurs dérivés d'un coup (chargement) : une seule copie de chaque liste
+    // au lieu d'une par mot ; mots et schèmes vont par paires, les doublons sont ignorés
+    public void ajouterDerives(List<String> mots, List<String> schemes) {
+        derives.ajouterTout(mots, schemes);
     }
 
     // Affiche la racine et tous ses dérivés
     public void afficher() {
         System.out.println("Racine : " + RTLFormatter.rtl(racine));
-        if (!derives.isEmpty()) {
+        DerivesRacine.Paires p = derives.lire();
+        if (p.n > 0) {
             System.out.println("  Dérivés :");
             // On parcourt tous les dérivés avec leurs schèmes
-            for (int i = 0; i < derives.size(); i++) {
-                String mot = derives.get(i);
-                String scheme = deriveSchemes.get(i);
+            for (int i = 0; i < p.n; i++) {
+                String mot = p.mot(i);
+                String scheme = derives.dico.scheme(p.idScheme(i));
                 System.out.println("    - " + RTLFormatter.rtl(mot) + " | Schème : " + RTLFormatter.rtl(scheme));
             }
         } else {
@@ -0,0 +1,65 @@
+package com.morphologie.engine;
+
+// Forme canonique (squelette) d'un mot arabe, pour une comparaison tolérante :
+// - voyelles courtes, tanwin, chadda, soukoun, alif suscrit et tatwil supprimés ;
+// - أ إ آ ٱ -> ا (variantes de hamza sur alif) ;
+// - ة -> ه et ى -> ي (confusions d'orthographe courantes).
+// Une table précalculée couvre le bloc arabe U+0600..U+06FF ; les autres caractères
+// sont conservés tels quels
+public final class NormaliseurArabe {
+
+    private static final char DEBUT = 0x0600;
+    private static final char SUPPRIME = 0xFFFF;  // Marqueur : caractère retiré du squelette
+    private static final char[] TABLE = new char[0x100];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++) TABLE[i] = (char) (DEBUT + i);
+        for (char c = 0x064B; c <= 0x0652; c++) supprimer(c);  // Tanwin, harakat, chadda, soukoun
+        supprimer('\u0670');  // Alif suscrit
+        supprimer('\u0640');  // Tatwil
+        remplacer('أ', 'ا');
+        remplacer('إ', 'ا');
+        remplacer('آ', 'ا');
+        remplacer('ٱ', 'ا');
+        remplacer('ة', 'ه');
+        remplacer('ى', 'ي');
+    }
+
+    private NormaliseurArabe() {}
+
+    private static void supprimer(char c) {
+        TABLE[c - DEBUT] = SUPPRIME;
+    }
+
+    private static void remplacer(char c, char par) {
+        TABLE[c - DEBUT] = par;
+    }
+
+    // Squelette du mot ; retourne le mot lui-même s'il est déjà canonique (aucune allocation)
+    public static String normaliser(String mot) {
+        if (mot == null) return null;
+        int n = mot.length();
+        int i = 0;
+        while (i < n && canonique(mot.charAt(i))) i++;
+        if (i == n) return mot;
+
+        char[] sortie = new char[n];
+        mot.getChars(0, i, sortie, 0);
+        int k = i;
+        for (; i < n; i++) {
+            char c = mot.charAt(i);
+            char t = (c >= DEBUT && c < DEBUT + TABLE.length) ? TABLE[c - DEBUT] : c;
+            if (t != SUPPRIME) sortie[k++] = t;
+        }
+        return new String(sortie, 0, k);
+    }
+
+    // Vrai si les deux mots ont le même squelette
+    public static boolean equivalents(String a, String b) {
+        return a != null && b != null && normaliser(a).equals(normaliser(b));
+    }
+
+    private static boolean canonique(char c) {
+        return c < DEBUT || c >= DEBUT + TABLE.length || TABLE[c - DEBUT] == c;
+    }
+}
@@ -0,0 +1,122 @@
+package com.morphologie.engine;
+
+import java.util.BitSet;
+
+// Mémoire occupée par les dérivés du moteur : stockage compact actuel (dictionnaire +
+// paires d'identifiants) comparé à une estimation de l'ancienne disposition (deux listes
+// de String par racine) ; seuls les dérivés en mémoire sont comptés, aucun n'est chargé
+// Le dictionnaire garde aussi les mots des racines déchargées ou supprimées : l'écart entre
+// motsDistincts et motsReferences est ce que récupère Morphologie.compacterDictionnaire()
+public class RapportMemoire {
+
+    // Estimation de l'ancienne disposition (JVM 64 bits, références compressées) :
+    // un String par mot (objet + tableau UTF-16), une case par mot dans chacune des deux
+    // listes, et deux listes copiées à l'écriture par racine ayant des dérivés
+    private static final int OCTETS_STRING = 24;
+    private static final int OCTETS_TABLEAU = 16;
+    private static final int OCTETS_CASES = 2 * 4;
+    private static final int OCTETS_LISTES = 2 * (16 + 16 + OCTETS_TABLEAU);
+
+    private final int racines;             // Racines de l'arbre
+    private final int racinesAvecDerives;  // Racines dont des dérivés sont en mémoire
+    private final long derives;            // Paires (mot, schème) en mémoire
+    private final int motsDistincts;       // Mots distincts du dictionnaire (génération courante)
+    private final int motsReferences;      // Dont mots désignés par des dérivés en mémoire
+    private final long compactions;        // Compactions du dictionnaire depuis le démarrage
+    private final long octetsDictionnaire;
+    private final long octetsPaires;
+    private final long octetsAncienneDisposition;
+    private final long heapUtilise;        // Tas réellement utilisé par la JVM (tout compris)
+
+    RapportMemoire(RootIndex arbre) {
+        DictionnaireDerives dico = arbre.getDictionnaire();
+        int nbRacines = 0, nbAvecDerives = 0;
+        long nbDerives = 0, paires = 0, ancien = 0;
+        for (Node n : arbre.getAllNodes()) {
+            nbRacines++;
+            DerivesRacine.Paires p = n.derives.siCharges();
+            if (p == null || p.n == 0) continue;
+            nbAvecDerives++;
+            nbDerives += p.n;
+            paires += n.derives.octetsOccupes();
+            ancien += OCTETS_LISTES;
+            for (int i = 0; i < p.n; i++) {
+                int longueur = p.mot(i).length();
+                ancien += OCTETS_STRING + aligner(OCTETS_TABLEAU + 2L * longueur) + OCTETS_CASES;
+            }
+        }
+        Runtime rt = Runtime.getRuntime();
+
+        this.racines = nbRacines;
+        this.racinesAvecDerives = nbAvecDerives;
+        this.derives = nbDerives;
+        this.motsDistincts = dico.nombreMots();
+        this.motsReferences = motsReferences(arbre);
+        this.compactions = dico.getCompactions();
+        this.octetsDictionnaire = dico.octetsOccupes();
+        this.octetsPaires = paires;
+        this.octetsAncienneDisposition = ancien;
+        this.heapUtilise = rt.totalMemory() - rt.freeMemory();
+    }
+
+    // Mots distincts de la génération courante désignés par des dérivés en mémoire
+    static int motsReferences(RootIndex arbre) {
+        DictionnaireDerives.Mots courante = arbre.getDictionnaire().courante();
+        BitSet vus = new BitSet();
+        for (Node n : arbre.getAllNodes()) {
+            DerivesRacine.Paires p = n.derives.siCharges();
+            if (p == null || p.mots != courante) continue;
+            for (int i = 0; i < p.n; i++) vus.set(p.idMot(i));
+        }
+        return vus.cardinality();
+    }
+
+    private static long aligner(long octets) {
+        return (octets + 7) & ~7L;
+    }
+
+    public int getRacines() {
+        return racines;
+    }
+
+    public int getRacinesAvecDerives() {
+        return racinesAvecDerives;
+    }
+
+    public long getDerives() {
+        return derives;
+    }
+
+    public int getMotsDistincts() {
+        return motsDistincts;
+    }
+
+    public int getMotsReferences() {
+        return motsReferences;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public long getOctetsDictionnaire() {
+        return octetsDictionnaire;
+    }
+
+    public long getOctetsPaires() {
+        return octetsPaires;
+    }
+
+    // Stockage compact : dictionnaire + paires de toutes les racines
+    public long getOctetsCompacts() {
+        return octetsDictionnaire + octetsPaires;
+    }
+
+    public long getOctetsAncienneDisposition() {
+        return octetsAncienneDisposition;
+    }
+
+    public long getHeapUtilise() {
+        return heapUtilise;
+    }
+}
@@ -0,0 +1,99 @@
+package com.morphologie.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+// Table des schèmes immuable et versionnée
+// Chaque ajout, modification ou suppression publie un nouveau registre (version + 1) :
+// un lecteur qui a pris le registre voit une table et une version cohérentes entre elles,
+// sans verrou, pendant toute sa requête
+// Ordre de parcours stable : schèmes de base dans leur ordre de déclaration, puis schèmes
+// ajoutés dans l'ordre d'ajout (un schème modifié garde sa place) ; les schèmes sont
+// rangés dans un tableau, parcouru sans itérateur de HashMap
+public final class RegistreSchemes {
+
+    private final long version;
+    private final Scheme[] ordre;                    // Ordre de parcours
+    private final HashMap<String, Scheme> parNom;    // Jamais modifiée une fois construite
+    private final List<Scheme> vue;
+    private final List<String> noms;
+
+    private RegistreSchemes(long version, Scheme[] ordre) {
+        this.version = version;
+        this.ordre = ordre;
+        this.parNom = new HashMap<>(ordre.length * 2);
+        List<String> n = new ArrayList<>(ordre.length);
+        for (Scheme s : ordre) {
+            parNom.put(s.nom, s);
+            n.add(s.nom);
+        }
+        this.vue = Collections.unmodifiableList(Arrays.asList(ordre));
+        this.noms = Collections.unmodifiableList(n);
+    }
+
+    // Registre initial (version 0)
+    static RegistreSchemes initial(List<Scheme> schemes) {
+        return new RegistreSchemes(0, schemes.toArray(new Scheme[0]));
+    }
+
+    // Nouveau registre avec le schème ajouté en fin de parcours
+    RegistreSchemes avec(Scheme s) {
+        Scheme[] copie = Arrays.copyOf(ordre, ordre.length + 1);
+        copie[ordre.length] = s;
+        return new RegistreSchemes(version + 1, copie);
+    }
+
+    // Nouveau registre où le schème "nom" est remplacé à la même place
+    RegistreSchemes remplacer(String nom, Scheme s) {
+        Scheme[] copie = ordre.clone();
+        for (int i = 0; i < copie.length; i++) {
+            if (copie[i].nom.equals(nom)) copie[i] = s;
+        }
+        return new RegistreSchemes(version + 1, copie);
+    }
+
+    // Nouveau registre sans le schème "nom"
+    RegistreSchemes sans(String nom) {
+        Scheme[] copie = new Scheme[ordre.length - 1];
+        int j = 0;
+        for (Scheme s : ordre) {
+            if (!s.nom.equals(nom)) copie[j++] = s;
+        }
+        return new RegistreSchemes(version + 1, copie);
+    }
+
+    // Version : change à chaque publication
+    public long getVersion() {
+        return version;
+    }
+
+    public Scheme get(String nom) {
+        return parNom.get(nom);
+    }
+
+    public boolean contient(String nom) {
+        return parNom.containsKey(nom);
+    }
+
+    public int taille() {
+        return ordre.length;
+    }
+
+    // Schèmes dans l'ordre de parcours (liste non modifiable)
+    public List<Scheme> schemes() {
+        return vue;
+    }
+
+    // Noms des schèmes dans l'ordre de parcours (liste non modifiable)
+    public List<String> noms() {
+        return noms;
+    }
+
+    // Parcours interne, sans itérateur
+    Scheme[] tableau() {
+        return ordre;
+    }
+}
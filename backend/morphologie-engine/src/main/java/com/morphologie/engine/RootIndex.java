@@ -0,0 +1,64 @@
+package com.morphologie.engine;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+// Index des racines du moteur : chaque racine y a un seul nœud, qui porte ses dérivés
+// Trois implémentations, choisies à la construction du moteur :
+// - AVL     : arbre AVL persistant, parcours dans l'ordre alphabétique sans tri ;
+// - HASH    : table de hachage à adressage ouvert sur des clés long (racine de 3 lettres
+//             tassée sur 48 bits), recherche en O(1) sans comparaison de chaînes ;
+// - FROZEN  : tableau trié figé en ordre d'Eytzinger + petit delta AVL regelé
+//             périodiquement, pour un lexique très lu et rarement modifié.
+// Dans tous les cas les lectures ne prennent aucun verrou et les écritures sont sérialisées.
+public interface RootIndex {
+
+    enum Type {
+        AVL, HASH, FROZEN;
+
+        // Type à partir de son nom, sans tenir compte de la casse ("avl", "hash")
+        public static Type depuis(String nom) {
+            return valueOf(nom.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Crée un index vide du type demandé, avec le cache et le dictionnaire des dérivés
+    static RootIndex creer(Type type, CacheDerives cacheDerives, DictionnaireDerives dico) {
+        switch (type) {
+            case HASH:
+                return new TableRacines(cacheDerives, dico);
+            case FROZEN:
+                return new IndexFige(cacheDerives, dico);
+            default:
+                return new AVLTree(cacheDerives, dico);
+        }
+    }
+
+    // Ajoute une racine ; retourne true si elle n'existait pas
+    boolean addRacine(String racine);
+
+    // Ajoute un lot de racines sans affichage ; retourne les racines réellement ajoutées
+    List<String> addRacines(Collection<String> racines);
+
+    // Supprime une racine ; retourne true si elle existait
+    boolean supprimerRacine(String racine);
+
+    // Nœud d'une racine, null si elle est absente
+    Node rechercher(String racine);
+
+    // Nombre de racines
+    int taille();
+
+    // Tous les nœuds, dans l'ordre alphabétique des racines (instantané cohérent)
+    List<Node> getAllNodes();
+
+    // Dictionnaire des mots dérivés des nœuds de l'index
+    DictionnaireDerives getDictionnaire();
+
+    // Affiche toutes les racines et leurs dérivés dans l'ordre alphabétique
+    void afficher();
+
+    // Vérifie les invariants de la structure (tests de charge concurrente)
+    boolean verifier();
+}
@@ -1,11 +1,23 @@
 // Scheme.java
 package com.morphologie.engine;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class Scheme {
 
     String nom;    // nom du schème 
     Transformation rule; // fonction qui applique la règle de transformation
     boolean isDynamic; // vrai si le schème a été généré à partir d'un pattern
+    char[] gabarit;    // forme compilée : lettres fixes + marqueurs SLOT_1..SLOT_3 (null si non compilable)
+    int[] positions;   // positions des marqueurs dans le gabarit
+    int[] lettres;     // pour chaque position : indice de la lettre de racine (0, 1 ou 2)
+    char[] squelette;  // gabarit normalisé (voir NormaliseurArabe), pour l'analyse tolérante
+
+    // Marqueurs des 3 lettres de la racine dans le gabarit (zone à usage privé Unicode)
+    static final char SLOT_1 = '\uE001';
+    static final char SLOT_2 = '\uE002';
+    static final char SLOT_3 = '\uE003';
 
     // Interface fonctionnelle pour appliquer la règle
     // Prend les 3 lettres de la racine et retourne le mot généré
@@ -18,6 +30,7 @@ public class Scheme {
         this.nom = nom;
         this.rule = rule;
         this.isDynamic = false;
+        compiler(compilerGabarit(rule));
     }
 
     // Constructeur dynamique : le nom du schème EST le pattern
@@ -26,6 +39,7 @@ public class Scheme {
         this.nom = nom;
         this.rule = createRuleFromPattern(nom);
         this.isDynamic = true;
+        compiler(compilerPattern(nom));
     }
 
     // Génère une règle de transformation à partir d'un pattern
@@ -55,19 +69,190 @@ public class Scheme {
         };
     }
 
+    // Compile un pattern ف ع ل en gabarit : chaque placeholder devient un marqueur
+    private static char[] compilerPattern(String pattern) {
+        char[] forme = pattern.toCharArray();
+        for (int i = 0; i < forme.length; i++) {
+            if (forme[i] == 'ف') forme[i] = SLOT_1;
+            else if (forme[i] == 'ع') forme[i] = SLOT_2;
+            else if (forme[i] == 'ل') forme[i] = SLOT_3;
+        }
+        return forme;
+    }
+
+    // Enregistre le gabarit et précalcule la table des positions à remplir
+    private void compiler(char[] forme) {
+        this.gabarit = forme;
+        if (forme == null) return;
+        squelette = NormaliseurArabe.normaliser(new String(forme)).toCharArray();  // Marqueurs conservés
+        int n = 0;
+        for (char g : forme) {
+            if (g >= SLOT_1 && g <= SLOT_3) n++;
+        }
+        positions = new int[n];
+        lettres = new int[n];
+        for (int i = 0, k = 0; i < forme.length; i++) {
+            if (forme[i] >= SLOT_1 && forme[i] <= SLOT_3) {
+                positions[k] = i;
+                lettres[k++] = forme[i] - SLOT_1;
+            }
+        }
+    }
+
+    // Compile une règle en gabarit en l'appliquant à 3 marqueurs
+    // Pour une simple concaténation, le résultat donne directement la position des lettres
+    // fixes et des 3 lettres de la racine ; une règle qui dépend des lettres (racines faibles,
+    // hamza, lettres redoublées...) ne se réduit pas à un gabarit : le gabarit obtenu est donc
+    // comparé à la règle sur des racines témoins, et au moindre écart la règle n'est pas compilée
+    private static char[] compilerGabarit(Transformation rule) {
+        if (rule == null) return null;
+        String forme = rule.apply("" + SLOT_1, "" + SLOT_2, "" + SLOT_3);
+        if (forme == null || forme.indexOf(SLOT_1) < 0 || forme.indexOf(SLOT_2) < 0 || forme.indexOf(SLOT_3) < 0)
+            return null;  // Règle non compilable : on garde uniquement generate()
+        char[] gabarit = forme.toCharArray();
+        for (String racine : TEMOINS) {
+            String attendu = rule.apply("" + racine.charAt(0), "" + racine.charAt(1), "" + racine.charAt(2));
+            if (!remplir(gabarit, racine).equals(attendu))
+                return null;  // La règle ne suit pas le gabarit pour cette racine
+        }
+        return gabarit;
+    }
+
+    // Racines témoins de la compilation : chaque lettre arabe (faibles et hamza comprises)
+    // à chacune des 3 positions d'une racine saine, puis des lettres redoublées
+    private static final String[] TEMOINS = temoins();
+
+    private static String[] temoins() {
+        List<String> t = new ArrayList<>();
+        String saine = "كتب";
+        for (char c = 'ء'; c <= 'ي'; c++) {
+            if (!Character.isLetter(c) || c == 'ـ') continue;  // Points de code non attribués, tatwil
+            for (int p = 0; p < 3; p++) {
+                char[] r = saine.toCharArray();
+                r[p] = c;
+                t.add(new String(r));
+            }
+        }
+        t.add("مدد");
+        t.add("ددم");
+        t.add("دمد");
+        t.add("ففف");
+        return t.toArray(new String[0]);
+    }
+
+    // Mot obtenu en remplissant les marqueurs du gabarit avec les lettres de la racine
+    private static String remplir(char[] gabarit, String racine) {
+        char[] mot = gabarit.clone();
+        for (int i = 0; i < mot.length; i++) {
+            int slot = mot[i] - SLOT_1;
+            if (slot >= 0 && slot <= 2) mot[i] = racine.charAt(slot);
+        }
+        return new String(mot);
+    }
+
+    // ================= Reconnaissance par gabarit =================
+    // Aligne le mot sur les lettres fixes du gabarit et extrait c1/c2/c3
+    // Retourne la racine candidate, ou null si le mot ne suit pas ce schème
+    // (la racine doit ensuite être confirmée dans l'arbre)
+    public String extraireRacine(String mot) {
+        return extraire(gabarit, mot);
+    }
+
+    // Même alignement sur le gabarit normalisé : le mot doit déjà être normalisé, et la
+    // racine extraite l'est aussi (une racine contenant أ ou ى n'est donc pas retrouvée)
+    public String extraireRacineNormalisee(String squeletteMot) {
+        return extraire(squelette, squeletteMot);
+    }
+
+    private static String extraire(char[] forme, String mot) {
+        if (forme == null || mot == null || mot.length() != forme.length) return null;
+
+        char[] racine = new char[3];
+        for (int i = 0; i < forme.length; i++) {
+            char g = forme[i];
+            char c = mot.charAt(i);
+            int slot = g - SLOT_1;
+            if (slot < 0 || slot > 2) {
+                if (g != c) return null;      // Lettre fixe différente
+            } else if (racine[slot] == 0) {
+                racine[slot] = c;             // Première occurrence de la lettre
+            } else if (racine[slot] != c) {
+                return null;                  // Même lettre de racine, caractères différents
+            }
+        }
+        return new String(racine);
+    }
+
+    // Vérifie si le mot est la forme de ce schème pour la racine donnée
+    // Comparaison directe sur le gabarit, sans générer le mot
+    public boolean reconnait(CharSequence racine, CharSequence mot) {
+        if (racine == null || racine.length() != 3 || mot == null) return false;
+        if (gabarit == null) return mot.toString().equals(generate(racine.toString()));
+        if (mot.length() != gabarit.length) return false;
+
+        for (int i = 0; i < gabarit.length; i++) {
+            char g = gabarit[i];
+            int slot = g - SLOT_1;
+            char attendu = (slot < 0 || slot > 2) ? g : racine.charAt(slot);
+            if (mot.charAt(i) != attendu) return false;
+        }
+        return true;
+    }
+
     // Génère un mot à partir d'une racine de 3 lettres
     public String generate(String racine) {
         if (racine == null || racine.length() != 3) return null;
 
-        // On extrait les 3 lettres de la racine
-        String c1 = "" + racine.charAt(0);
-        String c2 = "" + racine.charAt(1);
-        String c3 = "" + racine.charAt(2);
+        if (gabarit != null) {
+            // Copie du gabarit puis remplissage des positions des lettres de la racine
+            char[] mot = gabarit.clone();
+            for (int k = 0; k < positions.length; k++) {
+                mot[positions[k]] = racine.charAt(lettres[k]);
+            }
+            return new String(mot);
+        }
 
+        // Règle non compilable : on applique la règle telle quelle
         if (rule != null) {
-            return rule.apply(c1, c2, c3);  // On applique la règle
+            return rule.apply("" + racine.charAt(0), "" + racine.charAt(1), "" + racine.charAt(2));
         }
 
         return null;
     }
-}
\ No newline at end of file
+
+    // Vrai si le schème a été construit à partir d'un pattern (ajouté par l'utilisateur)
+    public boolean estDynamique() {
+        return isDynamic;
+    }
+
+    // ================= Génération sans allocation =================
+    // Longueur du mot généré (-1 si la règle n'est pas compilée)
+    public int longueur() {
+        return gabarit == null ? -1 : gabarit.length;
+    }
+
+    // Ajoute le mot généré à la fin de out
+    // Aucune allocation si out a déjà la capacité nécessaire
+    // Retourne false si la racine est invalide ou la règle non compilée
+    public boolean generateInto(CharSequence racine, StringBuilder out) {
+        if (gabarit == null || racine == null || racine.length() != 3) return false;
+        int debut = out.length();
+        out.append(gabarit);
+        for (int k = 0; k < positions.length; k++) {
+            out.setCharAt(debut + positions[k], racine.charAt(lettres[k]));
+        }
+        return true;
+    }
+
+    // Écrit le mot généré dans out à partir de offset
+    // Retourne le nombre de caractères écrits, ou -1 (racine invalide, règle non compilée, tableau trop petit)
+    public int generateInto(CharSequence racine, char[] out, int offset) {
+        if (gabarit == null || racine == null || racine.length() != 3) return -1;
+        if (offset < 0 || offset + gabarit.length > out.length) return -1;
+        System.arraycopy(gabarit, 0, out, offset, gabarit.length);
+        for (int k = 0; k < positions.length; k++) {
+            out[offset + positions[k]] = racine.charAt(lettres[k]);
+        }
+        return gabarit.length;
+    }
+}
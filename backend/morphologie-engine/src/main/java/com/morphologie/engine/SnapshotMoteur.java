@@ -0,0 +1,188 @@
+package com.morphologie.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Instantané binaire du moteur : schèmes, racines et dérivés dans un seul fichier
+// Permet de redémarrer sans relire toute la base : le fichier est projeté en mémoire
+// (mmap), vérifié par CRC32 puis chargé en masse (racines déjà triées -> arbre en O(n))
+//
+// Format (big-endian) :
+//   "MORPHSNP"  magie (8 octets)
+//   int         version du format
+//   long        horodatage (ms) : tout ce qui a été modifié après doit être resynchronisé
+//   int         nombre de schèmes, puis pour chacun : nom, dynamique (1 octet)
+//   int         nombre de racines (ordre alphabétique), puis pour chacune :
+//               racine, nombre de dérivés, puis (mot, schème) pour chaque dérivé
+//   long        CRC32 de tout ce qui précède
+// Chaînes : longueur en octets (short non signé) + UTF-8
+public class SnapshotMoteur {
+
+    private static final byte[] MAGIE = "MORPHSNP".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+
+    private SnapshotMoteur() {}
+
+    // Écrit l'instantané du moteur (fichier temporaire puis renommage atomique)
+    // L'horodatage doit être pris AVANT la lecture du moteur : une modification concurrente
+    // sera au pire rejouée une seconde fois par la synchronisation différentielle
+    public static void ecrire(Morphologie engine, Path fichier, long horodatage) throws IOException {
+        Path dossier = fichier.toAbsolutePath().getParent();
+        if (dossier != null) Files.createDirectories(dossier);
+        Path tmp = Files.createTempFile(dossier, fichier.getFileName().toString(), ".tmp");
+
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream fos = Files.newOutputStream(tmp);
+                 CheckedOutputStream cos = new CheckedOutputStream(new BufferedOutputStream(fos, 1 << 16), crc);
+                 DataOutputStream out = new DataOutputStream(cos)) {
+
+                out.write(MAGIE);
+                out.writeInt(VERSION);
+                out.writeLong(horodatage);
+
+                List<Scheme> schemes = engine.getRegistreSchemes().schemes();  // Un seul registre cohérent
+                out.writeInt(schemes.size());
+                for (Scheme s : schemes) {
+                    ecrireChaine(out, s.nom);
+                    out.writeBoolean(s.isDynamic);
+                }
+
+                List<Node> noeuds = engine.arbre.getAllNodes();  // Instantané trié de l'arbre
+                out.writeInt(noeuds.size());
+                for (Node n : noeuds) {
+                    ecrireChaine(out, n.racine);
+                    // Seuls les dérivés en mémoire sont écrits : avec un chargeur, les autres
+                    // seront relus à la demande depuis la base
+                    DerivesRacine.Paires p = n.derives.siCharges();
+                    int nb = p == null ? 0 : p.n;
+                    out.writeInt(nb);
+                    for (int i = 0; i < nb; i++) {
+                        ecrireChaine(out, p.mot(i));
+                        ecrireChaine(out, n.derives.dico.scheme(p.idScheme(i)));
+                    }
+                }
+
+                out.flush();
+                out.writeLong(crc.getValue());  // Le CRC lui-même n'entre pas dans le calcul utile
+            }
+            Files.move(tmp, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Charge un instantané dans un moteur : les schèmes sont alignés sur ceux du fichier,
+    // puis les racines et leurs dérivés sont ajoutés en masse
+    // Retourne l'horodatage de l'instantané ; IOException si le fichier est illisible,
+    // d'une autre version ou corrompu (le moteur n'est alors pas modifié)
+    public static long charger(Path fichier, Morphologie engine) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            if (taille > Integer.MAX_VALUE)
+                throw new IOException("Instantané trop volumineux : " + taille + " octets");
+            MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+            return lire(buf, engine);
+        }
+    }
+
+    private static long lire(ByteBuffer buf, Morphologie engine) throws IOException {
+        try {
+            byte[] magie = new byte[MAGIE.length];
+            buf.get(magie);
+            if (!Arrays.equals(magie, MAGIE))
+                throw new IOException("Fichier qui n'est pas un instantané du moteur");
+            int version = buf.getInt();
+            if (version != VERSION)
+                throw new IOException("Version d'instantané non supportée : " + version);
+
+            // Vérification du CRC avant de toucher au moteur
+            int fin = buf.limit() - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate().position(0).limit(fin));
+            if (buf.getLong(fin) != crc.getValue())
+                throw new IOException("Instantané corrompu (CRC invalide)");
+
+            long horodatage = buf.getLong();
+
+            int nbSchemes = buf.getInt();
+            Set<String> dynamiques = new HashSet<>();
+            Set<String> tous = new HashSet<>();
+            for (int i = 0; i < nbSchemes; i++) {
+                String nom = lireChaine(buf);
+                tous.add(nom);
+                if (buf.get() != 0) dynamiques.add(nom);
+            }
+
+            int nbRacines = buf.getInt();
+            List<String> racines = new ArrayList<>(nbRacines);
+            List<List<String>> mots = new ArrayList<>(nbRacines);
+            List<List<String>> schemesDerives = new ArrayList<>(nbRacines);
+            for (int i = 0; i < nbRacines; i++) {
+                racines.add(lireChaine(buf));
+                int nb = buf.getInt();
+                List<String> m = new ArrayList<>(nb);
+                List<String> s = new ArrayList<>(nb);
+                for (int k = 0; k < nb; k++) {
+                    m.add(lireChaine(buf));
+                    s.add(lireChaine(buf));
+                }
+                mots.add(m);
+                schemesDerives.add(s);
+            }
+            if (buf.position() != fin)
+                throw new IOException("Instantané corrompu (taille incohérente)");
+
+            // Schèmes avant racines : chaque racine n'est indexée qu'une fois
+            for (String nom : engine.getAllSchemes()) {
+                if (!tous.contains(nom)) engine.supprimerScheme(nom);
+            }
+            for (String nom : dynamiques) {
+                if (engine.getScheme(nom) == null) engine.ajouterScheme(nom);
+            }
+
+            engine.ajouterRacines(racines);
+            for (int i = 0; i < nbRacines; i++) {
+                if (mots.get(i).isEmpty()) continue;
+                Node node = engine.arbre.rechercher(racines.get(i));
+                if (node != null) node.ajouterDerives(mots.get(i), schemesDerives.get(i));
+            }
+            return horodatage;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Instantané tronqué ou corrompu", e);
+        }
+    }
+
+    private static void ecrireChaine(DataOutputStream out, String s) throws IOException {
+        byte[] octets = s.getBytes(StandardCharsets.UTF_8);
+        if (octets.length > 0xFFFF)
+            throw new IOException("Chaîne trop longue pour l'instantané");
+        out.writeShort(octets.length);
+        out.write(octets);
+    }
+
+    private static String lireChaine(ByteBuffer buf) {
+        int longueur = Short.toUnsignedInt(buf.getShort());
+        byte[] octets = new byte[longueur];
+        buf.get(octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,258 @@
+package com.morphologie.engine;
+
+import com.morphologie.utils.RTLFormatter;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Index des racines par hachage à adressage ouvert (sondage linéaire) sur des clés long
+// Une racine d'au plus 3 lettres est tassée dans un long (longueur puis caractères UTF-16,
+// 16 bits chacun) : la recherche ne compare que des entiers, sans String.compareTo ni
+// boxing. Les racines plus longues (rares) vont dans une HashMap annexe.
+//
+// Lectures sans verrou, écritures sérialisées par synchronized :
+// - une case passe de LIBRE à une clé puis éventuellement à SUPPRIMEE, jamais au-delà ;
+//   le nœud est publié avant la clé (écritures release, lectures acquire), donc un
+//   lecteur qui voit la clé voit son nœud (ou null s'il vient d'être supprimé) ;
+// - les cases supprimées ne sont pas réutilisées : la table est reconstruite dans de
+//   nouveaux tableaux (publiés d'un coup) quand cases occupées + supprimées > 1/2.
+public class TableRacines implements RootIndex {
+
+    private static final long LIBRE = 0L;
+    private static final long SUPPRIMEE = -1L;
+    private static final int CAPACITE_MIN = 16;
+
+    private static final VarHandle CLES = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle NOEUDS = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    // Tableaux d'une version de la table ; seuls les écrivains modifient la version publiée
+    private static final class Table {
+        final long[] cles;
+        final Node[] noeuds;
+        final int masque;
+        int utilisees;  // Cases non libres (racines + supprimées), écrivains seulement
+
+        Table(int capacite) {
+            cles = new long[capacite];
+            noeuds = new Node[capacite];
+            masque = capacite - 1;
+        }
+    }
+
+    private volatile Table table = new Table(CAPACITE_MIN);
+    private volatile HashMap<String, Node> longues = new HashMap<>();  // Copiée à l'écriture
+    private volatile int taille;
+    private final CacheDerives cacheDerives;  // Cache des dérivés des nouveaux nœuds (null : toujours en mémoire)
+    private final DictionnaireDerives dico;
+
+    public TableRacines() {
+        this(null, new DictionnaireDerives());
+    }
+
+    public TableRacines(CacheDerives cacheDerives, DictionnaireDerives dico) {
+        this.cacheDerives = cacheDerives;
+        this.dico = dico;
+    }
+
+    // ================= Clés =================
+    // Clé d'une racine d'au plus 3 lettres (jamais LIBRE ni SUPPRIMEE), LIBRE sinon
+    public static long cle(String racine) {
+        int n = racine.length();
+        if (n == 0 || n > 3)
+            return LIBRE;
+        long k = n;
+        for (int i = 0; i < n; i++)
+            k = (k << 16) | racine.charAt(i);
+        return k;
+    }
+
+    private static int indice(long cle, int masque) {
+        return (int) ((cle * 0x9E3779B97F4A7C15L) >>> 32) & masque;
+    }
+
+    // ================= Recherche =================
+    public Node rechercher(String racine) {
+        long k = cle(racine);
+        return k == LIBRE ? longues.get(racine) : rechercher(k);
+    }
+
+    // Recherche directe par clé (voir cle(String))
+    public Node rechercher(long cle) {
+        Table t = table;  // Lecture unique de la version publiée
+        for (int i = indice(cle, t.masque); ; i = (i + 1) & t.masque) {
+            long c = (long) CLES.getAcquire(t.cles, i);
+            if (c == cle)
+                return (Node) NOEUDS.getAcquire(t.noeuds, i);
+            if (c == LIBRE)
+                return null;  // Pas trouvé (la table n'est jamais pleine)
+        }
+    }
+
+    // ================= Écritures =================
+    public synchronized boolean addRacine(String racine) {
+        if (!ajouter(racine)) {
+            System.out.println("⚠️ Racine déjà existante : " + RTLFormatter.rtl(racine));
+            return false;
+        }
+        System.out.println("✅ Racine ajoutée avec succès : " + RTLFormatter.rtl(racine));
+        return true;
+    }
+
+    public synchronized List<String> addRacines(Collection<String> racines) {
+        reserver(taille + racines.size());
+        List<String> ajoutees = new ArrayList<>();
+        for (String racine : racines) {
+            if (ajouter(racine))
+                ajoutees.add(racine);
+        }
+        return ajoutees;
+    }
+
+    // Ajoute la racine si elle est absente (appelé sous verrou)
+    private boolean ajouter(String racine) {
+        long k = cle(racine);
+        if (k == LIBRE) {
+            if (longues.containsKey(racine))
+                return false;
+            HashMap<String, Node> copie = new HashMap<>(longues);
+            copie.put(racine, new Node(racine, cacheDerives, dico));
+            longues = copie;
+        } else {
+            if (rechercher(k) != null)
+                return false;
+            Table t = table;
+            if (2 * (t.utilisees + 1) > t.cles.length) {
+                t = reconstruire(taille + 1);
+            }
+            placer(t, k, new Node(racine, cacheDerives, dico));
+        }
+        taille++;
+        return true;
+    }
+
+    // Écrit une clé dans la première case libre de sa séquence de sondage
+    private static void placer(Table t, long cle, Node node) {
+        int i = indice(cle, t.masque);
+        while (t.cles[i] != LIBRE)
+            i = (i + 1) & t.masque;
+        NOEUDS.setRelease(t.noeuds, i, node);  // Le nœud avant la clé
+        CLES.setRelease(t.cles, i, cle);
+        t.utilisees++;
+    }
+
+    public synchronized boolean supprimerRacine(String racine) {
+        long k = cle(racine);
+        Node node;
+        if (k == LIBRE) {
+            node = longues.get(racine);
+            if (node == null)
+                return false;
+            HashMap<String, Node> copie = new HashMap<>(longues);
+            copie.remove(racine);
+            longues = copie;
+        } else {
+            Table t = table;
+            int i = indice(k, t.masque);
+            while (t.cles[i] != k) {
+                if (t.cles[i] == LIBRE)
+                    return false;
+                i = (i + 1) & t.masque;
+            }
+            node = t.noeuds[i];
+            CLES.setRelease(t.cles, i, SUPPRIMEE);  // La case reste occupée jusqu'à la reconstruction
+            NOEUDS.setRelease(t.noeuds, i, null);
+        }
+        taille--;
+        if (cacheDerives != null)
+            cacheDerives.oublier(node.derives);
+        return true;
+    }
+
+    // Agrandit la table à l'avance pour un lot (évite les reconstructions successives)
+    private void reserver(int racines) {
+        if (2 * racines > table.cles.length)
+            reconstruire(racines);
+    }
+
+    // Recopie les racines dans une table remplie au plus au quart, sans cases supprimées,
+    // puis la publie ; les lecteurs en cours finissent sur l'ancienne, qui ne change plus
+    private Table reconstruire(int racines) {
+        Table ancienne = table;
+        int capacite = CAPACITE_MIN;
+        while (capacite < 4L * racines)
+            capacite <<= 1;
+        Table t = new Table(capacite);
+        for (int i = 0; i < ancienne.cles.length; i++) {
+            long c = ancienne.cles[i];
+            if (c != LIBRE && c != SUPPRIMEE)
+                placer(t, c, ancienne.noeuds[i]);
+        }
+        table = t;
+        return t;
+    }
+
+    // ================= Parcours =================
+    public int taille() {
+        return taille;
+    }
+
+    // Nœuds triés par racine : la table n'a pas d'ordre, le tri coûte O(n log n)
+    public List<Node> getAllNodes() {
+        Table t = table;
+        List<Node> nodes = new ArrayList<>(taille);
+        for (int i = 0; i < t.cles.length; i++) {
+            long c = (long) CLES.getAcquire(t.cles, i);
+            if (c == LIBRE || c == SUPPRIMEE)
+                continue;
+            Node n = (Node) NOEUDS.getAcquire(t.noeuds, i);
+            if (n != null)
+                nodes.add(n);
+        }
+        nodes.addAll(longues.values());
+        nodes.sort(Comparator.comparing((Node n) -> n.racine));
+        return nodes;
+    }
+
+    public DictionnaireDerives getDictionnaire() {
+        return dico;
+    }
+
+    public void afficher() {
+        System.out.println("\n=== RACINES ET DÉRIVÉS ===");
+        List<Node> nodes = getAllNodes();
+        if (nodes.isEmpty())
+            System.out.println("Aucune racine");
+        for (Node n : nodes)
+            n.afficher();
+    }
+
+    // Vérifie que chaque racine est retrouvée par sa propre clé, que le nombre de racines
+    // est exact et qu'il reste des cases libres (condition d'arrêt des recherches)
+    public synchronized boolean verifier() {
+        Table t = table;
+        int racines = 0, utilisees = 0;
+        for (int i = 0; i < t.cles.length; i++) {
+            long c = t.cles[i];
+            if (c == LIBRE)
+                continue;
+            utilisees++;
+            if (c == SUPPRIMEE)
+                continue;
+            Node n = t.noeuds[i];
+            if (n == null || cle(n.racine) != c || rechercher(c) != n)
+                return false;
+            racines++;
+        }
+        for (Map.Entry<String, Node> e : longues.entrySet()) {
+            if (cle(e.getKey()) != LIBRE || !e.getKey().equals(e.getValue().racine))
+                return false;
+            racines++;
+        }
+        return racines == taille && utilisees == t.utilisees && 2 * utilisees <= t.cles.length;
+    }
+}
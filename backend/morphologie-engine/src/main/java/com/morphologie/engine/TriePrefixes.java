@@ -0,0 +1,164 @@
+package com.morphologie.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Arbre préfixe (trie) de mots associés chacun à une valeur : racines pour
+// l'autocomplétion, ou mots générés et leurs analyses (l'index inversé n'a pas d'autre
+// table des mots : la recherche exacte et la recherche par préfixe lisent le même arbre)
+// Une recherche exacte descend le mot lettre par lettre : O(|mot| × log(fils)), sans
+// hachage ni comparaison de chaînes
+// Une recherche par préfixe descend le préfixe (une recherche dichotomique par lettre)
+// puis parcourt le sous-arbre dans l'ordre alphabétique jusqu'à k mots :
+// O(|préfixe| + k × longueur), indépendant de la taille du lexique
+// Lectures sans verrou : les fils d'un nœud sont un tableau trié, jamais modifié, remplacé
+// en bloc (champ volatile) ; les écritures sont sérialisées par le propriétaire ou par
+// synchronized
+public class TriePrefixes<V> {
+
+    private static final NoeudTrie<?>[] AUCUN = new NoeudTrie<?>[0];
+
+    private static final class NoeudTrie<V> {
+        final char lettre;
+        @SuppressWarnings("unchecked")
+        volatile NoeudTrie<V>[] fils = (NoeudTrie<V>[]) AUCUN;  // Triés par lettre
+        volatile V valeur;                                      // Non null : un mot se termine ici
+
+        NoeudTrie(char lettre) {
+            this.lettre = lettre;
+        }
+
+        NoeudTrie<V> fils(char c) {
+            NoeudTrie<V>[] f = fils;
+            int i = position(f, c);
+            return i >= 0 ? f[i] : null;
+        }
+    }
+
+    private final NoeudTrie<V> racine = new NoeudTrie<>('\0');
+    private volatile int taille;
+
+    // Indice de la lettre dans des fils triés, ou -(point d'insertion) - 1
+    private static int position(NoeudTrie<?>[] f, char c) {
+        int lo = 0, hi = f.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = f[mid].lettre;
+            if (m < c) lo = mid + 1;
+            else if (m > c) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // ================= Écritures =================
+    // Associe la valeur (non null) au mot ; retourne l'ancienne valeur, null si le mot
+    // était absent
+    @SuppressWarnings("unchecked")
+    public synchronized V mettre(String mot, V valeur) {
+        if (mot == null || mot.isEmpty() || valeur == null) return null;
+        NoeudTrie<V> n = racine;
+        for (int i = 0; i < mot.length(); i++) {
+            char c = mot.charAt(i);
+            NoeudTrie<V>[] f = n.fils;
+            int p = position(f, c);
+            if (p >= 0) {
+                n = f[p];
+                continue;
+            }
+            // Nouveau fils inséré à sa place dans une copie du tableau, publiée ensuite
+            int ins = -p - 1;
+            NoeudTrie<V> nouveau = new NoeudTrie<>(c);
+            NoeudTrie<V>[] copie = (NoeudTrie<V>[]) new NoeudTrie<?>[f.length + 1];
+            System.arraycopy(f, 0, copie, 0, ins);
+            copie[ins] = nouveau;
+            System.arraycopy(f, ins, copie, ins + 1, f.length - ins);
+            n.fils = copie;
+            n = nouveau;
+        }
+        V ancienne = n.valeur;
+        n.valeur = valeur;  // Remplacée d'un coup : un lecteur voit l'ancienne ou la nouvelle
+        if (ancienne == null) taille++;
+        return ancienne;
+    }
+
+    // Retire un mot et élague les branches devenues vides ; retourne sa valeur, null s'il
+    // était absent
+    @SuppressWarnings("unchecked")
+    public synchronized V enlever(String mot) {
+        if (mot == null || mot.isEmpty()) return null;
+        NoeudTrie<V>[] chemin = (NoeudTrie<V>[]) new NoeudTrie<?>[mot.length() + 1];
+        chemin[0] = racine;
+        for (int i = 0; i < mot.length(); i++) {
+            chemin[i + 1] = chemin[i].fils(mot.charAt(i));
+            if (chemin[i + 1] == null) return null;
+        }
+        NoeudTrie<V> fin = chemin[mot.length()];
+        V ancienne = fin.valeur;
+        if (ancienne == null) return null;
+        fin.valeur = null;
+        taille--;
+
+        // Remonte tant que le nœud n'a plus ni mot ni fils
+        for (int i = mot.length(); i > 0; i--) {
+            NoeudTrie<V> n = chemin[i];
+            if (n.valeur != null || n.fils.length > 0) break;
+            NoeudTrie<V> parent = chemin[i - 1];
+            NoeudTrie<V>[] f = parent.fils;
+            int p = position(f, n.lettre);
+            NoeudTrie<V>[] copie = (NoeudTrie<V>[]) new NoeudTrie<?>[f.length - 1];
+            System.arraycopy(f, 0, copie, 0, p);
+            System.arraycopy(f, p + 1, copie, p, f.length - p - 1);
+            parent.fils = copie;
+        }
+        return ancienne;
+    }
+
+    // ================= Lectures =================
+    // Valeur associée au mot, null s'il est absent
+    public V valeur(String mot) {
+        if (mot == null) return null;
+        NoeudTrie<V> n = descendre(mot);
+        return n == null ? null : n.valeur;
+    }
+
+    public boolean contient(String mot) {
+        return valeur(mot) != null;
+    }
+
+    // Au plus k mots commençant par le préfixe, dans l'ordre alphabétique
+    // (les plus courts d'une même branche d'abord : "كتب" avant "كتبة")
+    public List<String> rechercher(String prefixe, int k) {
+        if (prefixe == null || k <= 0) return Collections.emptyList();
+        NoeudTrie<V> n = descendre(prefixe);
+        if (n == null) return Collections.emptyList();
+        List<String> resultats = new ArrayList<>(Math.min(k, 64));
+        StringBuilder mot = new StringBuilder(prefixe);
+        collecter(n, mot, resultats, k);
+        return resultats;
+    }
+
+    private NoeudTrie<V> descendre(String prefixe) {
+        NoeudTrie<V> n = racine;
+        for (int i = 0; i < prefixe.length() && n != null; i++)
+            n = n.fils(prefixe.charAt(i));
+        return n;
+    }
+
+    // Parcours en profondeur préfixe ; s'arrête dès que k mots sont trouvés
+    private static void collecter(NoeudTrie<?> n, StringBuilder mot, List<String> resultats, int k) {
+        if (n.valeur != null) resultats.add(mot.toString());
+        for (NoeudTrie<?> f : n.fils) {  // Tableau lu une fois : instantané des fils
+            if (resultats.size() >= k) return;
+            mot.append(f.lettre);
+            collecter(f, mot, resultats, k);
+            mot.setLength(mot.length() - 1);
+        }
+    }
+
+    // Nombre de mots
+    public int taille() {
+        return taille;
+    }
+}
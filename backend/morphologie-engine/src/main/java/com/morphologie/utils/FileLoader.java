@@ -1,30 +1,46 @@
 package com.morphologie.utils;
 
-import com.morphologie.engine.AVLTree;
+import com.morphologie.engine.RootIndex;
+import com.morphologie.engine.Morphologie;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
+// Les racines d'un fichier sont d'abord lues en entier puis ajoutées en un seul lot :
+// l'arbre est construit (ou fusionné) en temps linéaire au lieu de n insertions
 public class FileLoader {
-    // Charge les racines depuis un fichier et les ajoute dans l'arbre AVL
-    public static void chargerRacinesDepuisFichier(String filename, AVLTree arbre) {
+    // Charge les racines depuis un fichier et les ajoute dans le moteur (arbre + index inversé)
+    public static void chargerRacinesDepuisFichier(String filename, Morphologie engine) {
+        charger(filename, engine::ajouterRacines);
+    }
+
+    // Charge les racines depuis un fichier et les ajoute dans un index de racines (arbre AVL ou table)
+    public static void chargerRacinesDepuisFichier(String filename, RootIndex arbre) {
+        charger(filename, arbre::addRacines);
+    }
+
+    // Charge les racines depuis un fichier du disque (hors resources) et les ajoute dans le moteur
+    public static void chargerRacinesDepuisChemin(Path chemin, Morphologie engine) {
+        try (BufferedReader br = Files.newBufferedReader(chemin, StandardCharsets.UTF_8)) {
+            int count = engine.ajouterRacines(lire(br)).size();
+            System.out.println("✅ Chargé " + count + " racines depuis le fichier : " + chemin);
+        } catch (IOException e) {
+            System.out.println("❌ Erreur lecture fichier : " + e.getMessage());
+        }
+    }
+
+    // Chargement depuis le dossier resources : le lot de racines valides est transmis à la fonction d'ajout
+    private static void charger(String filename, Function<List<String>, List<String>> ajout) {
         // On ouvre le fichier depuis le dossier resources du projet
         try (InputStream is = FileLoader.class.getClassLoader().getResourceAsStream(filename);
             BufferedReader br = new BufferedReader(
                     new InputStreamReader(is, StandardCharsets.UTF_8))) {
             
-            String ligne;
-            int count = 0;  // Compteur de racines chargées
-            
-            // On lit le fichier ligne par ligne
-            while ((ligne = br.readLine()) != null) {
-                ligne = ligne.trim();  // On enlève les espaces au début et à la fin
-                
-                // On vérifie que la ligne n'est pas vide et qu'elle contient 3 lettres (une racine arabe)
-                if (!ligne.isEmpty() && ligne.length() == 3) {
-                    arbre.addRacine(ligne);  // On ajoute la racine dans l'arbre
-                    count++;  // On incrémente le compteur
-                }
-            }
+            int count = ajout.apply(lire(br)).size();  // Racines réellement ajoutées
             System.out.println("✅ Chargé " + count + " racines depuis le fichier : " + filename);
             
         } catch (IOException e) {
@@ -35,4 +51,21 @@ public class FileLoader {
             System.out.println("❌ Fichier non trouvé : " + filename);
         }
     }
-}
\ No newline at end of file
+
+    // Lecture commune ligne par ligne, retourne les racines valides du fichier
+    private static List<String> lire(BufferedReader br) throws IOException {
+        String ligne;
+        List<String> racines = new ArrayList<>();
+        
+        // On lit le fichier ligne par ligne
+        while ((ligne = br.readLine()) != null) {
+            ligne = ligne.trim();  // On enlève les espaces au début et à la fin
+            
+            // On vérifie que la ligne n'est pas vide et qu'elle contient 3 lettres (une racine arabe)
+            if (!ligne.isEmpty() && ligne.length() == 3) {
+                racines.add(ligne);  // On garde la racine pour le lot
+            }
+        }
+        return racines;
+    }
+}
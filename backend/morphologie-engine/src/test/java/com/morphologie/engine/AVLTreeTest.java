@@ -0,0 +1,207 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Arbre AVL persistant : suppression par copie du chemin, invariants après des suites
+// aléatoires d'ajouts et de suppressions, chargement en masse par fusion
+class AVLTreeTest {
+
+    private PrintStream console;
+
+    @BeforeEach
+    void couperSortie() {
+        console = Lexique.couperSortie();
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    @Test
+    void suppressionNeModifiePasLaVersionPubliee() {
+        AVLTree arbre = new AVLTree();
+        List<String> racines = Lexique.racines(500);
+        arbre.addRacines(racines);
+
+        // État de chaque nœud de la version publiée avant les suppressions
+        List<Node> avant = arbre.getAllNodes();
+        Map<Node, Object[]> etats = new IdentityHashMap<>();
+        for (Node n : avant)
+            etats.put(n, new Object[] {n.gauche, n.droite, n.height});
+
+        List<String> supprimees = new ArrayList<>(racines.subList(0, 200));
+        Collections.shuffle(supprimees, new Random(1));
+        for (String r : supprimees)
+            assertTrue(arbre.supprimerRacine(r));
+
+        // Aucun nœud de l'ancienne version n'a été touché
+        for (Map.Entry<Node, Object[]> e : etats.entrySet()) {
+            Node n = e.getKey();
+            assertSame(e.getValue()[0], n.gauche, "gauche modifié : " + n.racine);
+            assertSame(e.getValue()[1], n.droite, "droite modifié : " + n.racine);
+            assertEquals(e.getValue()[2], n.height, "hauteur modifiée : " + n.racine);
+        }
+        assertEquals(500, avant.size());
+
+        TreeSet<String> attendu = new TreeSet<>(racines);
+        attendu.removeAll(supprimees);
+        assertTrue(arbre.verifier());
+        assertEquals(new ArrayList<>(attendu), racinesDe(arbre));
+        assertEquals(300, arbre.taille());
+        for (String r : supprimees)
+            assertNull(arbre.rechercher(r));
+        assertFalse(arbre.supprimerRacine(supprimees.get(0)));
+    }
+
+    @Test
+    void suppressionGardeLesDerivesDesAutresRacines() {
+        AVLTree arbre = new AVLTree();
+        List<String> racines = Lexique.racines(100);
+        arbre.addRacines(racines);
+        for (String r : racines)
+            arbre.rechercher(r).ajouterDerive(r + "ة", "فعلة");
+
+        for (int i = 0; i < racines.size(); i += 2)
+            arbre.supprimerRacine(racines.get(i));
+
+        for (int i = 1; i < racines.size(); i += 2) {
+            String r = racines.get(i);
+            assertEquals(Arrays.asList(r + "ة"), arbre.rechercher(r).getDerives());
+        }
+    }
+
+    @Test
+    void suitesAleatoiresGardentLesInvariants() {
+        Random rnd = new Random(42);
+        List<String> racines = Lexique.racines(800);
+        for (int essai = 0; essai < 5; essai++) {
+            AVLTree arbre = new AVLTree();
+            TreeSet<String> reference = new TreeSet<>();
+            for (int op = 0; op < 4000; op++) {
+                String r = racines.get(rnd.nextInt(racines.size()));
+                if (rnd.nextInt(3) == 0) {
+                    assertEquals(reference.remove(r), arbre.supprimerRacine(r));
+                } else {
+                    assertEquals(reference.add(r), arbre.addRacine(r));
+                }
+                if (op % 250 == 0)
+                    assertTrue(arbre.verifier(), "invariants violés à l'opération " + op);
+            }
+            assertTrue(arbre.verifier());
+            assertEquals(reference.size(), arbre.taille());
+            assertEquals(new ArrayList<>(reference), racinesDe(arbre));
+        }
+    }
+
+    @Test
+    void toutSupprimerVideLArbre() {
+        AVLTree arbre = new AVLTree();
+        List<String> racines = Lexique.racines(300);
+        arbre.addRacines(racines);
+        Collections.shuffle(racines, new Random(7));
+        for (String r : racines) {
+            assertTrue(arbre.supprimerRacine(r));
+            assertTrue(arbre.verifier());
+        }
+        assertEquals(0, arbre.taille());
+        assertTrue(arbre.getAllNodes().isEmpty());
+    }
+
+    @Test
+    void fusionDUnGrosLotTrie() {
+        AVLTree arbre = new AVLTree();
+        List<String> racines = new ArrayList<>(new TreeSet<>(Lexique.racines(2000)));
+        List<String> existantes = new ArrayList<>();
+        for (int i = 0; i < racines.size(); i += 3)
+            existantes.add(racines.get(i));
+        arbre.addRacines(existantes);
+        for (String r : existantes)
+            arbre.rechercher(r).ajouterDerive(r + "ة", "فعلة");
+        List<Node> avant = arbre.getAllNodes();
+
+        // Lot trié qui recouvre une partie des racines existantes : chemin de fusion
+        List<String> lot = racines.subList(0, 1500);
+        List<String> attendues = new ArrayList<>(lot);
+        attendues.removeAll(existantes);
+        assertTrue((long) lot.size() * 12 >= arbre.taille(), "le lot doit passer par la fusion");
+
+        List<String> ajoutees = arbre.addRacinesTriees(lot);
+
+        assertEquals(attendues, ajoutees);
+        assertTrue(arbre.verifier());
+        TreeSet<String> reference = new TreeSet<>(existantes);
+        reference.addAll(lot);
+        assertEquals(new ArrayList<>(reference), racinesDe(arbre));
+        assertEquals(reference.size(), arbre.taille());
+        // Les racines existantes gardent leurs dérivés, l'ancienne version reste entière
+        for (String r : existantes)
+            assertEquals(Arrays.asList(r + "ة"), arbre.rechercher(r).getDerives());
+        assertEquals(existantes.size(), avant.size());
+        for (Node n : avant)
+            assertTrue(existantes.contains(n.racine));
+    }
+
+    @Test
+    void petitLotInsereUnParUn() {
+        AVLTree arbre = new AVLTree();
+        List<String> racines = new ArrayList<>(new TreeSet<>(Lexique.racines(1000)));
+        arbre.addRacines(racines.subList(0, 900));
+
+        List<String> lot = Arrays.asList(racines.get(10), racines.get(950), racines.get(999));
+        assertEquals(Arrays.asList(racines.get(950), racines.get(999)), arbre.addRacinesTriees(lot));
+        assertTrue(arbre.verifier());
+        assertEquals(902, arbre.taille());
+    }
+
+    @Test
+    void lotNonTrieEstTrieEtDedoublonne() {
+        AVLTree arbre = new AVLTree();
+        List<String> racines = Lexique.racines(400);
+        List<String> lot = new ArrayList<>(racines);
+        lot.addAll(racines.subList(0, 50));
+        Collections.shuffle(lot, new Random(3));
+
+        List<String> ajoutees = arbre.addRacines(lot);
+
+        List<String> attendu = new ArrayList<>(new TreeSet<>(racines));
+        assertEquals(attendu, ajoutees);
+        assertEquals(attendu, racinesDe(arbre));
+        assertTrue(arbre.verifier());
+        assertTrue(arbre.addRacines(lot).isEmpty());
+    }
+
+    @Test
+    void lotTrieRefuseSiDesordonne() {
+        AVLTree arbre = new AVLTree();
+        assertThrows(IllegalArgumentException.class,
+                () -> arbre.addRacinesTriees(Arrays.asList("كتب", "درس")));
+        assertThrows(IllegalArgumentException.class,
+                () -> arbre.addRacinesTriees(Arrays.asList("درس", "درس")));
+    }
+
+    private static List<String> racinesDe(AVLTree arbre) {
+        List<String> racines = new ArrayList<>();
+        for (Node n : arbre.getAllNodes())
+            racines.add(n.racine);
+        return racines;
+    }
+}
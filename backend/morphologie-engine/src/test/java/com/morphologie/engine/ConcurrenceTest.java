@@ -0,0 +1,188 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Test de charge du moteur partagé entre threads : écrivains et lecteurs en parallèle
+// Échoue sur toute lecture perdue (racine stable introuvable), dupliquée (racine ou analyse
+// vue deux fois) ou déchirée (instantané désordonné, dérivés incohérents), puis vérifie
+// les invariants de l'arbre et la cohérence de l'index avec l'état final des écrivains
+class ConcurrenceTest {
+
+    static final int NB_RACINES = 2000;    // Taille du lexique synthétique
+    static final int NB_STABLES = 200;     // Racines jamais supprimées, toujours visibles
+    static final int NB_LECTEURS = 6;      // Threads de lecture
+    static final int NB_ECRIVAINS = 2;     // Threads d'écriture (racines disjointes)
+    static final long DUREE_MS = 1500;     // Durée du stress
+
+    private PrintStream console;
+
+    @BeforeEach
+    void couperSortie() {
+        console = Lexique.couperSortie();
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    @Test
+    void lecteursEtEcrivainsEnParallele() throws InterruptedException {
+        Morphologie engine = new Morphologie();
+        List<String> racines = Lexique.racines(NB_RACINES);
+        List<String> stables = racines.subList(0, NB_STABLES);
+        List<String> mobiles = racines.subList(NB_STABLES, NB_RACINES);
+        engine.ajouterRacines(stables);
+        List<Scheme> schemes = new ArrayList<>(engine.getRegistreSchemes().schemes());
+
+        // Dérivés ajoutés dans l'ordre à la première racine stable : mot i et schème i
+        String racineDerives = stables.get(0);
+        int nbDerives = 5000;
+
+        AtomicBoolean fin = new AtomicBoolean(false);
+        ConcurrentLinkedQueue<String> erreurs = new ConcurrentLinkedQueue<>();
+        AtomicLong lectures = new AtomicLong();
+        Map<String, Boolean> etatFinal = new ConcurrentHashMap<>();
+        List<Thread> threads = new ArrayList<>();
+
+        // Écrivains : chacun ajoute et supprime ses propres racines, et vérifie aussitôt
+        // qu'il voit ses écritures
+        for (int w = 0; w < NB_ECRIVAINS; w++) {
+            int numero = w;
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                Set<String> presentes = new HashSet<>();
+                while (!fin.get()) {
+                    String r = mobiles.get(rnd.nextInt(mobiles.size() / NB_ECRIVAINS) * NB_ECRIVAINS + numero);
+                    if (rnd.nextBoolean()) {
+                        boolean ajoutee = engine.ajouterRacine(r);
+                        if (ajoutee == presentes.contains(r)) erreurs.add("ajout incohérent : " + r);
+                        presentes.add(r);
+                        if (engine.arbre.rechercher(r) == null) erreurs.add("ajout perdu : " + r);
+                    } else {
+                        boolean supprimee = engine.supprimerRacine(r);
+                        if (supprimee != presentes.contains(r)) erreurs.add("suppression incohérente : " + r);
+                        presentes.remove(r);
+                        if (engine.arbre.rechercher(r) != null) erreurs.add("suppression perdue : " + r);
+                    }
+                }
+                for (String r : presentes) etatFinal.put(r, true);
+            }));
+        }
+        threads.add(new Thread(() -> {
+            Node n = engine.arbre.rechercher(racineDerives);
+            for (int i = 0; i < nbDerives && !fin.get(); i++)
+                n.ajouterDerive(mot(i), scheme(i));
+        }));
+
+        // Lecteurs
+        for (int l = 0; l < NB_LECTEURS; l++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (!fin.get()) {
+                    String r = stables.get(rnd.nextInt(stables.size()));
+                    Scheme s = schemes.get(rnd.nextInt(schemes.size()));
+                    String mot = s.generate(r);
+
+                    if (engine.arbre.rechercher(r) == null) erreurs.add("racine stable perdue : " + r);
+                    List<Analyse> analyses = engine.analyser(mot);
+                    if (compter(analyses, r, s.nom) != 1)
+                        erreurs.add("analyse perdue ou dupliquée : " + mot + " -> " + analyses.size());
+                    if (engine.valider(r, mot) == null)
+                        erreurs.add("validation perdue : " + r + " / " + mot);
+                    verifierDerives(engine, racineDerives, erreurs);
+
+                    if (rnd.nextInt(50) == 0) verifierInstantane(engine, stables, erreurs);
+                    lectures.incrementAndGet();
+                }
+            }));
+        }
+
+        for (Thread t : threads) {
+            t.setUncaughtExceptionHandler((th, e) -> erreurs.add("exception : " + e));
+            t.start();
+        }
+        Thread.sleep(DUREE_MS);
+        fin.set(true);
+        for (Thread t : threads) t.join();
+
+        assertTrue(erreurs.isEmpty(), () -> erreurs.size() + " erreurs, dont : " + erreurs.peek());
+        assertTrue(lectures.get() > 0);
+        assertTrue(engine.arbre.verifier(), "invariants de l'arbre violés");
+
+        // État final : racines stables plus celles que les écrivains ont laissées
+        Set<String> attendues = new HashSet<>(stables);
+        attendues.addAll(etatFinal.keySet());
+        assertEquals(attendues, new HashSet<>(engine.getAllRacines()));
+        assertEquals(attendues.size(), engine.arbre.taille());
+
+        // Chaque racine présente est retrouvée par l'index, chaque racine supprimée jamais
+        for (String r : racines) {
+            boolean presente = attendues.contains(r);
+            for (Scheme s : schemes) {
+                int n = compter(engine.analyser(s.generate(r)), r, s.nom);
+                assertEquals(presente ? 1 : 0, n, "index incohérent pour " + r + " / " + s.nom);
+            }
+        }
+    }
+
+    // Instantané complet : strictement trié (ni doublon ni désordre), toutes les racines stables
+    private static void verifierInstantane(Morphologie engine, List<String> stables, ConcurrentLinkedQueue<String> erreurs) {
+        List<Node> noeuds = engine.arbre.getAllNodes();
+        Set<String> vues = new HashSet<>();
+        String precedente = null;
+        for (Node n : noeuds) {
+            if (precedente != null && precedente.compareTo(n.racine) >= 0)
+                erreurs.add("instantané désordonné ou dupliqué : " + precedente + " / " + n.racine);
+            precedente = n.racine;
+            vues.add(n.racine);
+        }
+        if (!vues.containsAll(stables)) erreurs.add("racine stable absente d'un instantané");
+    }
+
+    // Les dérivés lus forment toujours un préfixe de la suite écrite, chaque mot avec son schème
+    private static void verifierDerives(Morphologie engine, String racine, ConcurrentLinkedQueue<String> erreurs) {
+        Node n = engine.arbre.rechercher(racine);
+        DerivesRacine.Paires p = n.derives.lire();
+        for (int i = 0; i < p.n; i++) {
+            String m = p.mot(i);
+            String s = n.derives.dico.scheme(p.idScheme(i));
+            if (!mot(i).equals(m) || !scheme(i).equals(s)) {
+                erreurs.add("dérivé déchiré en " + i + " : " + m + " | " + s);
+                return;
+            }
+        }
+    }
+
+    private static int compter(List<Analyse> analyses, String racine, String scheme) {
+        int n = 0;
+        for (Analyse a : analyses) {
+            if (a.getRacine().equals(racine) && a.getScheme().equals(scheme)) n++;
+        }
+        return n;
+    }
+
+    private static String mot(int i) {
+        return "م" + i;
+    }
+
+    private static String scheme(int i) {
+        return "ش" + i;
+    }
+}
@@ -0,0 +1,130 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Compaction du dictionnaire des dérivés : seuls les mots des dérivés en mémoire sont
+// gardés, les dérivés restent lisibles (y compris ceux lus avant la compaction)
+class DictionnaireDerivesTest {
+
+    private PrintStream console;
+
+    @BeforeEach
+    void couperSortie() {
+        console = Lexique.couperSortie();
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    // Chaque racine a 20 dérivés propres : racine + indice
+    private static final ChargeurDerives CHARGEUR = (racine, mots, schemes) -> {
+        for (int i = 0; i < 20; i++) {
+            mots.add(racine + i);
+            schemes.add("ش" + (i % 3));
+        }
+    };
+
+    @Test
+    void compactionGardeLesSeulsMotsEnMemoire() {
+        Morphologie engine = new Morphologie(false, new CacheDerives(CHARGEUR, 50));
+        List<String> racines = Lexique.racines(500);
+        engine.ajouterRacines(racines);
+        for (String r : racines)
+            engine.arbre.rechercher(r).getDerives().size();  // Charge puis évince (LRU de 50)
+
+        DictionnaireDerives dico = engine.arbre.getDictionnaire();
+        assertEquals(500 * 20, dico.nombreMots());
+        assertEquals(50 * 20, engine.rapportMemoire().getMotsReferences());
+
+        // Dérivés lus avant la compaction : toujours décodés dans leur génération
+        String gardee = racines.get(racines.size() - 1);
+        List<String> avant = engine.arbre.rechercher(gardee).getDerives();
+
+        int abandonnes = engine.compacterDictionnaire();
+
+        assertEquals(450 * 20, abandonnes);
+        assertEquals(50 * 20, dico.nombreMots());
+        assertEquals(1, dico.getCompactions());
+        assertEquals(attendus(gardee), new ArrayList<>(avant));
+        assertEquals(attendus(gardee), new ArrayList<>(engine.arbre.rechercher(gardee).getDerives()));
+        assertEquals(schemesAttendus(), new ArrayList<>(engine.arbre.rechercher(gardee).getDeriveSchemes()));
+
+        // Une racine évincée est rechargée dans la nouvelle génération
+        String evincee = racines.get(0);
+        assertEquals(attendus(evincee), new ArrayList<>(engine.arbre.rechercher(evincee).getDerives()));
+    }
+
+    @Test
+    void compactionApresSuppressionDeRacines() {
+        Morphologie engine = new Morphologie(false);
+        List<String> racines = Lexique.racines(100);
+        engine.ajouterRacines(racines);
+        for (String r : racines) {
+            Node n = engine.arbre.rechercher(r);
+            for (int i = 0; i < 30; i++) n.ajouterDerive(r + i, "ش");  // Plus que le seuil de hachage
+        }
+        for (int i = 0; i < 60; i++)
+            engine.supprimerRacine(racines.get(i));
+
+        assertEquals(0, engine.compacterDictionnaireSiUtile(2.0, 1_000_000));  // Trop petit
+        assertEquals(0, engine.compacterDictionnaireSiUtile(3.0, 0));          // 3000 <= 3 × 1200
+        assertEquals(60 * 30, engine.compacterDictionnaireSiUtile(2.0, 0));
+        assertEquals(40 * 30, engine.arbre.getDictionnaire().nombreMots());
+
+        // Les dérivés réencodés restent dédoublonnés et acceptent de nouveaux mots
+        Node n = engine.arbre.rechercher(racines.get(99));
+        n.ajouterDerive(racines.get(99) + 5, "ش");
+        n.ajouterDerive("كلمة", "ش");
+        List<String> derives = n.getDerives();
+        assertEquals(31, derives.size());
+        assertEquals("كلمة", derives.get(30));
+        assertTrue(derives.contains(racines.get(99) + 29));
+    }
+
+    @Test
+    void ecrituresConcurrentesPendantLesCompactions() throws InterruptedException {
+        Morphologie engine = new Morphologie(false);
+        List<String> racines = Lexique.racines(50);
+        engine.ajouterRacines(racines);
+        int nbMots = 2000;
+
+        Thread ecrivain = new Thread(() -> {
+            for (int i = 0; i < nbMots; i++) {
+                for (String r : racines) engine.arbre.rechercher(r).ajouterDerive(r + i, "ش");
+            }
+        });
+        ecrivain.start();
+        while (ecrivain.isAlive()) engine.compacterDictionnaire();
+        ecrivain.join();
+        engine.compacterDictionnaire();
+
+        for (String r : racines) {
+            List<String> derives = engine.arbre.rechercher(r).getDerives();
+            assertEquals(nbMots, derives.size(), r);
+            for (int i = 0; i < nbMots; i++) assertEquals(r + i, derives.get(i));
+        }
+        assertEquals(racines.size() * nbMots, engine.arbre.getDictionnaire().nombreMots());
+    }
+
+    private static List<String> attendus(String racine) {
+        List<String> mots = new ArrayList<>();
+        for (int i = 0; i < 20; i++) mots.add(racine + i);
+        return mots;
+    }
+
+    private static List<String> schemesAttendus() {
+        List<String> schemes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) schemes.add("ش" + (i % 3));
+        return schemes;
+    }
+}
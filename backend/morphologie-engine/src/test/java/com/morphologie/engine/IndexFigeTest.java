@@ -0,0 +1,137 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Index figé comparé à un TreeSet : partie figée en ordre d'Eytzinger (recherche du premier
+// élément >= clé pour toutes les formes d'arbre), suppressions de racines figées, ajouts au
+// delta et gels successifs
+class IndexFigeTest {
+
+    private PrintStream console;
+
+    @BeforeEach
+    void couperSortie() {
+        console = Lexique.couperSortie();
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    @Test
+    void rechercheDansToutesLesTaillesDeGel() {
+        List<String> univers = Lexique.univers("ابتث");
+        List<String> tassables = new ArrayList<>();
+        for (String r : univers) if (r.length() <= 3) tassables.add(r);
+        Random rnd = new Random(7);
+
+        // Arbres implicites de 0 à |univers| nœuds, racines présentes et absentes voisines
+        for (int n = 0; n <= tassables.size(); n++) {
+            List<String> melange = new ArrayList<>(tassables);
+            Collections.shuffle(melange, rnd);
+            TreeSet<String> attendu = new TreeSet<>(melange.subList(0, n));
+            IndexFige index = new IndexFige();
+            index.addRacines(attendu);
+            index.regeler();
+            assertEquals(0, index.tailleDelta());
+            comparer(index, attendu, univers, "gel de " + n);
+        }
+    }
+
+    @Test
+    void ajoutsSuppressionsEtGelsAleatoires() {
+        List<String> univers = Lexique.univers("ابتثج");
+        for (long graine = 1; graine <= 20; graine++) {
+            Random rnd = new Random(graine);
+            IndexFige index = new IndexFige();
+            TreeSet<String> attendu = new TreeSet<>();
+
+            for (int op = 0; op < 2000; op++) {
+                String r = univers.get(rnd.nextInt(univers.size()));
+                int choix = rnd.nextInt(20);
+                if (choix < 8) {
+                    assertEquals(attendu.add(r), index.addRacine(r), "ajout " + r);
+                } else if (choix < 10) {
+                    List<String> lot = new ArrayList<>();
+                    for (int i = rnd.nextInt(40); i > 0; i--) lot.add(univers.get(rnd.nextInt(univers.size())));
+                    TreeSet<String> ajoutees = new TreeSet<>();
+                    for (String x : lot) if (attendu.add(x)) ajoutees.add(x);
+                    assertEquals(ajoutees, new TreeSet<>(index.addRacines(lot)), "lot");
+                } else if (choix < 19) {
+                    assertEquals(attendu.remove(r), index.supprimerRacine(r), "suppression " + r);
+                } else {
+                    index.regeler();
+                }
+                if (op % 50 == 0) comparer(index, attendu, univers, "graine " + graine + ", op " + op);
+            }
+            comparer(index, attendu, univers, "graine " + graine);
+            index.regeler();
+            comparer(index, attendu, univers, "graine " + graine + ", regelé");
+        }
+    }
+
+    @Test
+    void plageAvecBornesNulles() {
+        IndexFige index = new IndexFige();
+        index.addRacines(List.of("ب", "ببب", "تاب", "ثبت"));
+        index.regeler();
+        index.addRacine("بت");
+        index.supprimerRacine("تاب");
+
+        assertEquals(List.of("ب", "ببب", "بت", "ثبت"), racines(index.plage(null, null)));
+        assertEquals(List.of("ب", "ببب"), racines(index.plage(null, "بت")));
+        assertEquals(List.of("بت", "ثبت"), racines(index.plage("بت", null)));
+    }
+
+    private static void comparer(IndexFige index, TreeSet<String> attendu, List<String> univers, String ou) {
+        assertTrue(index.verifier(), "invariants : " + ou);
+        assertEquals(attendu.size(), index.taille(), "taille : " + ou);
+        for (String r : univers) {
+            Node n = index.rechercher(r);
+            if (attendu.contains(r)) {
+                assertNotNull(n, r + " absente : " + ou);
+                assertEquals(r, n.racine);
+            } else {
+                assertNull(n, r + " présente : " + ou);
+            }
+        }
+        assertEquals(new ArrayList<>(attendu), racines(index.getAllNodes()), "parcours : " + ou);
+
+        // Plages entre deux racines de l'univers (présentes ou non), bornes nulles comprises
+        Random rnd = new Random(ou.hashCode());
+        for (int i = 0; i < 20; i++) {
+            String debut = rnd.nextInt(8) == 0 ? null : univers.get(rnd.nextInt(univers.size()));
+            String fin = rnd.nextInt(8) == 0 ? null : univers.get(rnd.nextInt(univers.size()));
+            if (debut != null && fin != null && debut.compareTo(fin) > 0) {
+                String t = debut;
+                debut = fin;
+                fin = t;
+            }
+            NavigableSet<String> sous = attendu;
+            if (debut != null) sous = sous.tailSet(debut, true);
+            if (fin != null) sous = sous.headSet(fin, false);
+            assertEquals(new ArrayList<>(sous), racines(index.plage(debut, fin)), "plage [" + debut + ", " + fin + ") : " + ou);
+        }
+    }
+
+    private static List<String> racines(List<Node> nodes) {
+        List<String> racines = new ArrayList<>(nodes.size());
+        for (Node n : nodes) racines.add(n.racine);
+        return racines;
+    }
+}
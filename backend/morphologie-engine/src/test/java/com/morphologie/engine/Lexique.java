@@ -0,0 +1,50 @@
+package com.morphologie.engine;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Outils communs aux tests du moteur
+final class Lexique {
+
+    private Lexique() {
+    }
+
+    // Racines synthétiques distinctes de 3 lettres arabes (ب à ي), dans un ordre mélangé
+    static List<String> racines(int n) {
+        List<String> racines = new ArrayList<>(n);
+        char debut = 'ب', fin = 'ي';
+        int alphabet = fin - debut + 1;
+        for (int i = 0; racines.size() < n; i++) {
+            char c1 = (char) (debut + i % alphabet);
+            char c2 = (char) (debut + (i / alphabet) % alphabet);
+            char c3 = (char) (debut + (i / (alphabet * alphabet)) % alphabet);
+            racines.add("" + c1 + c2 + c3);
+        }
+        return racines;
+    }
+
+    // Toutes les racines de 1 à 3 lettres sur un petit alphabet (préfixes les unes des
+    // autres, clés voisines), plus quelques racines de 4 lettres non tassables
+    static List<String> univers(String alphabet) {
+        List<String> racines = new ArrayList<>();
+        for (char a : alphabet.toCharArray()) {
+            racines.add("" + a);
+            for (char b : alphabet.toCharArray()) {
+                racines.add("" + a + b);
+                for (char c : alphabet.toCharArray())
+                    racines.add("" + a + b + c);
+            }
+            racines.add("" + a + a + a + a);
+        }
+        return racines;
+    }
+
+    // Le moteur affiche chaque ajout de racine : les tests coupent la sortie standard
+    static PrintStream couperSortie() {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return console;
+    }
+}
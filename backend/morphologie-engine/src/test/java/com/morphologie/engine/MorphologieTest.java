@@ -0,0 +1,141 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Index inversé (recherche exacte et par préfixe) et table des schèmes après les
+// changements de racines et de schèmes, analyse et validation tolérantes (squelettes)
+class MorphologieTest {
+
+    private PrintStream console;
+    private Morphologie engine;
+
+    @BeforeEach
+    void preparer() {
+        console = Lexique.couperSortie();
+        engine = new Morphologie();
+        engine.ajouterRacines(Lexique.racines(200));
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    @Test
+    void rechercheExacteEtParPrefixeSurLesMemesMots() {
+        String racine = "كتب";
+        engine.ajouterRacine(racine);
+        String mot = engine.forme(racine, "مفعول");
+
+        assertTrue(contient(engine.analyser(mot), racine, "مفعول"));
+        assertTrue(engine.motsParPrefixe(mot, 10).contains(mot));
+        assertEquals(List.of(racine), engine.racinesParPrefixe("كت", 10));
+
+        engine.supprimerRacine(racine);
+
+        assertTrue(engine.analyser(mot).isEmpty());
+        assertFalse(engine.motsParPrefixe(mot, 10).contains(mot));
+        assertTrue(engine.racinesParPrefixe("كت", 10).isEmpty());
+    }
+
+    @Test
+    void modifierSchemeReindexeLesMots() {
+        String racine = "كتب";
+        engine.ajouterRacine(racine);
+        String ancien = engine.forme(racine, "فاعل");
+        long version = engine.getVersionSchemes();
+
+        engine.modifierScheme("فاعل", "فعّال");
+
+        assertEquals(version + 1, engine.getVersionSchemes());
+        assertNull(engine.getScheme("فاعل"));
+        String nouveau = engine.forme(racine, "فعّال");
+        assertTrue(contient(engine.analyser(nouveau), racine, "فعّال"));
+        assertTrue(engine.analyser(ancien).stream().noneMatch(a -> a.getScheme().equals("فاعل")));
+        assertEquals("فعّال", engine.valider(racine, nouveau));
+    }
+
+    @Test
+    void supprimerSchemeRetireSesMots() {
+        String racine = "كتب";
+        engine.ajouterRacine(racine);
+        String mot = engine.forme(racine, "استفعل");
+
+        engine.supprimerScheme("استفعل");
+
+        assertNull(engine.getScheme("استفعل"));
+        assertTrue(engine.analyser(mot).stream().noneMatch(a -> a.getScheme().equals("استفعل")));
+    }
+
+    @Test
+    void ajouterSchemeIndexeToutesLesRacines() {
+        engine.ajouterScheme("مفعال");
+
+        for (String racine : engine.getAllRacines()) {
+            String mot = engine.forme(racine, "مفعال");
+            assertTrue(contient(engine.analyser(mot), racine, "مفعال"), racine);
+        }
+    }
+
+    @Test
+    void voyellesTatwilEtLettresFinalesTolerees() {
+        assertSame("كاتب", NormaliseurArabe.normaliser("كاتب"));  // Déjà canonique : aucune copie
+        assertEquals("كاتبه", NormaliseurArabe.normaliser("كَاتِـبَة"));
+
+        // Avec l'index (squelettes) et sans index (alignement sur les gabarits normalisés)
+        for (Morphologie m : List.of(engine, new Morphologie(false))) {
+            m.ajouterRacine("كتب");
+            for (String mot : List.of("كاتب", "كَاتِبٌ", "كاتـــب", "كـاتِـب")) {
+                assertTrue(contient(m.analyser(mot), "كتب", "فاعل"), mot);
+                assertEquals("فاعل", m.valider("كتب", mot), mot);
+            }
+            assertTrue(contient(m.analyser("كاتبه"), "كتب", "فاعلة"));  // ه pour ة
+            assertEquals("فاعلة", m.valider("كتب", "كاتبه"));
+            assertNull(m.valider("كتب", "كاتل"));
+        }
+
+        // ي pour ى : la racine elle-même porte la lettre finale, l'index la retrouve
+        engine.ajouterRacine("رمى");
+        assertTrue(contient(engine.analyser("رامي"), "رمى", "فاعل"));
+        assertEquals("فاعل", engine.valider("رمى", "رامي"));
+    }
+
+    @Test
+    void racineAHamzaSansIndexSeulementSousSaGraphieExacte() {
+        String racine = "أكل";
+        String mot = engine.forme(racine, "مفعول");  // مأكول
+        String approche = "ماكول";
+
+        // Avec l'index, le squelette du mot généré retrouve la racine
+        engine.ajouterRacine(racine);
+        assertTrue(contient(engine.analyser(approche), racine, "مفعول"));
+
+        // Sans index, la racine extraite du squelette est اكل, absente de l'arbre : limite
+        // connue, seule la graphie exacte est analysée ; la validation, qui part de la
+        // racine, reste tolérante
+        Morphologie sansIndex = new Morphologie(false);
+        sansIndex.ajouterRacine(racine);
+        assertTrue(contient(sansIndex.analyser(mot), racine, "مفعول"));
+        assertFalse(contient(sansIndex.analyser(approche), racine, "مفعول"));
+        assertEquals("مفعول", sansIndex.valider(racine, approche));
+
+        // Même limite pour une racine finissant par ى
+        sansIndex.ajouterRacine("رمى");
+        assertFalse(contient(sansIndex.analyser("رامي"), "رمى", "فاعل"));
+        assertEquals("فاعل", sansIndex.valider("رمى", "رامي"));
+    }
+
+    private static boolean contient(List<Analyse> analyses, String racine, String scheme) {
+        return analyses.stream().anyMatch(a -> a.getRacine().equals(racine) && a.getScheme().equals(scheme));
+    }
+}
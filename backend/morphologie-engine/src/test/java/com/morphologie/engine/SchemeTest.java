@@ -0,0 +1,98 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Compilation des règles en gabarits : seules les concaténations pures sont compilées,
+// une règle qui dépend des lettres de la racine reste appliquée telle quelle
+class SchemeTest {
+
+    private static final String[] RACINES = {"كتب", "درس", "وعد", "قول", "رمي", "أكل", "سأل", "قرأ", "مدد"};
+
+    @Test
+    void concatenationCompilee() {
+        Scheme s = new Scheme("فاعل", (c1, c2, c3) -> c1 + "ا" + c2 + "ِ" + c3);
+
+        assertNotNull(s.gabarit);
+        assertEquals(5, s.longueur());
+        assertEquals("كاتِب", s.generate("كتب"));
+        StringBuilder out = new StringBuilder();
+        assertTrue(s.generateInto("درس", out));
+        assertEquals("دارِس", out.toString());
+    }
+
+    @Test
+    void regleDesRacinesFaiblesNonCompilee() {
+        // Participe actif des verbes creux : la 2e lettre و / ي devient ئ
+        Scheme.Transformation regle = (c1, c2, c3) ->
+                c1 + "ا" + (c2.equals("و") || c2.equals("ي") ? "ئ" : c2) + "ِ" + c3;
+        Scheme s = new Scheme("فاعل", regle);
+
+        assertNull(s.gabarit);
+        assertEquals(-1, s.longueur());
+        assertFalse(s.generateInto("قول", new StringBuilder()));
+        assertEquals("قائِل", s.generate("قول"));
+        assertEquals("كاتِب", s.generate("كتب"));
+        assertTrue(s.reconnait("قول", "قائِل"));
+        assertFalse(s.reconnait("قول", "قاوِل"));
+    }
+
+    @Test
+    void regleQuiDependDeLaPremiereLettreNonCompilee() {
+        // Assimilation de la forme افتعل : ت devient ط après ص / ض / ط / ظ
+        Scheme.Transformation regle = (c1, c2, c3) ->
+                "ا" + c1 + ("صضطظ".contains(c1) ? "ط" : "ت") + c2 + c3;
+        Scheme s = new Scheme("افتعل", regle);
+
+        assertNull(s.gabarit);
+        assertEquals("اصطبر", s.generate("صبر"));
+        assertEquals("اكتسب", s.generate("كسب"));
+    }
+
+    @Test
+    void regleDesLettresRedoubleesNonCompilee() {
+        // Verbes sourds : les deux dernières lettres identiques fusionnent (مدّ)
+        Scheme.Transformation regle = (c1, c2, c3) ->
+                c2.equals(c3) ? c1 + c2 + "ّ" : c1 + "َ" + c2 + "َ" + c3 + "َ";
+        Scheme s = new Scheme("فَعَلَ", regle);
+
+        assertNull(s.gabarit);
+        assertEquals("مدّ", s.generate("مدد"));
+    }
+
+    @Test
+    void schemesDeBaseCompilesEtConformesALeurRegle() {
+        PrintStream console = Lexique.couperSortie();
+        try {
+            List<Scheme> schemes = new Morphologie().getRegistreSchemes().schemes();
+            for (Scheme s : schemes) {
+                assertNotNull(s.gabarit, s.nom);
+                for (String r : RACINES) {
+                    String attendu = s.rule.apply("" + r.charAt(0), "" + r.charAt(1), "" + r.charAt(2));
+                    assertEquals(attendu, s.generate(r), s.nom + " / " + r);
+                    assertTrue(s.reconnait(r, attendu));
+                    assertEquals(r, s.extraireRacine(attendu));
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    @Test
+    void schemeDynamiqueSuitSonPattern() {
+        Scheme s = new Scheme("مفعال");
+
+        assertTrue(s.estDynamique());
+        assertEquals("مكتاب", s.generate("كتب"));
+        assertEquals(s.rule.apply("ق", "و", "ل"), s.generate("قول"));
+        assertNull(s.generate("كت"));
+    }
+}
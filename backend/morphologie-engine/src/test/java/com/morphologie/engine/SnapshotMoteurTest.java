@@ -0,0 +1,95 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Instantané binaire : aller-retour ecrire puis charger (schèmes, racines, dérivés,
+// horodatage), puis refus d'un fichier corrompu ou tronqué sans toucher au moteur
+class SnapshotMoteurTest {
+
+    private PrintStream console;
+    private Morphologie source;
+
+    @TempDir
+    Path dossier;
+
+    @BeforeEach
+    void preparer() {
+        console = Lexique.couperSortie();
+        source = new Morphologie();
+        source.ajouterRacines(Lexique.racines(300));
+        source.ajouterScheme("مفعال");
+        source.supprimerScheme("استفعل");
+        for (String r : source.getAllRacines().subList(0, 50)) {
+            Node n = source.arbre.rechercher(r);
+            n.ajouterDerive(source.forme(r, "فاعل"), "فاعل");
+            n.ajouterDerive(source.forme(r, "مفعال"), "مفعال");
+        }
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    @Test
+    void ecrirePuisCharger() throws IOException {
+        Path fichier = dossier.resolve("moteur.snap");
+        SnapshotMoteur.ecrire(source, fichier, 123456789L);
+
+        Morphologie copie = new Morphologie();
+        assertEquals(123456789L, SnapshotMoteur.charger(fichier, copie));
+
+        assertEquals(source.getAllRacines(), copie.getAllRacines());
+        assertEquals(new ArrayList<>(source.getAllSchemes()), new ArrayList<>(copie.getAllSchemes()));
+        for (String r : source.getAllRacines()) {
+            Node attendu = source.arbre.rechercher(r);
+            Node lu = copie.arbre.rechercher(r);
+            assertEquals(new ArrayList<>(attendu.getDerives()), new ArrayList<>(lu.getDerives()), r);
+            assertEquals(new ArrayList<>(attendu.getDeriveSchemes()), new ArrayList<>(lu.getDeriveSchemes()), r);
+        }
+        String r = source.getAllRacines().get(0);
+        assertEquals("مفعال", copie.valider(r, copie.forme(r, "مفعال")));
+    }
+
+    @Test
+    void octetModifieRejete() throws IOException {
+        Path fichier = dossier.resolve("moteur.snap");
+        SnapshotMoteur.ecrire(source, fichier, 1L);
+        byte[] octets = Files.readAllBytes(fichier);
+        octets[octets.length / 2] ^= 0x01;
+        Files.write(fichier, octets);
+
+        Morphologie cible = new Morphologie();
+        List<String> schemes = new ArrayList<>(cible.getAllSchemes());
+        IOException e = assertThrows(IOException.class, () -> SnapshotMoteur.charger(fichier, cible));
+        assertTrue(e.getMessage().contains("CRC"), e.getMessage());
+        assertTrue(cible.getAllRacines().isEmpty());
+        assertEquals(schemes, new ArrayList<>(cible.getAllSchemes()));
+    }
+
+    @Test
+    void fichierTronqueRejete() throws IOException {
+        Path fichier = dossier.resolve("moteur.snap");
+        SnapshotMoteur.ecrire(source, fichier, 1L);
+        byte[] octets = Files.readAllBytes(fichier);
+        Files.write(fichier, Arrays.copyOf(octets, octets.length - 100));
+
+        Morphologie cible = new Morphologie();
+        assertThrows(IOException.class, () -> SnapshotMoteur.charger(fichier, cible));
+        assertTrue(cible.getAllRacines().isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.morphologie.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Table à adressage ouvert comparée à un TreeSet sur des suites aléatoires d'ajouts et de
+// suppressions : les cases supprimées s'accumulent et forcent des reconstructions, les
+// recherches doivent sauter les cases supprimées sans s'arrêter avant la bonne clé
+class TableRacinesTest {
+
+    private PrintStream console;
+
+    @BeforeEach
+    void couperSortie() {
+        console = Lexique.couperSortie();
+    }
+
+    @AfterEach
+    void retablirSortie() {
+        System.setOut(console);
+    }
+
+    @Test
+    void ajoutsEtSuppressionsAleatoires() {
+        List<String> univers = Lexique.univers("ابتثج");
+        for (long graine = 1; graine <= 20; graine++) {
+            Random rnd = new Random(graine);
+            TableRacines table = new TableRacines();
+            TreeSet<String> attendu = new TreeSet<>();
+
+            for (int op = 0; op < 3000; op++) {
+                String r = univers.get(rnd.nextInt(univers.size()));
+                int choix = rnd.nextInt(10);
+                if (choix < 4) {
+                    assertEquals(attendu.add(r), table.addRacine(r), "ajout " + r);
+                } else if (choix < 5) {
+                    List<String> lot = new ArrayList<>();
+                    for (int i = rnd.nextInt(40); i > 0; i--) lot.add(univers.get(rnd.nextInt(univers.size())));
+                    List<String> ajoutees = new ArrayList<>();
+                    for (String x : lot) if (attendu.add(x)) ajoutees.add(x);
+                    assertEquals(ajoutees, table.addRacines(lot), "lot");
+                } else {
+                    assertEquals(attendu.remove(r), table.supprimerRacine(r), "suppression " + r);
+                }
+                if (op % 100 == 0) comparer(table, attendu, univers, "graine " + graine + ", op " + op);
+            }
+            comparer(table, attendu, univers, "graine " + graine);
+        }
+    }
+
+    @Test
+    void tableRemplieVideePuisRemplie() {
+        List<String> univers = Lexique.racines(5000);
+        TableRacines table = new TableRacines();
+        TreeSet<String> attendu = new TreeSet<>();
+
+        // Ajouts un par un (reconstructions successives), suppression de tout, puis lot
+        for (String r : univers) assertTrue(table.addRacine(r));
+        attendu.addAll(univers);
+        comparer(table, attendu, univers, "remplie");
+        for (String r : univers) assertTrue(table.supprimerRacine(r));
+        attendu.clear();
+        comparer(table, attendu, univers, "vidée");
+        assertEquals(univers, table.addRacines(univers));
+        attendu.addAll(univers);
+        comparer(table, attendu, univers, "remplie en lot");
+    }
+
+    @Test
+    void clesDistinctesPourLesRacinesCourtesEtLongues() {
+        TableRacines table = new TableRacines();
+        assertTrue(table.addRacine("ب"));
+        assertTrue(table.addRacine("بب"));
+        assertTrue(table.addRacine("ببب"));
+        assertTrue(table.addRacine("بببب"));
+
+        assertNotNull(table.rechercher("بب"));
+        assertEquals("ببب", table.rechercher("ببب").racine);
+        assertEquals("بببب", table.rechercher("بببب").racine);
+        assertNull(table.rechercher("ت"));
+        assertTrue(table.supprimerRacine("بببب"));
+        assertNull(table.rechercher("بببب"));
+        assertEquals(3, table.taille());
+        assertTrue(table.verifier());
+    }
+
+    private static void comparer(TableRacines table, TreeSet<String> attendu, List<String> univers, String ou) {
+        assertTrue(table.verifier(), "invariants : " + ou);
+        assertEquals(attendu.size(), table.taille(), "taille : " + ou);
+        for (String r : univers) {
+            Node n = table.rechercher(r);
+            if (attendu.contains(r)) {
+                assertNotNull(n, r + " absente : " + ou);
+                assertEquals(r, n.racine);
+            } else {
+                assertNull(n, r + " présente : " + ou);
+            }
+        }
+        List<String> racines = new ArrayList<>();
+        for (Node n : table.getAllNodes()) racines.add(n.racine);
+        assertEquals(new ArrayList<>(attendu), racines, "parcours : " + ou);
+    }
+}
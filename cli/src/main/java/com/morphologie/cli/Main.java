@@ -12,7 +12,7 @@ public class Main {
         Morphologie engine = new Morphologie();
         
         // Chargement automatique des racines depuis le fichier racines.txt
-        FileLoader.chargerRacinesDepuisFichier("racines.txt", engine.arbre);
+        FileLoader.chargerRacinesDepuisFichier("racines.txt", engine);
         
         // Scanner pour lire les entrées utilisateur (avec support de l'UTF-8 pour l'arabe)
         Scanner sc = new Scanner(System.in, "UTF-8");
@@ -47,7 +47,7 @@ public class Main {
                     System.out.print("Racine (3 lettres) : ");
                     String racine = sc.nextLine();
                     if (racine.length() == 3)
-                        engine.arbre.addRacine(racine);
+                        engine.ajouterRacine(racine);
                     else
                         System.out.println("❌ Racine invalide, doit être 3 lettres.");
                     break;